@@ -0,0 +1,71 @@
+package com.example.LoanAPIBackend.benchmark;
+
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.security.service.CredentialCachingAuthenticationManager;
+import com.example.LoanAPIBackend.security.service.VerifiedCredentialCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentications per second for one HTTP Basic request, with and without the verified-credential cache.
+ * The user lookup is in-memory so the numbers isolate the password check; each op is one request's auth cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class AuthenticationBenchmark {
+
+    private static final String USERNAME = "johndoe";
+    private static final String PASSWORD = "customerpass";
+
+    private AuthenticationManager bcryptPerRequest;
+    private AuthenticationManager credentialCache;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        AuthenticatedUser user = new AuthenticatedUser(2L, USERNAME, passwordEncoder.encode(PASSWORD),
+                Role.ROLE_CUSTOMER, 1L);
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(username -> user);
+        provider.setPasswordEncoder(passwordEncoder);
+
+        bcryptPerRequest = new ProviderManager(provider);
+        credentialCache = new CredentialCachingAuthenticationManager(bcryptPerRequest,
+                new VerifiedCredentialCache(10_000, Duration.ofMinutes(1)));
+    }
+
+    @Benchmark
+    public Authentication bcryptPerRequest() {
+        return bcryptPerRequest.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, PASSWORD));
+    }
+
+    @Benchmark
+    public Authentication credentialCache() {
+        return credentialCache.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, PASSWORD));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.LoanAPIBackend.benchmark;
+
+import com.example.LoanAPIBackend.model.Customer;
+import com.example.LoanAPIBackend.model.Loan;
+import com.example.LoanAPIBackend.model.LoanInstallment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * In-memory loans shaped like the ones {@code LoanFactory} builds, with ids set as if they had been persisted.
+ * Dates are fixed so every run allocates over the same schedule.
+ */
+final class BenchmarkLoans {
+
+    static final LocalDate CREATE_DATE = LocalDate.of(2025, 1, 15);
+    static final LocalDate FIRST_DUE_DATE = LocalDate.of(2025, 2, 1);
+
+    private BenchmarkLoans() {
+    }
+
+    static Loan withInstallments(int numberOfInstallments) {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setCreditLimit(new BigDecimal("100000.00"));
+        customer.setUsedCreditLimit(new BigDecimal("12000.00"));
+
+        Loan loan = new Loan();
+        loan.setId(1L);
+        loan.setCustomer(customer);
+        loan.setLoanAmount(new BigDecimal("12000.00"));
+        loan.setInterestRate(new BigDecimal("0.2500"));
+        loan.setNumberOfInstallments(numberOfInstallments);
+        loan.setCreateDate(CREATE_DATE);
+
+        BigDecimal installmentAmount = loan.getCalculatedInstallmentAmount();
+        for (int i = 0; i < numberOfInstallments; i++) {
+            LoanInstallment installment = new LoanInstallment();
+            installment.setId(i + 1L);
+            installment.setInstallmentAmount(installmentAmount);
+            installment.setDueDate(FIRST_DUE_DATE.plusMonths(i));
+            loan.addInstallment(installment);
+        }
+        return loan;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.LoanAPIBackend.benchmark;
+
+import com.example.LoanAPIBackend.dto.LoanResponse;
+import com.example.LoanAPIBackend.model.Loan;
+import com.example.LoanAPIBackend.service.LoanMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-response mapping for one 24-installment loan, as returned by loan creation and the loan detail
+ * endpoint, and without installments, as in one row of the loan list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanMappingBenchmark {
+
+    private final LoanMapper loanMapper = new LoanMapper();
+
+    private Loan loan;
+
+    @Setup
+    public void setUp() {
+        loan = BenchmarkLoans.withInstallments(24);
+    }
+
+    @Benchmark
+    public LoanResponse withInstallments() {
+        return loanMapper.mapToLoanResponse(loan, true);
+    }
+
+    @Benchmark
+    public LoanResponse withoutInstallments() {
+        return loanMapper.mapToLoanResponse(loan, false);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.LoanAPIBackend.benchmark;
+
+import com.example.LoanAPIBackend.model.Loan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the derived amounts on {@link Loan}. Both are recomputed from BigDecimal on every call, and every
+ * loan response and installment schedule goes through them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanMathBenchmark {
+
+    private Loan loan;
+
+    @Setup
+    public void setUp() {
+        loan = BenchmarkLoans.withInstallments(24);
+    }
+
+    @Benchmark
+    public BigDecimal totalLoanAmountWithInterest() {
+        return loan.getTotalLoanAmountWithInterest();
+    }
+
+    @Benchmark
+    public BigDecimal calculatedInstallmentAmount() {
+        return loan.getCalculatedInstallmentAmount();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.LoanAPIBackend.benchmark;
+
+import com.example.LoanAPIBackend.model.Loan;
+import com.example.LoanAPIBackend.model.LoanInstallment;
+import com.example.LoanAPIBackend.service.PaymentAllocator;
+import com.example.LoanAPIBackend.service.PaymentPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The discount/penalty allocation loop behind {@code PaymentService.payLoanInstallments}, on a 24-installment
+ * loan with a payment covering the three installments inside the payable window. Early pays before the first
+ * due date, so every installment is discounted; late pays 20 days after it, so the first one carries a penalty.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentAllocationBenchmark {
+
+    private static final LocalDate EARLY = BenchmarkLoans.FIRST_DUE_DATE.minusDays(10);
+    private static final LocalDate LATE = BenchmarkLoans.FIRST_DUE_DATE.plusDays(20);
+
+    private final PaymentAllocator paymentAllocator = new PaymentAllocator();
+
+    private Loan loan;
+    private List<LoanInstallment> unpaidInstallments;
+    private BigDecimal paymentAmount;
+
+    @Setup
+    public void setUp() {
+        loan = BenchmarkLoans.withInstallments(24);
+        unpaidInstallments = List.copyOf(loan.getInstallments());
+        paymentAmount = loan.getCalculatedInstallmentAmount().multiply(BigDecimal.valueOf(3));
+    }
+
+    @Benchmark
+    public PaymentPlan early() {
+        return paymentAllocator.plan(loan, unpaidInstallments, paymentAmount, EARLY);
+    }
+
+    @Benchmark
+    public PaymentPlan late() {
+        return paymentAllocator.plan(loan, unpaidInstallments, paymentAmount, LATE);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.LoanAPIBackend.benchmark;
+
+import com.example.LoanAPIBackend.enums.ScheduleType;
+import com.example.LoanAPIBackend.schedule.AmortizationSchedule;
+import com.example.LoanAPIBackend.schedule.ScheduleEngines;
+import com.example.LoanAPIBackend.schedule.TemplatedScheduleEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules generated per second by each engine, with its template served from the cache as in production,
+ * and rebuilt on every call as a cold start. {@code flatLoop} is the loop loan creation ran before the
+ * engines, with a BigDecimal installment amount and a YearMonth due date per installment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleGenerationBenchmark {
+
+    private static final long PRINCIPAL_CENTS = 1_234_567L;
+    private static final long RATE_UNITS = 2_350L;
+    private static final YearMonth FIRST_DUE_MONTH = YearMonth.of(2026, 1);
+
+    @Param({"FLAT", "ANNUITY", "DECLINING_BALANCE"})
+    public ScheduleType scheduleType;
+
+    @Param({"6", "24"})
+    public int installments;
+
+    private TemplatedScheduleEngine engine;
+
+    @Setup
+    public void setUp() {
+        engine = (TemplatedScheduleEngine) ScheduleEngines.of(scheduleType);
+    }
+
+    @Benchmark
+    public AmortizationSchedule cachedTemplate() {
+        return engine.generate(PRINCIPAL_CENTS, RATE_UNITS, installments, FIRST_DUE_MONTH);
+    }
+
+    @Benchmark
+    public AmortizationSchedule coldTemplate() {
+        return engine.generate(PRINCIPAL_CENTS, engine.template(installments, RATE_UNITS, FIRST_DUE_MONTH));
+    }
+
+    @Benchmark
+    public List<LocalDate> flatLoop(Blackhole blackhole) {
+        BigDecimal amount = BigDecimal.valueOf(PRINCIPAL_CENTS, 2);
+        BigDecimal installmentAmount = amount.multiply(BigDecimal.ONE.add(BigDecimal.valueOf(RATE_UNITS, 4)))
+                .setScale(2, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(installments), 2, RoundingMode.HALF_UP);
+        blackhole.consume(installmentAmount);
+        LocalDate firstDueDate = YearMonth.from(FIRST_DUE_MONTH.atDay(1)).atDay(1);
+        List<LocalDate> dueDates = new ArrayList<>(installments);
+        for (int i = 0; i < installments; i++) {
+            dueDates.add(firstDueDate.plusMonths(i));
+        }
+        return dueDates;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.LoanAPIBackend.accrual;
+
+import com.example.LoanAPIBackend.money.Money;
+import com.example.LoanAPIBackend.service.PaymentAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch that writes the penalty each unpaid overdue installment has accrued as of a date into
+ * {@code penalty_accrual}, using the same arithmetic as a payment made that day.
+ * <p>
+ * The loan-id space is split into partitions that run in parallel, and each partition walks its range in
+ * chunks of {@code app.penalty-accrual.chunk-loan-ids} loan ids. A chunk replaces the accruals of its range and
+ * advances the partition's checkpoint in one transaction, so a run that stops part-way continues where it
+ * left off when the same date is run again, and a completed date is a no-op. Dates only move forward: a chunk
+ * replaces its range's accruals whatever date wrote them, so a date earlier than one already started is refused
+ * rather than overwriting newer figures. JDBC only: the rows never enter the persistence context or the
+ * second-level cache.
+ */
+@Component
+public class PenaltyAccrualJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PenaltyAccrualJob.class);
+
+    private record Checkpoint(int partitionNo, long fromLoanId, long toLoanId, long lastLoanId, boolean completed) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int partitions;
+    private final long chunkLoanIds;
+
+    public PenaltyAccrualJob(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.penalty-accrual.partitions:4}") int partitions,
+                             @Value("${app.penalty-accrual.chunk-loan-ids:1000}") long chunkLoanIds) {
+        if (partitions < 1 || chunkLoanIds < 1) {
+            throw new IllegalArgumentException("partitions and chunkLoanIds must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitions = partitions;
+        this.chunkLoanIds = chunkLoanIds;
+    }
+
+    // Disabled unless app.penalty-accrual.cron is set; "-" turns the schedule off.
+    @Scheduled(cron = "${app.penalty-accrual.cron:-}")
+    public void accrueAsOfToday() {
+        PenaltyAccrualResult result = run(LocalDate.now());
+        logger.info("Penalty accrual as of {}: {} partition(s) run, {} overdue installment(s) accrued",
+                result.asOfDate(), result.partitionsRun(), result.installmentsAccrued());
+    }
+
+    /**
+     * Accrues penalties as of {@code asOfDate}, resuming from its checkpoints if the date was started before.
+     * Installments due before that date are overdue; the penalty grows with the days between the two.
+     *
+     * @throws IllegalStateException if a later date has already been started
+     */
+    public PenaltyAccrualResult run(LocalDate asOfDate) {
+        Date latestAsOf = jdbcTemplate.queryForObject("select max(as_of_date) from penalty_accrual_checkpoint",
+                Date.class);
+        if (latestAsOf != null && latestAsOf.toLocalDate().isAfter(asOfDate)) {
+            throw new IllegalStateException("Penalty accrual as of " + asOfDate + " refused: "
+                    + latestAsOf.toLocalDate() + " has already been run, and its accruals would be overwritten");
+        }
+
+        List<Checkpoint> pending = checkpointsFor(asOfDate).stream()
+                .filter(checkpoint -> !checkpoint.completed())
+                .toList();
+        if (pending.isEmpty()) {
+            return new PenaltyAccrualResult(asOfDate, 0, 0);
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(partitions, pending.size()),
+                runnable -> new Thread(runnable, "penalty-accrual-" + threadNumber.incrementAndGet()));
+        try {
+            List<Future<Long>> results = new ArrayList<>(pending.size());
+            for (Checkpoint checkpoint : pending) {
+                results.add(executor.submit(() -> runPartition(asOfDate, checkpoint)));
+            }
+            long accrued = 0;
+            for (Future<Long> result : results) {
+                accrued += result.get();
+            }
+            return new PenaltyAccrualResult(asOfDate, pending.size(), accrued);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Penalty accrual as of " + asOfDate + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Penalty accrual as of " + asOfDate + " was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long runPartition(LocalDate asOfDate, Checkpoint checkpoint) {
+        long accrued = 0;
+        long lastLoanId = checkpoint.lastLoanId();
+        while (lastLoanId < checkpoint.toLoanId()) {
+            long fromLoanId = lastLoanId;
+            long toLoanId = Math.min(lastLoanId + chunkLoanIds, checkpoint.toLoanId());
+            accrued += transactionTemplate.execute(status ->
+                    accrueChunk(asOfDate, checkpoint, fromLoanId, toLoanId));
+            lastLoanId = toLoanId;
+        }
+        return accrued;
+    }
+
+    private int accrueChunk(LocalDate asOfDate, Checkpoint checkpoint, long fromLoanId, long toLoanId) {
+        Date asOf = Date.valueOf(asOfDate);
+        List<Object[]> accruals = jdbcTemplate.query(
+                "select id, loan_id, installment_amount, due_date from loan_installment " +
+                        "where loan_id > ? and loan_id <= ? and is_paid = false and due_date < ?",
+                (rs, rowNum) -> {
+                    long baseCents = Money.cents(rs.getBigDecimal("installment_amount"));
+                    long daysOverdue = ChronoUnit.DAYS.between(rs.getDate("due_date").toLocalDate(), asOfDate);
+                    return new Object[]{rs.getLong("id"), rs.getLong("loan_id"), asOf, daysOverdue,
+                            Money.toBigDecimal(baseCents),
+                            Money.toBigDecimal(PaymentAllocator.penaltyCents(baseCents, daysOverdue))};
+                },
+                fromLoanId, toLoanId, asOf);
+
+        jdbcTemplate.update("delete from penalty_accrual where loan_id > ? and loan_id <= ?", fromLoanId, toLoanId);
+        jdbcTemplate.batchUpdate("insert into penalty_accrual (installment_id, loan_id, as_of_date, days_overdue, " +
+                "installment_amount, accrued_penalty) values (?, ?, ?, ?, ?, ?)", accruals);
+        jdbcTemplate.update("update penalty_accrual_checkpoint set last_loan_id = ?, completed = ? " +
+                        "where as_of_date = ? and partition_no = ?",
+                toLoanId, toLoanId == checkpoint.toLoanId(), asOf, checkpoint.partitionNo());
+        return accruals.size();
+    }
+
+    /**
+     * The date's partition layout, created on its first run from the current loan-id range and reused by
+     * every restart, so resumed partitions cover exactly the ranges they started with.
+     */
+    private List<Checkpoint> checkpointsFor(LocalDate asOfDate) {
+        List<Checkpoint> checkpoints = findCheckpoints(asOfDate);
+        if (!checkpoints.isEmpty()) {
+            return checkpoints;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> createCheckpoints(asOfDate));
+        } catch (DuplicateKeyException e) {
+            // Another instance laid out the same date first; use its partitions.
+        }
+        return findCheckpoints(asOfDate);
+    }
+
+    private void createCheckpoints(LocalDate asOfDate) {
+        Date asOf = Date.valueOf(asOfDate);
+        List<Object[]> rows = new ArrayList<>(partitions);
+        jdbcTemplate.query("select min(id), max(id) from loan", rs -> {
+            long minLoanId = rs.getLong(1);
+            long maxLoanId = rs.getLong(2);
+            if (rs.wasNull()) {
+                // No loans yet: a single empty, already completed partition records that the date was run.
+                rows.add(new Object[]{asOf, 0, 0L, 0L, 0L, true});
+                return;
+            }
+            long partitionSize = (maxLoanId - minLoanId + partitions) / partitions;
+            long fromLoanId = minLoanId - 1;
+            for (int partitionNo = 0; fromLoanId < maxLoanId; partitionNo++) {
+                long toLoanId = Math.min(fromLoanId + partitionSize, maxLoanId);
+                rows.add(new Object[]{asOf, partitionNo, fromLoanId, toLoanId, fromLoanId, false});
+                fromLoanId = toLoanId;
+            }
+        });
+        jdbcTemplate.batchUpdate("insert into penalty_accrual_checkpoint (as_of_date, partition_no, from_loan_id, " +
+                "to_loan_id, last_loan_id, completed) values (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private List<Checkpoint> findCheckpoints(LocalDate asOfDate) {
+        return jdbcTemplate.query("select partition_no, from_loan_id, to_loan_id, last_loan_id, completed " +
+                        "from penalty_accrual_checkpoint where as_of_date = ? order by partition_no",
+                (rs, rowNum) -> new Checkpoint(rs.getInt("partition_no"), rs.getLong("from_loan_id"),
+                        rs.getLong("to_loan_id"), rs.getLong("last_loan_id"), rs.getBoolean("completed")),
+                Date.valueOf(asOfDate));
+    }
+}
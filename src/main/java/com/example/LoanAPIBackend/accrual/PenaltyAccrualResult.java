@@ -0,0 +1,10 @@
+package com.example.LoanAPIBackend.accrual;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of one {@link PenaltyAccrualJob#run} call. A resumed date counts only the partitions and
+ * installments processed by this call; a date that was already complete reports zero for both.
+ */
+public record PenaltyAccrualResult(LocalDate asOfDate, int partitionsRun, long installmentsAccrued) {
+}
@@ -0,0 +1,159 @@
+package com.example.LoanAPIBackend.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded in-memory cache whose entries expire a fixed time after they were written.
+ * Entries are kept in write order, so both expiry and overflow eviction remove from the head.
+ * Guarded by a {@link ReentrantLock} rather than {@code synchronized} so callers on virtual threads never pin.
+ */
+public class ExpiringCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ExpiringCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    ExpiringCache(int maxSize, Duration ttl, LongSupplier nanoClock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public Optional<V> get(K key) {
+        long now = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+            if (entry.expiresAt() - now <= 0) {
+                entries.remove(key);
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+            hits.incrementAndGet();
+            return Optional.of(entry.value());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether a live entry exists, without counting a hit or a miss.
+     */
+    public boolean containsKey(K key) {
+        long now = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            return entry != null && entry.expiresAt() - now > 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        long now = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            // Re-insert so the entry moves to the tail and write order stays expiry order.
+            entries.remove(key);
+            entries.put(key, new Entry<>(value, now + ttlNanos));
+            evict(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores {@code value} only if no live entry exists and returns the live entry otherwise; check and
+     * insert happen under one lock, so exactly one of several concurrent callers wins.
+     */
+    public Optional<V> putIfAbsent(K key, V value) {
+        long now = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - now > 0) {
+                return Optional.of(entry.value());
+            }
+            entries.remove(key);
+            entries.put(key, new Entry<>(value, now + ttlNanos));
+            evict(now);
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    private void evict(long now) {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> head = iterator.next();
+            if (entries.size() > maxSize || head.getValue().expiresAt() - now <= 0) {
+                iterator.remove();
+            } else {
+                break;
+            }
+        }
+    }
+}
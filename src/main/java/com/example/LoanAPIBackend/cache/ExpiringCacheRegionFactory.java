@@ -0,0 +1,117 @@
+package com.example.LoanAPIBackend.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process Hibernate second-level cache on {@link ExpiringCache}: every entity and collection region is bounded
+ * by the same size and TTL, query results by their own. The update-timestamps region is an unbounded map, since
+ * dropping a timestamp would let a stale query result through; it holds one entry per table.
+ */
+public class ExpiringCacheRegionFactory extends RegionFactoryTemplate {
+
+    private final int regionMaxSize;
+    private final Duration regionTtl;
+    private final int queryResultsMaxSize;
+    private final Duration queryResultsTtl;
+    private final Map<String, ExpiringCache<Object, Object>> regions = new ConcurrentHashMap<>();
+
+    public ExpiringCacheRegionFactory(int regionMaxSize, Duration regionTtl,
+                                      int queryResultsMaxSize, Duration queryResultsTtl) {
+        this.regionMaxSize = regionMaxSize;
+        this.regionTtl = regionTtl;
+        this.queryResultsMaxSize = queryResultsMaxSize;
+        this.queryResultsTtl = queryResultsTtl;
+    }
+
+    /**
+     * Entity, collection and query-results regions by name, for hit ratio and size reporting.
+     */
+    public Map<String, ExpiringCache<Object, Object>> regions() {
+        return Collections.unmodifiableMap(regions);
+    }
+
+    @Override
+    public AccessType getDefaultAccessType() {
+        return AccessType.READ_WRITE;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new ExpiringCacheStorageAccess(region(regionConfig.getRegionName(), regionMaxSize, regionTtl));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return new ExpiringCacheStorageAccess(region(regionName, queryResultsMaxSize, queryResultsTtl));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return new TimestampsStorageAccess();
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(ExpiringCache::invalidateAll);
+        regions.clear();
+    }
+
+    private ExpiringCache<Object, Object> region(String name, int maxSize, Duration ttl) {
+        return regions.computeIfAbsent(name, ignored -> new ExpiringCache<>(maxSize, ttl));
+    }
+
+    private static class TimestampsStorageAccess implements StorageAccess {
+
+        private final Map<Object, Object> timestamps = new ConcurrentHashMap<>();
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return timestamps.get(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            timestamps.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return timestamps.containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            timestamps.clear();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            timestamps.remove(key);
+        }
+
+        @Override
+        public void release() {
+            timestamps.clear();
+        }
+    }
+}
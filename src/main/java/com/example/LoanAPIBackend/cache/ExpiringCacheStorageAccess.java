@@ -0,0 +1,47 @@
+package com.example.LoanAPIBackend.cache;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * One Hibernate cache region stored in an {@link ExpiringCache}. Hibernate's access strategies keep their
+ * soft locks and versioned items in here too, so this class only stores and evicts.
+ */
+class ExpiringCacheStorageAccess implements DomainDataStorageAccess {
+
+    private final ExpiringCache<Object, Object> cache;
+
+    ExpiringCacheStorageAccess(ExpiringCache<Object, Object> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        return cache.get(key).orElse(null);
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return cache.containsKey(key);
+    }
+
+    @Override
+    public void evictData() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void release() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.LoanAPIBackend.config;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Refuses to start the {@code prod} profile with Hibernate's SQL echo turned on. {@code show-sql} prints every
+ * statement synchronously to stdout on the request thread; use the {@code org.hibernate.SQL} logger instead,
+ * which goes through the async appender.
+ */
+@Component
+@Profile("prod")
+public class ProductionSettingsCheck {
+
+    static final List<String> FORBIDDEN_FLAGS = List.of(
+            "spring.jpa.show-sql",
+            "spring.jpa.properties.hibernate.show_sql",
+            "spring.jpa.properties.hibernate.format_sql");
+
+    public ProductionSettingsCheck(Environment environment) {
+        for (String flag : FORBIDDEN_FLAGS) {
+            if (environment.getProperty(flag, Boolean.class, false)) {
+                throw new IllegalStateException(flag + " must be false in the prod profile; " +
+                        "set logging.level.org.hibernate.SQL=debug to log statements asynchronously instead.");
+            }
+        }
+    }
+}
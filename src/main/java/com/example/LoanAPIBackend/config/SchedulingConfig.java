@@ -0,0 +1,13 @@
+package com.example.LoanAPIBackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on {@code @Scheduled} jobs. Each job's schedule comes from configuration and is off unless set,
+ * e.g. {@code app.penalty-accrual.cron} or {@code app.exposure.reconciliation.cron}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,40 @@
+package com.example.LoanAPIBackend.config;
+
+import com.example.LoanAPIBackend.cache.ExpiringCacheRegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Hibernate second-level and query cache for the {@code @Cacheable} entities (customers, loans, installments and
+ * a loan's installment list). Hibernate keeps it consistent for writes made through the session: entity updates
+ * replace cached entries after commit, and JPQL bulk updates evict the affected entity's region.
+ * Enabled with {@code app.cache.second-level.enabled}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.second-level.enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public ExpiringCacheRegionFactory secondLevelCacheRegionFactory(
+            @Value("${app.cache.second-level.max-size:10000}") int maxSize,
+            @Value("${app.cache.second-level.ttl:10m}") Duration ttl,
+            @Value("${app.cache.second-level.query-results.max-size:1000}") int queryResultsMaxSize,
+            @Value("${app.cache.second-level.query-results.ttl:1m}") Duration queryResultsTtl) {
+        return new ExpiringCacheRegionFactory(maxSize, ttl, queryResultsMaxSize, queryResultsTtl);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(ExpiringCacheRegionFactory regionFactory) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+        };
+    }
+}
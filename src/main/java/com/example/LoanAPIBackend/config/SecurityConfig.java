@@ -1,14 +1,19 @@
 package com.example.LoanAPIBackend.config;
 
 import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.security.service.AuthenticatedUserCache;
+import com.example.LoanAPIBackend.security.service.CredentialCachingAuthenticationManager;
 import com.example.LoanAPIBackend.security.service.UserDetailsServiceImpl;
+import com.example.LoanAPIBackend.security.service.VerifiedCredentialCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
-import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -25,6 +30,8 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     private final UserDetailsServiceImpl userDetailsServiceImpl;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final ObjectProvider<VerifiedCredentialCache> verifiedCredentialCacheProvider;
 
     @Bean
     public static PasswordEncoder passwordEncoder() {
@@ -32,12 +39,18 @@ public class SecurityConfig {
     }
 
     @Bean
-    public AuthenticationManager authenticationManager(HttpSecurity http) throws Exception {
-        AuthenticationManagerBuilder authenticationManagerBuilder =
-                http.getSharedObject(AuthenticationManagerBuilder.class);
-        authenticationManagerBuilder.userDetailsService(userDetailsServiceImpl)
-                .passwordEncoder(passwordEncoder());
-        return authenticationManagerBuilder.build();
+    public AuthenticationManager authenticationManager() {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsServiceImpl);
+        provider.setPasswordEncoder(passwordEncoder());
+        provider.setUserCache(authenticatedUserCache);
+        AuthenticationManager authenticationManager = new ProviderManager(provider);
+
+        // Optional mode: skip BCrypt for credentials verified within the last app.security.credential-cache.ttl.
+        VerifiedCredentialCache verifiedCredentialCache = verifiedCredentialCacheProvider.getIfAvailable();
+        if (verifiedCredentialCache != null) {
+            return new CredentialCachingAuthenticationManager(authenticationManager, verifiedCredentialCache);
+        }
+        return authenticationManager;
     }
 
     @Bean
@@ -46,9 +59,12 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/h2-console/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/loans/**").permitAll()
                         .anyRequest().authenticated()
                 )
+                .authenticationManager(authenticationManager())
                 .httpBasic(Customizer.withDefaults())
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
@@ -0,0 +1,30 @@
+package com.example.LoanAPIBackend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spring Boot silently keeps platform threads when {@code spring.threads.virtual.enabled} is set on a runtime
+ * older than Java 21; this makes that fallback visible at startup. Only that fallback has run so far; serving on
+ * virtual threads is unmeasured until {@code ExecutionModeLoadTest} runs on Java 21.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsSupportCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsSupportCheck.class);
+
+    static final int MIN_JAVA_VERSION = 21;
+
+    public VirtualThreadsSupportCheck() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < MIN_JAVA_VERSION) {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; requests are " +
+                    "served on platform threads. Run on Java {}+ to use them.", javaVersion, MIN_JAVA_VERSION);
+        } else {
+            logger.info("Serving requests on virtual threads");
+        }
+    }
+}
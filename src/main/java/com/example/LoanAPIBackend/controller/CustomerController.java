@@ -0,0 +1,54 @@
+package com.example.LoanAPIBackend.controller;
+
+import com.example.LoanAPIBackend.dto.CustomerExposureResponse;
+import com.example.LoanAPIBackend.dto.CustomerPaymentResponse;
+import com.example.LoanAPIBackend.dto.PayCustomerLoansRequest;
+import com.example.LoanAPIBackend.idempotency.IdempotencyService;
+import com.example.LoanAPIBackend.lanes.CustomerLanes;
+import com.example.LoanAPIBackend.service.CustomerExposureService;
+import com.example.LoanAPIBackend.service.PaymentService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/customers")
+@RequiredArgsConstructor
+public class CustomerController {
+
+    private final CustomerExposureService customerExposureService;
+    private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
+    private final CustomerLanes customerLanes;
+
+    // One summary row; admins can read any customer's, customers only their own.
+    @GetMapping("/{customerId}/exposure")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public ResponseEntity<CustomerExposureResponse> getExposure(@PathVariable Long customerId,
+                                                                Authentication authentication) {
+        return ResponseEntity.ok(customerExposureService.getExposure(customerId, authentication));
+    }
+
+    // One payment spread over all of the customer's unpaid loans, in a single transaction.
+    @PostMapping("/{customerId}/pay")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public ResponseEntity<CustomerPaymentResponse> payLoans(
+            @PathVariable Long customerId,
+            @Valid @RequestBody PayCustomerLoansRequest payRequest,
+            @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            Authentication authentication) {
+        return idempotencyService.execute(idempotencyKey, authentication, "pay-customer:" + customerId, payRequest,
+                CustomerPaymentResponse.class, () -> customerLanes.execute(customerId, () -> ResponseEntity.ok(
+                        paymentService.payCustomerInstallments(customerId, payRequest.getAmount(),
+                                payRequest.getStrategy(), authentication))));
+    }
+}
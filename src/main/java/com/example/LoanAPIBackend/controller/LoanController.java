@@ -2,66 +2,128 @@ package com.example.LoanAPIBackend.controller;
 
 import com.example.LoanAPIBackend.dto.LoanResponse;
 import com.example.LoanAPIBackend.dto.*;
+import com.example.LoanAPIBackend.idempotency.IdempotencyService;
+import com.example.LoanAPIBackend.lanes.CustomerLanes;
+import com.example.LoanAPIBackend.security.service.AuthenticatedUserResolver;
+import com.example.LoanAPIBackend.service.LoanImportService;
 import com.example.LoanAPIBackend.service.LoanService;
 import com.example.LoanAPIBackend.service.PaymentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/loans")
 @RequiredArgsConstructor
 public class LoanController {
 
+    // Private to the user, and revalidated on every use; Spring Security's default would be no-store.
+    private static final CacheControl LOAN_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final LoanService loanService;
     private final PaymentService paymentService;
+    private final LoanImportService loanImportService;
+    private final IdempotencyService idempotencyService;
+    private final CustomerLanes customerLanes;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/createLoan")
     @PreAuthorize("hasAnyRole('ROLE_CUSTOMER')")
     public ResponseEntity<LoanResponse> createLoan(@Valid @RequestBody CreateUserLoanRequest createLoanRequest
+            , @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
             , Authentication authentication) {
-        LoanResponse loanResponse = loanService.createLoanbyUser(createLoanRequest,authentication);
-        return new ResponseEntity<>(loanResponse, HttpStatus.CREATED);
+        return idempotencyService.execute(idempotencyKey, authentication, "createLoan", createLoanRequest,
+                LoanResponse.class, () -> customerLanes.execute(
+                        authenticatedUserResolver.resolve(authentication).getCustomerId(), () -> {
+                            LoanResponse loanResponse = loanService.createLoanbyUser(createLoanRequest,authentication);
+                            return new ResponseEntity<>(loanResponse, HttpStatus.CREATED);
+                        }));
     }
     @PostMapping("/createLoanByAdmin")
     @PreAuthorize("hasAnyRole('ADMIN')")
-    public ResponseEntity<LoanResponse> createLoanByAdmin(@Valid @RequestBody CreateLoanRequest createLoanRequest) {
-        LoanResponse loanResponse = loanService.createLoanWithCustomerbyAdmin(createLoanRequest);
-        return new ResponseEntity<>(loanResponse, HttpStatus.CREATED);
+    public ResponseEntity<LoanResponse> createLoanByAdmin(@Valid @RequestBody CreateLoanRequest createLoanRequest,
+            @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            Authentication authentication) {
+        return idempotencyService.execute(idempotencyKey, authentication, "createLoanByAdmin", createLoanRequest,
+                LoanResponse.class, () -> customerLanes.execute(createLoanRequest.getCustomerId(), () -> {
+                    LoanResponse loanResponse = loanService.createLoanWithCustomerbyAdmin(createLoanRequest);
+                    return new ResponseEntity<>(loanResponse, HttpStatus.CREATED);
+                }));
+    }
+    // Accepts a JSON array or NDJSON of CreateLoanRequest and streams one NDJSON result line per item. Malformed
+    // items are answered as REJECTED; input that cannot be parsed further ends the stream with one more such line.
+    @PostMapping(value = "/createLoansByAdmin",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public void createLoansByAdmin(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        loanImportService.importLoans(request.getInputStream(), result -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
     }
+
     @GetMapping("/listLoans")
     @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
-    public ResponseEntity<List<LoanResponse>> listLoans(
-            @RequestParam(required = false) Long customerId,
+    public ResponseEntity<LoanPageResponse> listLoans(
+            @Valid LoanSearchRequest searchRequest,
             Authentication authentication) {
 
-        List<LoanResponse> loans = loanService.getLoans(
-                Optional.ofNullable(customerId),
-                authentication
-        );
+        LoanPageResponse loans = loanService.getLoans(searchRequest, authentication);
         return ResponseEntity.ok(loans);
     }
 
+    // Both reads carry a strong ETag built from the loan version. An If-None-Match that still matches is
+    // answered with 304 after a single version lookup; the loan and its installments are not loaded.
+    // The version is read before the body, so a payment landing in between costs at most one extra full read.
     @GetMapping("/{loanId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
-    public ResponseEntity<LoanResponse> getLoanById(@PathVariable Long loanId, Authentication authentication) {
+    public ResponseEntity<LoanResponse> getLoanById(@PathVariable Long loanId, WebRequest webRequest,
+                                                    Authentication authentication) {
+        String eTag = loanETag(loanService.getLoanVersion(loanId, authentication));
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified();
+        }
         LoanResponse loan = loanService.getLoanById(loanId, authentication);
-        return ResponseEntity.ok(loan);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(LOAN_CACHE_CONTROL).body(loan);
     }
 
     @GetMapping("/{loanId}/installments")
     @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
     public ResponseEntity<List<LoanInstallmentResponse>> listInstallmentsForLoan(
-            @PathVariable Long loanId, Authentication authentication) {
+            @PathVariable Long loanId, WebRequest webRequest, Authentication authentication) {
+        String eTag = loanETag(loanService.getLoanVersion(loanId, authentication));
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified();
+        }
         List<LoanInstallmentResponse> installments = loanService.getInstallmentsByLoanId(loanId, authentication);
-        return ResponseEntity.ok(installments);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(LOAN_CACHE_CONTROL).body(installments);
     }
 
     @PostMapping("/{loanId}/pay")
@@ -69,8 +131,40 @@ public class LoanController {
     public ResponseEntity<PaymentResponse> payLoan(
             @PathVariable Long loanId,
             @Valid @RequestBody PayLoanRequest payLoanRequest,
+            @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
-        PaymentResponse paymentResponse = paymentService.payLoanInstallments(loanId, payLoanRequest.getAmount(), authentication);
-        return ResponseEntity.ok(paymentResponse);
+        return idempotencyService.execute(idempotencyKey, authentication, "pay:" + loanId, payLoanRequest,
+                PaymentResponse.class, () -> customerLanes.executeForLoan(loanId, () -> {
+                    PaymentResponse paymentResponse = paymentService.payLoanInstallments(loanId, payLoanRequest.getAmount(), authentication);
+                    return ResponseEntity.ok(paymentResponse);
+                }));
+    }
+
+    // What POST /{loanId}/pay would answer for this amount today, computed without paying. The amount is part of
+    // the URL, so the ETag only needs the loan version and the date for a client to reuse an earlier quote.
+    @GetMapping("/{loanId}/quote")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public ResponseEntity<PaymentResponse> quotePayment(@PathVariable Long loanId, @RequestParam BigDecimal amount,
+                                                        WebRequest webRequest, Authentication authentication) {
+        LocalDate today = LocalDate.now();
+        String eTag = quoteETag(loanService.getLoanVersion(loanId, authentication), today);
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified();
+        }
+        PaymentResponse quote = paymentService.quoteLoanInstallments(loanId, amount, today, authentication);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(LOAN_CACHE_CONTROL).body(quote);
+    }
+
+    private static String loanETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // A quote depends on the loan's version and the day the discounts and penalties are counted from.
+    private static String quoteETag(long version, LocalDate today) {
+        return "\"" + version + "-" + today + "\"";
+    }
+
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(LOAN_CACHE_CONTROL).build();
     }
 }
@@ -0,0 +1,108 @@
+package com.example.LoanAPIBackend.controller;
+
+import com.example.LoanAPIBackend.dto.InstallmentExportRow;
+import com.example.LoanAPIBackend.dto.LoanExportRow;
+import com.example.LoanAPIBackend.service.LoanExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Whole-portfolio exports for reporting. Each row is written to the response as soon as it is read, so the
+ * heap holds one row and the output buffer regardless of portfolio size. NDJSON is the default; add
+ * {@code ?format=csv} for CSV with a header line.
+ */
+@RestController
+@RequestMapping("/api/exports")
+@PreAuthorize("hasAnyRole('ADMIN')")
+@RequiredArgsConstructor
+public class LoanExportController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final LoanExportService loanExportService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping(value = "/loans", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportLoansAsNdjson(HttpServletResponse response) throws IOException {
+        OutputStream out = startExport(response, MediaType.APPLICATION_NDJSON_VALUE, "loans.ndjson");
+        loanExportService.exportLoans(ndjsonLines(out));
+        out.flush();
+    }
+
+    @GetMapping(value = "/loans", params = "format=csv", produces = TEXT_CSV_VALUE)
+    public void exportLoansAsCsv(HttpServletResponse response) throws IOException {
+        Writer writer = csvWriter(startExport(response, TEXT_CSV_VALUE, "loans.csv"), LoanExportRow.CSV_HEADER);
+        loanExportService.exportLoans(csvLines(writer, LoanExportRow::toCsvLine));
+        writer.flush();
+    }
+
+    @GetMapping(value = "/installments", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportInstallmentsAsNdjson(HttpServletResponse response) throws IOException {
+        OutputStream out = startExport(response, MediaType.APPLICATION_NDJSON_VALUE, "installments.ndjson");
+        loanExportService.exportInstallments(ndjsonLines(out));
+        out.flush();
+    }
+
+    @GetMapping(value = "/installments", params = "format=csv", produces = TEXT_CSV_VALUE)
+    public void exportInstallmentsAsCsv(HttpServletResponse response) throws IOException {
+        Writer writer = csvWriter(startExport(response, TEXT_CSV_VALUE, "installments.csv"),
+                InstallmentExportRow.CSV_HEADER);
+        loanExportService.exportInstallments(csvLines(writer, InstallmentExportRow::toCsvLine));
+        writer.flush();
+    }
+
+    private OutputStream startExport(HttpServletResponse response, String contentType, String fileName)
+            throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(contentType);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+        return response.getOutputStream();
+    }
+
+    private <T> Consumer<T> ndjsonLines(OutputStream out) {
+        return row -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static Writer csvWriter(OutputStream out, String header) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(header);
+        writer.write('\n');
+        return writer;
+    }
+
+    private static <T> Consumer<T> csvLines(Writer writer, Function<T, String> toCsvLine) {
+        return row -> {
+            try {
+                writer.write(toCsvLine.apply(row));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.LoanAPIBackend.dto;
+
+import com.example.LoanAPIBackend.enums.BulkItemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkLoanItemResult {
+    // Zero-based position of the request in the submitted stream.
+    private long index;
+    private BulkItemStatus status;
+    private Long customerId;
+    private Long loanId;
+    private String message;
+}
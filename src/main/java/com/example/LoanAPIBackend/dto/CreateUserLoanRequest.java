@@ -1,7 +1,9 @@
 package com.example.LoanAPIBackend.dto;
 
+import com.example.LoanAPIBackend.enums.ScheduleType;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
@@ -11,6 +13,7 @@ import java.math.BigDecimal;
 public class CreateUserLoanRequest {
     @NotNull
     @DecimalMin(value = "0.0", inclusive = false, message = "Loan amount must be positive")
+    @Digits(integer = 17, fraction = 2, message = "Loan amount must have at most 2 decimal places")
     private BigDecimal amount;
     @NotNull
     @DecimalMin(value = "0.10", message = "Interest rate must be at least 0.1")
@@ -18,4 +21,6 @@ public class CreateUserLoanRequest {
     private BigDecimal interestRate;
     @NotNull
     private Integer numberOfInstallments;
+    // Optional; flat when omitted.
+    private ScheduleType scheduleType;
 }
@@ -0,0 +1,23 @@
+package com.example.LoanAPIBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerExposureResponse {
+    private Long customerId;
+    private int openLoanCount;
+    private int unpaidInstallmentCount;
+    private BigDecimal outstandingAmount;
+    private LocalDate nextDueDate;
+    private int overdueInstallmentCount;
+    private LocalDate overdueAsOf;
+}
@@ -0,0 +1,33 @@
+package com.example.LoanAPIBackend.dto;
+
+import com.example.LoanAPIBackend.enums.AllocationStrategy;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CustomerPaymentResponse {
+    private AllocationStrategy strategy;
+    private int installmentsPaidCount;
+    private BigDecimal totalBaseAmountDebitedFromPayment;
+    private BigDecimal totalActualAmountAccountedForInstallments;
+    private BigDecimal remainingPaymentAmount;
+    private List<LoanPayment> loans;
+    private String message;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class LoanPayment {
+        private Long loanId;
+        private int installmentsPaidCount;
+        private BigDecimal totalBaseAmountDebitedFromPayment;
+        private BigDecimal totalActualAmountAccountedForInstallments;
+        private boolean loanFullyPaid;
+    }
+}
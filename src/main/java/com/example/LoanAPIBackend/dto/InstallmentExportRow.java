@@ -0,0 +1,25 @@
+package com.example.LoanAPIBackend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One installment in the admin export, read as a projection so it never enters the persistence context.
+ * Unpaid installments have no paid amount or payment date; CSV leaves those fields empty.
+ */
+public record InstallmentExportRow(Long id,
+                                   Long loanId,
+                                   BigDecimal installmentAmount,
+                                   BigDecimal paidAmount,
+                                   LocalDate dueDate,
+                                   LocalDate paymentDate,
+                                   boolean paid) {
+
+    public static final String CSV_HEADER = "id,loanId,installmentAmount,paidAmount,dueDate,paymentDate,paid";
+
+    public String toCsvLine() {
+        return id + "," + loanId + "," + installmentAmount.toPlainString() + ","
+                + (paidAmount != null ? paidAmount.toPlainString() : "") + "," + dueDate + ","
+                + (paymentDate != null ? paymentDate : "") + "," + paid;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.LoanAPIBackend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One loan in the admin export, read as a projection so it never enters the persistence context.
+ */
+public record LoanExportRow(Long id,
+                            Long customerId,
+                            BigDecimal loanAmount,
+                            BigDecimal interestRate,
+                            Integer numberOfInstallments,
+                            LocalDate createDate,
+                            boolean paid) {
+
+    public static final String CSV_HEADER = "id,customerId,loanAmount,interestRate,numberOfInstallments,createDate,paid";
+
+    public String toCsvLine() {
+        return id + "," + customerId + "," + loanAmount.toPlainString() + "," + interestRate.toPlainString() + ","
+                + numberOfInstallments + "," + createDate + "," + paid;
+    }
+}
@@ -16,6 +16,7 @@ public class LoanInstallmentResponse {
     private Long id;
     private Long loanId;
     private BigDecimal installmentAmount;
+    private BigDecimal principalAmount;
     private BigDecimal paidAmount;
     private LocalDate dueDate;
     private LocalDate paymentDate;
@@ -0,0 +1,20 @@
+package com.example.LoanAPIBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoanPageResponse {
+    private List<LoanResponse> loans;
+    private int size;
+    private boolean hasNext;
+    // Pass back as "cursor" to fetch the next page; null on the last page.
+    private Long nextCursor;
+}
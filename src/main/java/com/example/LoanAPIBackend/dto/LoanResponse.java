@@ -1,5 +1,6 @@
 package com.example.LoanAPIBackend.dto;
 
+import com.example.LoanAPIBackend.enums.ScheduleType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,6 +21,7 @@ public class LoanResponse {
     private BigDecimal interestRate;
     private BigDecimal totalAmountWithInterest;
     private Integer numberOfInstallments;
+    private ScheduleType scheduleType;
     private LocalDate createDate;
     private boolean isPaid;
     private List<LoanInstallmentResponse> installments;
@@ -0,0 +1,23 @@
+package com.example.LoanAPIBackend.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class LoanSearchRequest {
+    private Long customerId;
+    private Boolean isPaid;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo;
+    @Min(value = 0, message = "Cursor must not be negative")
+    private Long cursor;
+    @Min(value = 1, message = "Page size must be at least 1")
+    @Max(value = 100, message = "Page size must be at most 100")
+    private Integer size = 20;
+}
@@ -0,0 +1,18 @@
+package com.example.LoanAPIBackend.dto;
+
+import com.example.LoanAPIBackend.enums.AllocationStrategy;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class PayCustomerLoansRequest {
+    @NotNull
+    @DecimalMin(value = "0.0", message = "Payment amount must be positive")
+    private BigDecimal amount;
+
+    // Optional; oldest due first when omitted.
+    private AllocationStrategy strategy;
+}
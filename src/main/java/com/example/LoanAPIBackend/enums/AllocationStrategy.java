@@ -0,0 +1,12 @@
+package com.example.LoanAPIBackend.enums;
+
+/**
+ * Order in which a customer-level payment takes installments from the customer's loans. Within each loan
+ * installments are still paid in due-date order; the strategy only chooses which loan goes next.
+ */
+public enum AllocationStrategy {
+    // Earliest due date first, across all loans.
+    OLDEST_DUE_FIRST,
+    // Largest late penalty as of today first; installments not yet overdue follow by due date.
+    HIGHEST_PENALTY_FIRST
+}
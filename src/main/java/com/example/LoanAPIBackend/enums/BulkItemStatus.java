@@ -0,0 +1,6 @@
+package com.example.LoanAPIBackend.enums;
+
+public enum BulkItemStatus {
+    CREATED,
+    REJECTED
+}
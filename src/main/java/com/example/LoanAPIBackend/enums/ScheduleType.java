@@ -0,0 +1,13 @@
+package com.example.LoanAPIBackend.enums;
+
+/**
+ * How a loan's repayments are laid out over its installments.
+ */
+public enum ScheduleType {
+    // The loan's rate once over the whole term, split into equal installments.
+    FLAT,
+    // Equal installments (French amortization); the rate is annual, charged monthly on the open balance.
+    ANNUITY,
+    // Equal principal plus monthly interest on the open balance, so installments shrink; the rate is annual.
+    DECLINING_BALANCE
+}
@@ -0,0 +1,11 @@
+package com.example.LoanAPIBackend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LaneUnavailableException extends RuntimeException {
+    public LaneUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -5,7 +5,31 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.BAD_REQUEST)
 public class PaymentException extends RuntimeException {
+
+    /**
+     * Why a payment was refused, as a fixed code for metrics; the message is for the caller and may carry amounts.
+     */
+    public enum Reason {
+        LOAN_ALREADY_PAID,
+        INVALID_AMOUNT,
+        NO_UNPAID_INSTALLMENTS,
+        NOTHING_DUE_IN_WINDOW,
+        AMOUNT_BELOW_INSTALLMENT,
+        OTHER
+    }
+
+    private final Reason reason;
+
     public PaymentException(String message) {
+        this(Reason.OTHER, message);
+    }
+
+    public PaymentException(Reason reason, String message) {
         super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
     }
 }
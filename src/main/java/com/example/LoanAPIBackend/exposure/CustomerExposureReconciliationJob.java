@@ -0,0 +1,145 @@
+package com.example.LoanAPIBackend.exposure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Recomputes every {@code customer_exposure} row from the loans and installments, as of a date.
+ * <p>
+ * Runs nightly so the overdue counts move to the new day, and doubles as a check on the incremental updates:
+ * rows whose loan, installment, amount or next-due figures differ from the recomputed ones are counted and
+ * logged as corrected. Customers are processed in chunks of {@code app.exposure.reconciliation.chunk-customers},
+ * each in its own transaction that first locks the chunk's customer rows. Loan creation and payments lock the
+ * same row before they touch the summary, so none of them can commit between the recount and the write.
+ */
+@Component
+public class CustomerExposureReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerExposureReconciliationJob.class);
+
+    private static final String RECOMPUTE_SQL = "select c.id, " +
+            "count(distinct case when l.is_paid = false then l.id end), " +
+            "count(i.id), coalesce(sum(i.installment_amount), 0), min(i.due_date), " +
+            "count(case when i.due_date < ? then 1 end) " +
+            "from customers c " +
+            "left join loan l on l.customer_id = c.id " +
+            "left join loan_installment i on i.loan_id = l.id and i.is_paid = false " +
+            "where c.id > ? and c.id <= ? group by c.id order by c.id";
+
+    // The incrementally maintained figures; the overdue count is expected to change from one day to the next.
+    private record Exposure(long customerId, int openLoanCount, int unpaidInstallmentCount,
+                            BigDecimal outstandingAmount, LocalDate nextDueDate) {
+
+        static Exposure of(ResultSet rs) throws SQLException {
+            Date nextDueDate = rs.getDate(5);
+            return new Exposure(rs.getLong(1), rs.getInt(2), rs.getInt(3),
+                    rs.getBigDecimal(4).setScale(2, RoundingMode.UNNECESSARY),
+                    nextDueDate != null ? nextDueDate.toLocalDate() : null);
+        }
+    }
+
+    private record ChunkResult(long lastCustomerId, int customers, int corrected) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkCustomers;
+
+    public CustomerExposureReconciliationJob(JdbcTemplate jdbcTemplate,
+                                             PlatformTransactionManager transactionManager,
+                                             @Value("${app.exposure.reconciliation.chunk-customers:500}") int chunkCustomers) {
+        if (chunkCustomers < 1) {
+            throw new IllegalArgumentException("chunkCustomers must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkCustomers = chunkCustomers;
+    }
+
+    // Disabled unless app.exposure.reconciliation.cron is set; "-" turns the schedule off.
+    @Scheduled(cron = "${app.exposure.reconciliation.cron:-}")
+    public void reconcileAsOfToday() {
+        CustomerExposureReconciliationResult result = run(LocalDate.now());
+        if (result.rowsCorrected() > 0) {
+            logger.warn("Customer exposure reconciliation as of {} corrected {} of {} customer(s)",
+                    result.asOfDate(), result.rowsCorrected(), result.customersReconciled());
+        } else {
+            logger.info("Customer exposure reconciliation as of {}: {} customer(s), no corrections",
+                    result.asOfDate(), result.customersReconciled());
+        }
+    }
+
+    /**
+     * Rewrites every customer's summary, counting installments due before {@code asOfDate} as overdue.
+     */
+    public CustomerExposureReconciliationResult run(LocalDate asOfDate) {
+        long lastCustomerId = 0;
+        int customers = 0;
+        int corrected = 0;
+        while (true) {
+            long afterCustomerId = lastCustomerId;
+            ChunkResult chunk = transactionTemplate.execute(status -> reconcileChunk(asOfDate, afterCustomerId));
+            if (chunk == null) {
+                return new CustomerExposureReconciliationResult(asOfDate, customers, corrected);
+            }
+            lastCustomerId = chunk.lastCustomerId();
+            customers += chunk.customers();
+            corrected += chunk.corrected();
+        }
+    }
+
+    private ChunkResult reconcileChunk(LocalDate asOfDate, long afterCustomerId) {
+        List<Long> customerIds = jdbcTemplate.queryForList(
+                "select id from customers where id > ? order by id fetch first ? rows only for update",
+                Long.class, afterCustomerId, chunkCustomers);
+        if (customerIds.isEmpty()) {
+            return null;
+        }
+        long lastCustomerId = customerIds.get(customerIds.size() - 1);
+        Date asOf = Date.valueOf(asOfDate);
+
+        Map<Long, Exposure> stored = new HashMap<>();
+        jdbcTemplate.query("select customer_id, open_loan_count, unpaid_installment_count, outstanding_amount, " +
+                        "next_due_date from customer_exposure where customer_id > ? and customer_id <= ?",
+                rs -> {
+                    Exposure exposure = Exposure.of(rs);
+                    stored.put(exposure.customerId(), exposure);
+                },
+                afterCustomerId, lastCustomerId);
+
+        int[] corrected = {0};
+        List<Object[]> rows = jdbcTemplate.query(RECOMPUTE_SQL, (rs, rowNum) -> {
+            Exposure recomputed = Exposure.of(rs);
+            if (!Objects.equals(recomputed, stored.get(recomputed.customerId()))) {
+                corrected[0]++;
+            }
+            return new Object[]{recomputed.customerId(), recomputed.openLoanCount(),
+                    recomputed.unpaidInstallmentCount(), recomputed.outstandingAmount(),
+                    rs.getDate(5), rs.getInt(6), asOf};
+        }, asOf, afterCustomerId, lastCustomerId);
+
+        jdbcTemplate.update("delete from customer_exposure where customer_id > ? and customer_id <= ?",
+                afterCustomerId, lastCustomerId);
+        jdbcTemplate.batchUpdate("insert into customer_exposure (customer_id, open_loan_count, " +
+                "unpaid_installment_count, outstanding_amount, next_due_date, overdue_installment_count, " +
+                "overdue_as_of) values (?, ?, ?, ?, ?, ?, ?)", rows);
+        return new ChunkResult(lastCustomerId, customerIds.size(), corrected[0]);
+    }
+}
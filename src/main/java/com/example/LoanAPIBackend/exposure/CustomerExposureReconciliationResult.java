@@ -0,0 +1,13 @@
+package com.example.LoanAPIBackend.exposure;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of one {@link CustomerExposureReconciliationJob} run.
+ *
+ * @param asOfDate             date the overdue counts were computed for
+ * @param customersReconciled  customers whose summary was rewritten
+ * @param rowsCorrected        summaries that were missing or whose incrementally kept figures were wrong
+ */
+public record CustomerExposureReconciliationResult(LocalDate asOfDate, int customersReconciled, int rowsCorrected) {
+}
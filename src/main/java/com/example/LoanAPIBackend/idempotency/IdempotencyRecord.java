@@ -0,0 +1,16 @@
+package com.example.LoanAPIBackend.idempotency;
+
+/**
+ * What is remembered for one idempotency key: a hash of the request it was first used with and, once the
+ * request has finished, the status and JSON body that were sent back. No status means still in progress.
+ */
+public record IdempotencyRecord(String requestHash, Integer responseStatus, String responseBody) {
+
+    public static IdempotencyRecord inProgress(String requestHash) {
+        return new IdempotencyRecord(requestHash, null, null);
+    }
+
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.LoanAPIBackend.idempotency;
+
+import com.example.LoanAPIBackend.exception.IdempotencyConflictException;
+import com.example.LoanAPIBackend.exception.ValidationException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Runs a state-changing request at most once per {@code Idempotency-Key}. A retry with the same key and
+ * body gets the stored response back without the action running again; the key is scoped to the caller
+ * and the operation, so different users or endpoints never share one. Failed requests release their key.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+
+    public <T> ResponseEntity<T> execute(String idempotencyKey, Authentication authentication, String operation,
+                                         Object request, Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException(IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        String key = authentication.getName() + '|' + operation + '|' + idempotencyKey;
+        String requestHash = hash(request);
+
+        Optional<IdempotencyRecord> existing = idempotencyStore.claim(key, requestHash);
+        if (existing.isPresent()) {
+            return replay(existing.get(), requestHash, responseType);
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            idempotencyStore.release(key);
+            throw e;
+        }
+        idempotencyStore.complete(key, new IdempotencyRecord(requestHash, response.getStatusCode().value(),
+                write(response.getBody())));
+        return response;
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        if (!record.requestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException(IDEMPOTENCY_KEY_HEADER + " was already used with a different request.");
+        }
+        if (!record.isCompleted()) {
+            throw new IdempotencyConflictException("A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed.");
+        }
+        try {
+            T body = objectMapper.readValue(record.responseBody(), responseType);
+            return ResponseEntity.status(record.responseStatus()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Request could not be fingerprinted", e);
+        }
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response could not be stored", e);
+        }
+    }
+}
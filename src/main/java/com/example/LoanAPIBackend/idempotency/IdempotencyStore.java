@@ -0,0 +1,24 @@
+package com.example.LoanAPIBackend.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Bounded, expiring storage for idempotency keys. Implementations must make {@link #claim} atomic:
+ * of several concurrent claims for the same key exactly one gets an empty result.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Marks the key as in progress unless it is already known.
+     *
+     * @return empty if this caller now owns the key, otherwise the record already stored for it
+     */
+    Optional<IdempotencyRecord> claim(String key, String requestHash);
+
+    void complete(String key, IdempotencyRecord record);
+
+    /**
+     * Forgets an in-progress key whose request failed, so the client can retry it.
+     */
+    void release(String key);
+}
@@ -0,0 +1,63 @@
+package com.example.LoanAPIBackend.idempotency;
+
+import com.example.LoanAPIBackend.cache.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default store, local to this instance. Keys are lost on restart. Completed responses are bounded and the
+ * oldest go first under size pressure; claims still in progress are kept apart and never evicted for size,
+ * only given up once their lease has run out.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private record Claim(String requestHash, long leaseEndsAt) {
+    }
+
+    private final ExpiringCache<String, IdempotencyRecord> records;
+    private final Map<String, Claim> claims = new ConcurrentHashMap<>();
+    private final long leaseNanos;
+
+    public InMemoryIdempotencyStore(@Value("${app.idempotency.max-size:10000}") int maxSize,
+                                    @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                    @Value("${app.idempotency.in-progress-lease:1m}") Duration inProgressLease) {
+        this.records = new ExpiringCache<>(maxSize, ttl);
+        this.leaseNanos = inProgressLease.toNanos();
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> claim(String key, String requestHash) {
+        long now = System.nanoTime();
+        Claim mine = new Claim(requestHash, now + leaseNanos);
+        Claim current = claims.compute(key, (k, existing) ->
+                existing == null || existing.leaseEndsAt() - now <= 0 ? mine : existing);
+        if (current != mine) {
+            return Optional.of(IdempotencyRecord.inProgress(current.requestHash()));
+        }
+        // Completed after our lookup could have missed it: complete() stores the response before dropping the claim.
+        Optional<IdempotencyRecord> completed = records.get(key);
+        if (completed.isPresent()) {
+            claims.remove(key, mine);
+        }
+        return completed;
+    }
+
+    @Override
+    public void complete(String key, IdempotencyRecord record) {
+        records.put(key, record);
+        claims.remove(key);
+    }
+
+    @Override
+    public void release(String key) {
+        claims.remove(key);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.LoanAPIBackend.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Store backed by the {@code idempotency_keys} table, so keys survive restarts and are shared by all
+ * instances on the same database. The primary key makes the claim atomic; expired rows are purged at most
+ * once per purge interval. Each call runs in its own short transaction, outside the business transaction.
+ * <p>
+ * A claim that never got its response, because the instance died or failed between the business commit and
+ * {@link #complete}, expires after the in-progress lease rather than the full TTL. Until then retries are told
+ * the request is still being processed; after it the key can be claimed, and the request run, again.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final long PURGE_INTERVAL_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration inProgressLease;
+    private final AtomicLong nextPurgeAt = new AtomicLong();
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+                                @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                @Value("${app.idempotency.in-progress-lease:1m}") Duration inProgressLease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.inProgressLease = inProgressLease;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> claim(String key, String requestHash) {
+        Instant now = Instant.now();
+        Timestamp expiredBefore = Timestamp.from(now.minus(ttl));
+        Timestamp leaseExpiredBefore = Timestamp.from(now.minus(inProgressLease));
+        purgeExpired(now, expiredBefore, leaseExpiredBefore);
+        jdbcTemplate.update("delete from idempotency_keys where idempotency_key = ? and (created_at < ? " +
+                "or (response_status is null and created_at < ?))", key, expiredBefore, leaseExpiredBefore);
+        try {
+            jdbcTemplate.update("insert into idempotency_keys (idempotency_key, request_hash, created_at) values (?, ?, ?)",
+                    key, requestHash, Timestamp.from(now));
+            return Optional.empty();
+        } catch (DuplicateKeyException e) {
+            // Released between our insert and this read: report it as in progress and let the client retry.
+            return Optional.of(find(key).orElse(IdempotencyRecord.inProgress(requestHash)));
+        }
+    }
+
+    @Override
+    public void complete(String key, IdempotencyRecord record) {
+        jdbcTemplate.update("update idempotency_keys set response_status = ?, response_body = ? where idempotency_key = ?",
+                record.responseStatus(), record.responseBody(), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("delete from idempotency_keys where idempotency_key = ? and response_status is null", key);
+    }
+
+    private Optional<IdempotencyRecord> find(String key) {
+        return jdbcTemplate.query(
+                "select request_hash, response_status, response_body from idempotency_keys where idempotency_key = ?",
+                (rs, rowNum) -> new IdempotencyRecord(rs.getString("request_hash"),
+                        rs.getObject("response_status", Integer.class), rs.getString("response_body")),
+                key).stream().findFirst();
+    }
+
+    private void purgeExpired(Instant now, Timestamp expiredBefore, Timestamp leaseExpiredBefore) {
+        long nextPurge = nextPurgeAt.get();
+        if (now.toEpochMilli() >= nextPurge
+                && nextPurgeAt.compareAndSet(nextPurge, now.toEpochMilli() + PURGE_INTERVAL_MILLIS)) {
+            jdbcTemplate.update("delete from idempotency_keys where created_at < ? " +
+                    "or (response_status is null and created_at < ?)", expiredBefore, leaseExpiredBefore);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.LoanAPIBackend.lanes;
+
+import java.util.function.Supplier;
+
+/**
+ * Where the state-changing work of one customer runs: loan creation and payments, the calls that update the
+ * customer's credit row. Controllers hand that work over here, outside the service's retry and transaction.
+ * The default, {@link #DIRECT}, runs it on the calling thread; with {@code app.concurrency.lanes.enabled} set,
+ * {@link StripedCustomerLanes} runs one customer's work one call at a time.
+ */
+public interface CustomerLanes {
+
+    CustomerLanes DIRECT = new CustomerLanes() {
+        @Override
+        public <T> T execute(Long customerId, Supplier<T> action) {
+            return action.get();
+        }
+
+        @Override
+        public <T> T executeForLoan(Long loanId, Supplier<T> action) {
+            return action.get();
+        }
+    };
+
+    /**
+     * Runs {@code action} for {@code customerId} and returns its result, or throws what it threw.
+     * A null customer id runs it on the calling thread.
+     */
+    <T> T execute(Long customerId, Supplier<T> action);
+
+    /**
+     * {@link #execute} for the customer that owns {@code loanId}. An unknown loan runs on the calling thread,
+     * where the service reports it as not found.
+     */
+    <T> T executeForLoan(Long loanId, Supplier<T> action);
+}
@@ -0,0 +1,15 @@
+package com.example.LoanAPIBackend.lanes;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CustomerLanesConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(CustomerLanes.class)
+    public CustomerLanes directCustomerLanes() {
+        return CustomerLanes.DIRECT;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.LoanAPIBackend.lanes;
+
+import com.example.LoanAPIBackend.cache.ExpiringCache;
+import com.example.LoanAPIBackend.exception.LaneUnavailableException;
+import com.example.LoanAPIBackend.repository.LoanRepository;
+import com.example.LoanAPIBackend.repository.LoanVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Customers hashed onto a fixed number of lanes, each a single thread with a bounded queue. All loan creations
+ * and payments of one customer run on the same thread in arrival order, so within this instance they never
+ * wait on each other's row locks or lose a lock race; customers on different lanes run in parallel.
+ * The callers block until their work has run and get its result or exception back unchanged.
+ * <p>
+ * Each lane holds at most one database connection, so the lane count should stay below the pool size.
+ * Row locks are still taken: other instances, the bulk import and the batch jobs are not routed here.
+ * <p>
+ * Each call is wrapped by the context's {@link TaskDecorator} beans, in order, before it is queued, the way a
+ * context-propagating executor does; with {@code -Pmetrics} they carry the request's statement count and current
+ * observation over to the lane thread.
+ */
+@Component
+@ConditionalOnProperty(name = "app.concurrency.lanes.enabled", havingValue = "true")
+public class StripedCustomerLanes implements CustomerLanes, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripedCustomerLanes.class);
+
+    private static final Duration SHUTDOWN_GRACE = Duration.ofSeconds(10);
+
+    private final ThreadPoolExecutor[] lanes;
+    private final ThreadLocal<Integer> currentLane = new ThreadLocal<>();
+    private final LoanRepository loanRepository;
+    private final TaskDecorator taskDecorator;
+    // A loan never changes owner, so its customer is looked up once rather than on every payment.
+    private final ExpiringCache<Long, Long> loanCustomers;
+
+    public StripedCustomerLanes(LoanRepository loanRepository,
+                                ObjectProvider<TaskDecorator> taskDecorators,
+                                @Value("${app.concurrency.lanes.count:8}") int laneCount,
+                                @Value("${app.concurrency.lanes.queue-capacity:1000}") int queueCapacity,
+                                @Value("${app.concurrency.lanes.loan-owners.max-size:10000}") int loanOwnersMaxSize,
+                                @Value("${app.concurrency.lanes.loan-owners.ttl:1h}") Duration loanOwnersTtl) {
+        this.loanRepository = loanRepository;
+        this.taskDecorator = taskDecorators.orderedStream().reduce(runnable -> runnable,
+                (outer, inner) -> runnable -> outer.decorate(inner.decorate(runnable)));
+        this.loanCustomers = new ExpiringCache<>(loanOwnersMaxSize, loanOwnersTtl);
+        this.lanes = new ThreadPoolExecutor[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            int lane = i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                        Thread thread = new Thread(() -> {
+                            currentLane.set(lane);
+                            runnable.run();
+                        }, "customer-lane-" + lane);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        logger.info("Serializing loan creation and payments per customer on {} lanes", lanes.length);
+    }
+
+    @Override
+    public <T> T execute(Long customerId, Supplier<T> action) {
+        if (customerId == null) {
+            return action.get();
+        }
+        int lane = laneOf(customerId);
+        // Already on this customer's lane (a nested call): queueing behind ourselves would never return.
+        if (Integer.valueOf(lane).equals(currentLane.get())) {
+            return action.get();
+        }
+
+        FutureTask<T> result = new FutureTask<>(action::get);
+        try {
+            lanes[lane].execute(taskDecorator.decorate(result));
+        } catch (RejectedExecutionException e) {
+            throw new LaneUnavailableException("Too many requests are queued for this customer. Please retry shortly.");
+        }
+        return await(result);
+    }
+
+    @Override
+    public <T> T executeForLoan(Long loanId, Supplier<T> action) {
+        return execute(customerOf(loanId).orElse(null), action);
+    }
+
+    int laneOf(Long customerId) {
+        return Math.floorMod(Long.hashCode(customerId), lanes.length);
+    }
+
+    private Optional<Long> customerOf(Long loanId) {
+        if (loanId == null) {
+            return Optional.empty();
+        }
+        Optional<Long> cached = loanCustomers.get(loanId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<Long> customerId = loanRepository.findVersionById(loanId).map(LoanVersion::customerId);
+        customerId.ifPresent(id -> loanCustomers.put(loanId, id));
+        return customerId;
+    }
+
+    private static <T> T await(Future<T> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Customer lane task failed", cause);
+        } catch (InterruptedException e) {
+            // Work that has already started still runs to its commit; only the wait for its answer is abandoned.
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new LaneUnavailableException("Interrupted while waiting for the customer's lane.");
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        long deadline = System.nanoTime() + SHUTDOWN_GRACE.toNanos();
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                logger.warn("Customer lane still busy after {}; {} queued call(s) dropped", SHUTDOWN_GRACE,
+                        lane.shutdownNow().size());
+            }
+        }
+    }
+}
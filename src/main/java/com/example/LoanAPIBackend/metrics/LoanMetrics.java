@@ -0,0 +1,22 @@
+package com.example.LoanAPIBackend.metrics;
+
+import com.example.LoanAPIBackend.exception.PaymentException;
+
+/**
+ * Business outcomes of loan creation and payment, reported by the services. The default is {@link #NOOP};
+ * building with the {@code metrics} profile adds a Micrometer implementation exported to Prometheus.
+ */
+public interface LoanMetrics {
+
+    LoanMetrics NOOP = new LoanMetrics() {
+    };
+
+    default void paymentAccepted(int installmentsPaid, boolean loanPaidOff) {
+    }
+
+    default void paymentRejected(PaymentException.Reason reason) {
+    }
+
+    default void creditRejected() {
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.LoanAPIBackend.metrics;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(LoanMetrics.class)
+    public LoanMetrics noopLoanMetrics() {
+        return LoanMetrics.NOOP;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxMetrics.class)
+    public OutboxMetrics noopOutboxMetrics() {
+        return OutboxMetrics.NOOP;
+    }
+
+    // The registry comes with Actuator (-Pmetrics); without it no observation is ever current.
+    @Bean
+    public TaskDecorator requestContextTaskDecorator(ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new RequestContextTaskDecorator(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+}
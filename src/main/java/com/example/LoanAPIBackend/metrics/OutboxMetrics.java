@@ -0,0 +1,23 @@
+package com.example.LoanAPIBackend.metrics;
+
+import java.time.Duration;
+
+/**
+ * Outbox relay throughput and failures. The default is {@link #NOOP}; building with the {@code metrics}
+ * profile adds a Micrometer implementation exported to Prometheus.
+ */
+public interface OutboxMetrics {
+
+    OutboxMetrics NOOP = new OutboxMetrics() {
+    };
+
+    /**
+     * @param events          events acknowledged by every sink in one batch
+     * @param oldestEventAge  time the oldest of them spent in the outbox
+     */
+    default void batchRelayed(int events, Duration oldestEventAge) {
+    }
+
+    default void batchFailed() {
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.LoanAPIBackend.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the request's statement count ({@link RequestStatementCounter}) and current observation onto the thread
+ * that runs the task, so work a request hands to a customer lane is still counted and timed as part of it. Without
+ * the {@code metrics} profile neither is ever open and tasks pass through unchanged.
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    private final ObservationRegistry observationRegistry;
+
+    public RequestContextTaskDecorator(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        Runnable counted = RequestStatementCounter.propagate(task);
+        Observation observation = observationRegistry.getCurrentObservation();
+        return observation != null ? () -> observation.scoped(counted) : counted;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.LoanAPIBackend.metrics;
+
+/**
+ * Per-thread count of the SQL statements prepared for the current HTTP request. With the {@code metrics} profile a
+ * filter opens a count for each request and a Hibernate statement inspector bumps it; statements on a thread with
+ * no open count, e.g. at startup or in the batch jobs, are not counted. Work the request hands to another thread,
+ * such as a customer lane, is counted once wrapped with {@link #propagate(Runnable)}.
+ */
+public final class RequestStatementCounter {
+
+    private static final ThreadLocal<int[]> CURRENT_REQUEST_COUNT = new ThreadLocal<>();
+
+    private RequestStatementCounter() {
+    }
+
+    /**
+     * Starts a count on this thread, replacing any open one.
+     *
+     * @return the count, which keeps growing until {@link #close()}
+     */
+    public static int[] open() {
+        int[] count = new int[1];
+        CURRENT_REQUEST_COUNT.set(count);
+        return count;
+    }
+
+    public static void close() {
+        CURRENT_REQUEST_COUNT.remove();
+    }
+
+    public static void increment() {
+        int[] count = CURRENT_REQUEST_COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    /**
+     * Wraps {@code task}, on the thread that hands it over, so its statements count towards the current request.
+     * Returns {@code task} itself when no count is open.
+     */
+    public static Runnable propagate(Runnable task) {
+        int[] count = CURRENT_REQUEST_COUNT.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            int[] previous = CURRENT_REQUEST_COUNT.get();
+            CURRENT_REQUEST_COUNT.set(count);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT_REQUEST_COUNT.set(previous);
+                } else {
+                    CURRENT_REQUEST_COUNT.remove();
+                }
+            }
+        };
+    }
+}
@@ -4,12 +4,16 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 
 @Entity
 @Table(name = "CUSTOMERS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customer")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,5 +24,7 @@ public class Customer {
     private String name;
     private String surname;
     private BigDecimal creditLimit;
+    // Written only by the atomic UPDATEs in CustomerRepository; entity flushes never overwrite concurrent draws.
+    @Column(updatable = false)
     private BigDecimal usedCreditLimit = BigDecimal.ZERO;
 }
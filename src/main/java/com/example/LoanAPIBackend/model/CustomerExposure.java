@@ -0,0 +1,40 @@
+package com.example.LoanAPIBackend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * What a customer currently owes, kept up to date by loan creation and payments instead of being summed
+ * from the installments on every read. Not second-level cached: creation writes it with a bulk UPDATE.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerExposure {
+    @Id
+    private Long customerId;
+
+    @Column(nullable = false)
+    private int openLoanCount;
+
+    @Column(nullable = false)
+    private int unpaidInstallmentCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal outstandingAmount = BigDecimal.ZERO;
+
+    // Earliest due date among the unpaid installments, null when there are none.
+    private LocalDate nextDueDate;
+
+    // Unpaid installments due before overdueAsOf, the date of the last reconciliation.
+    @Column(nullable = false)
+    private int overdueInstallmentCount;
+
+    private LocalDate overdueAsOf;
+}
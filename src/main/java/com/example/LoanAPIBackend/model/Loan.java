@@ -1,9 +1,13 @@
 package com.example.LoanAPIBackend.model;
 
+import com.example.LoanAPIBackend.enums.ScheduleType;
+import com.example.LoanAPIBackend.money.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -12,15 +16,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_loan_customer_id", columnList = "customer_id, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "loan")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Loan {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_seq")
+    @SequenceGenerator(name = "loan_seq", sequenceName = "loan_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
 
@@ -33,32 +41,84 @@ public class Loan {
     @Column(nullable = false)
     private Integer numberOfInstallments;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ScheduleType scheduleType = ScheduleType.FLAT;
+
     @Column(nullable = false, updatable = false)
     private LocalDate createDate;
 
     @Column(columnDefinition = "boolean default false")
     private boolean isPaid = false;
 
+    /**
+     * Set by {@code LoanFactory} from the schedule it lays out, so reading it never regenerates the schedule.
+     * Null only on loans built by hand, for which flat loans price their terms below.
+     */
+    @Column(name = "total_amount_with_interest", precision = 19, scale = 2)
+    private BigDecimal totalLoanAmountWithInterest;
+
+    /**
+     * Changes whenever the loan or its installments do; the loan endpoints use it as their ETag.
+     * Deliberately not a JPA {@code @Version}: a payment only writes installment rows, and Hibernate's forced
+     * version increment would update the row behind the second-level cache. Bumping it as a plain field makes
+     * the loan dirty, so the cached copy is replaced on commit like any other change.
+     */
+    @Column(nullable = false)
+    private long version;
+
     @OneToMany(mappedBy = "loan", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OrderBy("dueDate ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "loan-installments")
     private List<LoanInstallment> installments = new ArrayList<>();
 
-    @Transient
+    /**
+     * The stored total. Unstored flat loans are priced in long cents when the amount and rate fit their column
+     * scales, which persisted loans always do; values that don't, e.g. an over-precise request, keep the
+     * BigDecimal path.
+     */
     public BigDecimal getTotalLoanAmountWithInterest() {
-        if (loanAmount == null || interestRate == null) {
+        if (totalLoanAmountWithInterest != null) {
+            return totalLoanAmountWithInterest;
+        }
+        if (loanAmount == null || interestRate == null || !isFlat()) {
             return BigDecimal.ZERO;
         }
+        if (Money.isWholeCents(loanAmount) && Money.isRate(interestRate)) {
+            return Money.toBigDecimal(totalWithInterestCents());
+        }
         return loanAmount.multiply(BigDecimal.ONE.add(interestRate)).setScale(2, RoundingMode.HALF_UP);
     }
 
+    // For schedules other than flat, the first installment as laid out; a declining-balance loan's later ones
+    // are smaller.
     @Transient
     public BigDecimal getCalculatedInstallmentAmount() {
         if (loanAmount == null || interestRate == null || numberOfInstallments == null || numberOfInstallments == 0) {
             return BigDecimal.ZERO;
         }
+        if (!isFlat()) {
+            return installments.isEmpty() ? BigDecimal.ZERO : installments.get(0).getInstallmentAmount();
+        }
+        if (Money.isWholeCents(loanAmount) && Money.isRate(interestRate)) {
+            return Money.toBigDecimal(Money.divide(totalWithInterestCents(), numberOfInstallments));
+        }
         BigDecimal totalWithInterest = getTotalLoanAmountWithInterest();
         return totalWithInterest.divide(BigDecimal.valueOf(numberOfInstallments), 2, RoundingMode.HALF_UP);
     }
 
+    private boolean isFlat() {
+        return scheduleType == null || scheduleType == ScheduleType.FLAT;
+    }
+
+    private long totalWithInterestCents() {
+        return Money.withRate(Money.cents(loanAmount), Money.rateUnits(interestRate));
+    }
+
+    public void incrementVersion() {
+        version++;
+    }
+
     public void addInstallment(LoanInstallment installment) {
         installments.add(installment);
         installment.setLoan(this);
@@ -5,20 +5,26 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = @Index(name = "idx_loan_installment_loan_paid_due", columnList = "loan_id, is_paid, due_date"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "loan-installment")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class LoanInstallment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_installment_seq")
+    @SequenceGenerator(name = "loan_installment_seq", sequenceName = "loan_installment_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "loan_id", nullable = false)
     @JsonIgnore // Avoid circular dependency in serialization if Loan includes installments
     private Loan loan;
@@ -26,6 +32,13 @@ public class LoanInstallment {
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal installmentAmount;
 
+    /**
+     * Part of the installment that repays principal, released back to the customer's credit when it is paid.
+     * Set from the loan's schedule; {@code null} only on installments built outside the factory.
+     */
+    @Column(precision = 19, scale = 2)
+    private BigDecimal principalAmount;
+
     @Column(precision = 19, scale = 2)
     private BigDecimal paidAmount;
 
@@ -1,6 +1,7 @@
 package com.example.LoanAPIBackend.model;
 
 import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.security.service.UserCacheInvalidationListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "app_users")
+@EntityListeners(UserCacheInvalidationListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,104 @@
+package com.example.LoanAPIBackend.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on {@code long} cents, so the pricing and allocation loops run without creating
+ * a BigDecimal per step. Rates are {@code long} units of 1/10000, the scale of the {@code interest_rate} column.
+ * Every rounding is HALF_UP to whole cents, matching {@code setScale(2, RoundingMode.HALF_UP)}; overflow throws
+ * {@link ArithmeticException} instead of wrapping. Convert with {@link #cents} and {@link #toBigDecimal} only
+ * where values enter or leave the API and the entities.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final int RATE_SCALE = 4;
+
+    private static final long RATE_ONE = 10_000L;
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE);
+
+    private Money() {
+    }
+
+    public static boolean isWholeCents(BigDecimal amount) {
+        return fitsScale(amount, SCALE);
+    }
+
+    public static boolean isRate(BigDecimal rate) {
+        return fitsScale(rate, RATE_SCALE);
+    }
+
+    /**
+     * @throws ArithmeticException if the amount has fractions of a cent or does not fit in a long
+     */
+    public static long cents(BigDecimal amount) {
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+
+    /**
+     * The amount in whole cents, dropping any fraction of a cent and saturating at the long range.
+     * {@code floorCents(a) >= c} holds exactly when {@code a >= c} does, which is all a payment is compared for.
+     */
+    public static long floorCents(BigDecimal amount) {
+        BigDecimal floored = amount.movePointRight(SCALE).setScale(0, RoundingMode.FLOOR);
+        if (floored.compareTo(MAX_CENTS) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (floored.compareTo(MIN_CENTS) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return floored.longValue();
+    }
+
+    /**
+     * @throws ArithmeticException if the rate has more than four decimals or does not fit in a long
+     */
+    public static long rateUnits(BigDecimal rate) {
+        return rate.movePointRight(RATE_SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * {@code cents * rate}, with the rate in 1/10000 units.
+     */
+    public static long applyRate(long cents, long rateUnits) {
+        return divide(Math.multiplyExact(cents, rateUnits), RATE_ONE);
+    }
+
+    /**
+     * {@code cents * (1 + rate)}, with the rate in 1/10000 units.
+     */
+    public static long withRate(long cents, long rateUnits) {
+        return applyRate(cents, Math.addExact(RATE_ONE, rateUnits));
+    }
+
+    /**
+     * {@code dividend / divisor} rounded HALF_UP, i.e. halves away from zero.
+     */
+    public static long divide(long dividend, long divisor) {
+        if (divisor == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder != 0 && Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+
+    private static boolean fitsScale(BigDecimal value, int scale) {
+        if (value == null) {
+            return false;
+        }
+        if (value.scale() > scale && value.stripTrailingZeros().scale() > scale) {
+            return false;
+        }
+        return value.precision() - value.scale() + scale <= 18;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.LoanAPIBackend.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Test sink: a bounded in-process queue that tests read with {@link #drain()}. A batch that does not fit is
+ * refused as a whole, so a slow consumer pushes back on the relay instead of losing events or growing the heap.
+ * Nothing drains it in a deployed application, where it would fill up and stall the relay; only enabled with
+ * {@code app.outbox.sink=memory}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final BlockingQueue<OutboxEvent> events;
+
+    public InMemoryOutboxSink(@Value("${app.outbox.memory.capacity:10000}") int capacity) {
+        this.events = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        if (events.remainingCapacity() < batch.size()) {
+            throw new OutboxDeliveryException("In-memory outbox sink is full: " + events.size() + " event(s) queued");
+        }
+        events.addAll(batch);
+    }
+
+    /**
+     * Removes and returns everything queued so far, oldest first.
+     */
+    public List<OutboxEvent> drain() {
+        List<OutboxEvent> drained = new ArrayList<>(events.size());
+        events.drainTo(drained);
+        return drained;
+    }
+
+    public int size() {
+        return events.size();
+    }
+}
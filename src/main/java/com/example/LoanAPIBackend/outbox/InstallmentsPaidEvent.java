@@ -0,0 +1,36 @@
+package com.example.LoanAPIBackend.outbox;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * An accepted payment. {@code loanVersion} is the loan's version after the payment, so consumers can drop
+ * redelivered or reordered copies by keeping the highest version they have applied per loan.
+ */
+public record InstallmentsPaidEvent(long loanId,
+                                    long customerId,
+                                    long loanVersion,
+                                    List<Long> installmentIds,
+                                    BigDecimal totalBaseAmount,
+                                    BigDecimal totalActualAmount,
+                                    LocalDate paymentDate,
+                                    boolean loanPaidOff) implements OutboxPayload {
+
+    public static final String EVENT_TYPE = "InstallmentsPaid";
+
+    @Override
+    public String aggregateType() {
+        return "Loan";
+    }
+
+    @Override
+    public long aggregateId() {
+        return loanId;
+    }
+
+    @Override
+    public String eventType() {
+        return EVENT_TYPE;
+    }
+}
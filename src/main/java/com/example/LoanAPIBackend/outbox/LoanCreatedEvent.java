@@ -0,0 +1,38 @@
+package com.example.LoanAPIBackend.outbox;
+
+import com.example.LoanAPIBackend.model.Loan;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record LoanCreatedEvent(long loanId,
+                               long customerId,
+                               BigDecimal loanAmount,
+                               BigDecimal interestRate,
+                               int numberOfInstallments,
+                               BigDecimal totalAmountWithInterest,
+                               LocalDate createDate) implements OutboxPayload {
+
+    public static final String EVENT_TYPE = "LoanCreated";
+
+    public static LoanCreatedEvent of(Loan loan) {
+        return new LoanCreatedEvent(loan.getId(), loan.getCustomer().getId(), loan.getLoanAmount(),
+                loan.getInterestRate(), loan.getNumberOfInstallments(), loan.getTotalLoanAmountWithInterest(),
+                loan.getCreateDate());
+    }
+
+    @Override
+    public String aggregateType() {
+        return "Loan";
+    }
+
+    @Override
+    public long aggregateId() {
+        return loanId;
+    }
+
+    @Override
+    public String eventType() {
+        return EVENT_TYPE;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.LoanAPIBackend.outbox;
+
+/**
+ * Thrown by an {@link OutboxSink} that did not take a batch, e.g. because it is full or its target is down.
+ */
+public class OutboxDeliveryException extends RuntimeException {
+
+    public OutboxDeliveryException(String message) {
+        super(message);
+    }
+
+    public OutboxDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
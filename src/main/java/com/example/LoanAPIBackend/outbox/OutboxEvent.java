@@ -0,0 +1,17 @@
+package com.example.LoanAPIBackend.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+/**
+ * A stored outbox row as handed to the sinks. The id grows with insertion and is unique, so sinks can use it
+ * to recognise an event delivered a second time; {@code payload} is JSON and serialized inline.
+ */
+public record OutboxEvent(long id,
+                          String aggregateType,
+                          long aggregateId,
+                          String eventType,
+                          @JsonRawValue String payload,
+                          Instant createdAt) {
+}
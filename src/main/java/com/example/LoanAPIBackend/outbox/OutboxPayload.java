@@ -0,0 +1,14 @@
+package com.example.LoanAPIBackend.outbox;
+
+/**
+ * Body of an outbox event. Implementations are records serialized to JSON as the event payload; the methods
+ * here are not record components and only fill the event's envelope columns.
+ */
+public interface OutboxPayload {
+
+    String aggregateType();
+
+    long aggregateId();
+
+    String eventType();
+}
@@ -0,0 +1,207 @@
+package com.example.LoanAPIBackend.outbox;
+
+import com.example.LoanAPIBackend.metrics.OutboxMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains {@code outbox_event} to every {@link OutboxSink} on one background thread.
+ * <p>
+ * Each batch is read in id order with its rows locked, published to the sinks, and deleted in the same
+ * transaction, so an event leaves the outbox only after every sink acknowledged it (at-least-once). Events of
+ * one loan keep their order, since the loan's writers are serialized by its row lock. A full batch is followed
+ * by the next one right away; otherwise the relay waits for a commit that wrote events, or the poll interval.
+ * <p>
+ * Backpressure: at most one batch is in flight, and a sink that fails or refuses one makes the relay pause for
+ * a doubling interval up to {@code app.outbox.relay.max-backoff}. Unsent events wait in the table meanwhile;
+ * writers are never blocked.
+ * <p>
+ * Off unless {@code app.outbox.relay.enabled}, and enabling it without any sink fails startup rather than
+ * leaving events nowhere to go.
+ */
+@Component
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final Object WAKE_UP = new Object();
+    private static final long STOP_TIMEOUT_SECONDS = 10;
+
+    private static final RowMapper<OutboxEvent> EVENT_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"), rs.getString("aggregate_type"), rs.getLong("aggregate_id"),
+            rs.getString("event_type"), rs.getString("payload"), rs.getTimestamp("created_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxSink> sinks;
+    private final OutboxMetrics outboxMetrics;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration maxBackoff;
+    private final BlockingQueue<Object> wakeUps = new ArrayBlockingQueue<>(1);
+
+    private volatile ExecutorService executor;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       ObjectProvider<OutboxSink> sinks,
+                       OutboxMetrics outboxMetrics,
+                       @Value("${app.outbox.relay.enabled:false}") boolean enabled,
+                       @Value("${app.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${app.outbox.relay.poll-interval:1s}") Duration pollInterval,
+                       @Value("${app.outbox.relay.max-backoff:30s}") Duration maxBackoff) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.sinks = sinks.orderedStream().toList();
+        if (enabled && this.sinks.isEmpty()) {
+            throw new IllegalStateException("app.outbox.relay.enabled is set but no outbox sink is configured; "
+                    + "set app.outbox.sink");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxMetrics = outboxMetrics;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Whether any sink is configured. Without one nothing ever takes events out of the outbox, so none are written.
+     */
+    public boolean hasSinks() {
+        return !sinks.isEmpty();
+    }
+
+    /**
+     * Asks the relay thread to look for new events now rather than at the next poll.
+     */
+    public void wakeUp() {
+        wakeUps.offer(WAKE_UP);
+    }
+
+    /**
+     * Delivers the oldest batch of waiting events to every sink and removes it from the outbox.
+     *
+     * @return number of events delivered, 0 when the outbox was empty
+     * @throws RuntimeException whatever a sink threw; the batch stays in the outbox
+     */
+    public int relayBatch() {
+        List<OutboxEvent> batch;
+        try {
+            batch = transactionTemplate.execute(status -> {
+                List<OutboxEvent> events = jdbcTemplate.query("select id, aggregate_type, aggregate_id, event_type, " +
+                                "payload, created_at from outbox_event order by id fetch first ? rows only for update",
+                        EVENT_MAPPER, batchSize);
+                if (events.isEmpty()) {
+                    return events;
+                }
+                for (OutboxSink sink : sinks) {
+                    sink.publish(events);
+                }
+                jdbcTemplate.batchUpdate("delete from outbox_event where id = ?",
+                        events.stream().map(event -> new Object[]{event.id()}).toList());
+                return events;
+            });
+        } catch (RuntimeException e) {
+            outboxMetrics.batchFailed();
+            throw e;
+        }
+        if (!batch.isEmpty()) {
+            outboxMetrics.batchRelayed(batch.size(), Duration.between(batch.get(0).createdAt(), Instant.now()));
+        }
+        return batch.size();
+    }
+
+    private void relayLoop() {
+        int failures = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                int relayed = relayBatch();
+                if (failures > 0) {
+                    logger.info("Outbox relay delivering again after {} failed attempt(s)", failures);
+                    failures = 0;
+                }
+                if (relayed < batchSize) {
+                    wakeUps.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                failures++;
+                if (failures == 1) {
+                    logger.warn("Outbox relay could not deliver a batch; backing off", e);
+                }
+                try {
+                    Thread.sleep(backoff(failures).toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private Duration backoff(int failures) {
+        Duration backoff = pollInterval.multipliedBy(1L << Math.min(failures - 1, 16));
+        return backoff.compareTo(maxBackoff) < 0 ? backoff : maxBackoff;
+    }
+
+    // Started with the context only when app.outbox.relay.enabled; start() itself always starts the thread.
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.submit(this::relayLoop);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Outbox relay did not stop within {}s", STOP_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.LoanAPIBackend.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events. Every sink bean in the context receives every batch.
+ * <p>
+ * Delivery is at least once: returning normally acknowledges the whole batch, after which it is deleted from
+ * the outbox, while throwing leaves it there and the same events are offered again later, possibly after
+ * another sink already took them. Sinks that cannot keep up should throw {@link OutboxDeliveryException}
+ * rather than block; the relay backs off and the backlog waits in the database.
+ */
+public interface OutboxSink {
+
+    /**
+     * @param events at least one event, in ascending id order
+     */
+    void publish(List<OutboxEvent> events);
+}
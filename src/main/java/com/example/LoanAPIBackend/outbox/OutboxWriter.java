@@ -0,0 +1,70 @@
+package com.example.LoanAPIBackend.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends events to {@code outbox_event} on the caller's transaction, so they commit or roll back together
+ * with the change they describe. Once that transaction commits, the relay is woken up to deliver them.
+ * With no {@link OutboxSink} configured the events are dropped instead, since nothing would ever deliver or
+ * delete them.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxRelay outboxRelay;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxPayload payload) {
+        appendAll(List.of(payload));
+    }
+
+    // One JDBC batch however many events, e.g. for a chunk of imported loans.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<? extends OutboxPayload> payloads) {
+        if (payloads.isEmpty() || !outboxRelay.hasSinks()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(payloads.size());
+        for (OutboxPayload payload : payloads) {
+            rows.add(new Object[]{payload.aggregateType(), payload.aggregateId(), payload.eventType(),
+                    toJson(payload), createdAt});
+        }
+        jdbcTemplate.batchUpdate("insert into outbox_event (aggregate_type, aggregate_id, event_type, payload, " +
+                "created_at) values (?, ?, ?, ?, ?)", rows);
+        wakeRelayAfterCommit();
+    }
+
+    private String toJson(OutboxPayload payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + payload.eventType() + " event", e);
+        }
+    }
+
+    private void wakeRelayAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.LoanAPIBackend.repository;
+
+import com.example.LoanAPIBackend.model.CustomerExposure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Repository
+public interface CustomerExposureRepository extends JpaRepository<CustomerExposure, Long> {
+
+    /**
+     * Adds new loans to the summary in one statement without reading the row first.
+     * Returns 0 when the customer has no summary row yet.
+     */
+    @Modifying
+    @Query("update CustomerExposure e set e.openLoanCount = e.openLoanCount + :loans, " +
+            "e.unpaidInstallmentCount = e.unpaidInstallmentCount + :installments, " +
+            "e.outstandingAmount = e.outstandingAmount + :amount, " +
+            "e.nextDueDate = case when e.nextDueDate is null or e.nextDueDate > :firstDueDate " +
+            "then :firstDueDate else e.nextDueDate end " +
+            "where e.customerId = :customerId")
+    int addLoans(@Param("customerId") Long customerId,
+                 @Param("loans") int loans,
+                 @Param("installments") int installments,
+                 @Param("amount") BigDecimal amount,
+                 @Param("firstDueDate") LocalDate firstDueDate);
+}
@@ -1,9 +1,48 @@
 package com.example.LoanAPIBackend.repository;
 
 import com.example.LoanAPIBackend.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Optional;
+
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    /**
+     * Query space of the credit UPDATEs below. No entity or cached query uses it, so Hibernate leaves the
+     * customer second-level cache region alone instead of evicting all of it; {@code CustomerService} evicts
+     * the one customer that changed.
+     */
+    String CREDIT_QUERY_SPACE = "customer_credit";
+
+    /**
+     * Applies a delta to the used credit in the database without reading the row first.
+     * Bypasses the persistence context, so an already loaded {@link Customer} is stale afterwards.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CREDIT_QUERY_SPACE))
+    @Query(value = "update customers set used_credit_limit = used_credit_limit + :amountChange " +
+            "where id = :customerId", nativeQuery = true)
+    int adjustUsedCreditLimit(@Param("customerId") Long customerId, @Param("amountChange") BigDecimal amountChange);
+
+    /**
+     * Draws credit only if it still fits under the limit, checked and applied in one statement.
+     * Returns 0 when the customer does not exist or the draw would exceed the limit.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CREDIT_QUERY_SPACE))
+    @Query(value = "update customers set used_credit_limit = used_credit_limit + :amount " +
+            "where id = :customerId and used_credit_limit + :amount <= credit_limit", nativeQuery = true)
+    int reserveCredit(@Param("customerId") Long customerId, @Param("amount") BigDecimal amount);
+
+    @Query("select c.creditLimit - c.usedCreditLimit from Customer c where c.id = :customerId")
+    Optional<BigDecimal> findAvailableCredit(@Param("customerId") Long customerId);
 }
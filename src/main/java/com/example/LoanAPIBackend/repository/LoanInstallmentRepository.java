@@ -1,14 +1,47 @@
 package com.example.LoanAPIBackend.repository;
 
+import com.example.LoanAPIBackend.dto.InstallmentExportRow;
 import com.example.LoanAPIBackend.model.LoanInstallment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LoanInstallmentRepository extends JpaRepository<LoanInstallment, Long> {
-    ArrayList<LoanInstallment> findByLoanIdAndIsPaidFalseOrderByDueDateAsc(Long loanId);
-    long countByLoanIdAndIsPaidFalse(Long loanId);
+    // Explicit JPQL filters on the loan_id column directly; the derived versions outer-joined loan first.
+    // Both are range scans on idx_loan_installment_loan_paid_due, already in due-date order.
+    @Query("select i from LoanInstallment i where i.loan.id = :loanId and i.isPaid = false order by i.dueDate asc")
+    ArrayList<LoanInstallment> findByLoanIdAndIsPaidFalseOrderByDueDateAsc(@Param("loanId") Long loanId);
 
+    @Query("select count(i) from LoanInstallment i where i.loan.id = :loanId and i.isPaid = false")
+    long countByLoanIdAndIsPaidFalse(@Param("loanId") Long loanId);
+
+    // Installments and their owning loan in one join, so authorization and mapping need no further selects.
+    @Query("select i from LoanInstallment i join fetch i.loan where i.loan.id = :loanId order by i.dueDate asc")
+    List<LoanInstallment> findWithLoanByLoanIdOrderByDueDateAsc(@Param("loanId") Long loanId);
+
+    // Per loan of the customer, a seek into idx_loan_installment_loan_paid_due; the first unpaid row is the minimum.
+    @Query("select min(i.dueDate) from LoanInstallment i where i.loan.customer.id = :customerId and i.isPaid = false")
+    Optional<LocalDate> findEarliestUnpaidDueDateByCustomerId(@Param("customerId") Long customerId);
+
+    // Every unpaid installment of the customer in one query, grouped by loan and in due-date order within it.
+    @Query("select i from LoanInstallment i where i.loan.customer.id = :customerId and i.isPaid = false " +
+            "order by i.loan.id, i.dueDate")
+    List<LoanInstallment> findUnpaidByCustomerIdOrderByLoanAndDueDate(@Param("customerId") Long customerId);
+
+    // Same forward-only export as LoanRepository#streamAllForExport, for every installment.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = LoanRepository.EXPORT_FETCH_SIZE))
+    @Query("select new com.example.LoanAPIBackend.dto.InstallmentExportRow(i.id, i.loan.id, i.installmentAmount, " +
+            "i.paidAmount, i.dueDate, i.paymentDate, i.isPaid) from LoanInstallment i order by i.id")
+    Stream<InstallmentExportRow> streamAllForExport();
 }
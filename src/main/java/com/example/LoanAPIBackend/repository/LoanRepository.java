@@ -1,9 +1,83 @@
 package com.example.LoanAPIBackend.repository;
 
+import com.example.LoanAPIBackend.dto.LoanExportRow;
 import com.example.LoanAPIBackend.model.Loan;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
+
+    // Loan detail with its installments in a single join instead of a lazy collection load.
+    @EntityGraph(attributePaths = "installments")
+    Optional<Loan> findWithInstallmentsById(Long id);
+
+    String EXPORT_FETCH_SIZE = "1000";
+
+    // Row lock for the payment transaction: payments on the same loan queue up, other loans are unaffected.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Loan> findForUpdateById(Long id);
+
+    // Same row locks for a customer-level payment, taken in id order so two such payments cannot deadlock.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from Loan l where l.customer.id = :customerId and l.isPaid = false order by l.id")
+    List<Loan> findUnpaidForUpdateByCustomerId(@Param("customerId") Long customerId);
+
+    // Primary-key read of the version for conditional GETs; always goes to the database, never the entity cache.
+    @Query("select new com.example.LoanAPIBackend.repository.LoanVersion(l.customer.id, l.version) " +
+            "from Loan l where l.id = :id")
+    Optional<LoanVersion> findVersionById(@Param("id") Long id);
+
+    // Keyset (seek) page ordered by id: only rows after the cursor are read, so deep pages cost the same as the first.
+    @Query("select l from Loan l " +
+            "where l.id > :afterId " +
+            "and (:isPaid is null or l.isPaid = :isPaid) " +
+            "and (:createdFrom is null or l.createDate >= :createdFrom) " +
+            "and (:createdTo is null or l.createDate <= :createdTo) " +
+            "order by l.id asc")
+    List<Loan> findPageAfter(@Param("afterId") Long afterId,
+                             @Param("isPaid") Boolean isPaid,
+                             @Param("createdFrom") LocalDate createdFrom,
+                             @Param("createdTo") LocalDate createdTo,
+                             Limit limit);
+
+    // Same page for one customer. The customer filter is a plain equality, not an optional predicate,
+    // so the seek runs on idx_loan_customer_id (customer_id, id) instead of scanning every loan.
+    // Cacheable: a customer re-reading their own loan list is answered from the query cache until
+    // the next write to the loan table invalidates it. The hint is a no-op while the cache is disabled.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select l from Loan l " +
+            "where l.customer.id = :customerId " +
+            "and l.id > :afterId " +
+            "and (:isPaid is null or l.isPaid = :isPaid) " +
+            "and (:createdFrom is null or l.createDate >= :createdFrom) " +
+            "and (:createdTo is null or l.createDate <= :createdTo) " +
+            "order by l.id asc")
+    List<Loan> findCustomerPageAfter(@Param("customerId") Long customerId,
+                                     @Param("afterId") Long afterId,
+                                     @Param("isPaid") Boolean isPaid,
+                                     @Param("createdFrom") LocalDate createdFrom,
+                                     @Param("createdTo") LocalDate createdTo,
+                                     Limit limit);
+
+    // Every loan for the admin export, as DTO rows that bypass the persistence context. The fetch size lets the
+    // driver page through a server-side cursor; the caller consumes the stream inside a read-only transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select new com.example.LoanAPIBackend.dto.LoanExportRow(l.id, l.customer.id, l.loanAmount, " +
+            "l.interestRate, l.numberOfInstallments, l.createDate, l.isPaid) from Loan l order by l.id")
+    Stream<LoanExportRow> streamAllForExport();
 }
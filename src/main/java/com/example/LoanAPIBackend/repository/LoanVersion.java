@@ -0,0 +1,7 @@
+package com.example.LoanAPIBackend.repository;
+
+/**
+ * Owner and current version of a loan, read without the rest of the row or its installments.
+ */
+public record LoanVersion(Long customerId, long version) {
+}
@@ -1,6 +1,7 @@
 package com.example.LoanAPIBackend.repository;
 
 import com.example.LoanAPIBackend.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,5 +9,6 @@ import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @EntityGraph(attributePaths = "customer")
     Optional<User> findByUsername(String username);
 }
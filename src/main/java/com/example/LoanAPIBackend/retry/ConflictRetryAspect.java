@@ -0,0 +1,64 @@
+package com.example.LoanAPIBackend.retry;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded retry for {@link RetryOnConflict} methods. Ordered ahead of the transaction interceptor so each
+ * attempt runs in its own transaction. Calls that join an outer transaction are not retried: that
+ * transaction is already marked rollback-only and the decision belongs to its owner.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConflictRetryAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConflictRetryAspect.class);
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public ConflictRetryAspect(@Value("${app.concurrency.retry.max-attempts:3}") int maxAttempts,
+                               @Value("${app.concurrency.retry.backoff:25ms}") Duration backoff) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoff.toMillis();
+    }
+
+    @Around("@annotation(com.example.LoanAPIBackend.retry.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                logger.debug("{} lost a lock race (attempt {} of {}), retrying",
+                        joinPoint.getSignature().toShortString(), attempt, maxAttempts, e);
+                backoff(attempt);
+            }
+        }
+    }
+
+    // Linear backoff with jitter so colliding callers do not collide again on the next attempt.
+    private void backoff(int attempt) throws InterruptedException {
+        if (backoffMillis > 0) {
+            Thread.sleep(backoffMillis * attempt + ThreadLocalRandom.current().nextLong(backoffMillis + 1));
+        }
+    }
+}
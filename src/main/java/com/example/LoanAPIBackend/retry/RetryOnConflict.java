@@ -0,0 +1,19 @@
+package com.example.LoanAPIBackend.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a transactional service method when it loses a race for a row lock
+ * ({@link org.springframework.dao.ConcurrencyFailureException}). The retry wraps the transaction,
+ * so every attempt starts a fresh one; the method must be safe to repeat from the beginning.
+ * See {@link ConflictRetryAspect} for the attempt limit and backoff.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
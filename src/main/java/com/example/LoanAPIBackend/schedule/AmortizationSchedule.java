@@ -0,0 +1,16 @@
+package com.example.LoanAPIBackend.schedule;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A loan's repayment plan in cents, one entry per installment in due-date order.
+ *
+ * @param installments what each installment is due, and how much of it repays principal
+ * @param totalCents   sum of all installments, principal plus interest
+ */
+public record AmortizationSchedule(List<ScheduledInstallment> installments, long totalCents) {
+
+    public record ScheduledInstallment(LocalDate dueDate, long amountCents, long principalCents) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.LoanAPIBackend.schedule;
+
+import com.example.LoanAPIBackend.enums.ScheduleType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * French amortization: a level installment {@code P * i / (1 - (1 + i)^-n)} at monthly rate {@code i}, of
+ * which the interest on the open balance is paid first and the rest repays principal. The factor is the only
+ * irrational part, so it is computed once per count and rate and applied once per loan; the last installment
+ * absorbs the cents left by rounding.
+ */
+public class AnnuityScheduleEngine extends TemplatedScheduleEngine {
+
+    @Override
+    public ScheduleType type() {
+        return ScheduleType.ANNUITY;
+    }
+
+    @Override
+    protected ScheduleTemplate factors(List<LocalDate> dueDates, long rateUnits) {
+        BigDecimal monthlyRate = BigDecimal.valueOf(rateUnits)
+                .divide(BigDecimal.valueOf(MONTHS_PER_YEAR * RATE_ONE), FACTOR_PRECISION);
+        BigDecimal paymentFactor;
+        if (monthlyRate.signum() == 0) {
+            paymentFactor = BigDecimal.ONE.divide(BigDecimal.valueOf(dueDates.size()), FACTOR_PRECISION);
+        } else {
+            BigDecimal growth = BigDecimal.ONE.add(monthlyRate).pow(dueDates.size(), FACTOR_PRECISION);
+            BigDecimal discount = BigDecimal.ONE.subtract(BigDecimal.ONE.divide(growth, FACTOR_PRECISION));
+            paymentFactor = monthlyRate.divide(discount, FACTOR_PRECISION);
+        }
+        return new ScheduleTemplate(rateUnits, dueDates, paymentFactor);
+    }
+
+    @Override
+    public AmortizationSchedule generate(long principalCents, ScheduleTemplate template) {
+        long paymentCents = timesFactor(principalCents, template.paymentFactor());
+        return onOpenBalance(principalCents, template, interestCents -> paymentCents - interestCents);
+    }
+}
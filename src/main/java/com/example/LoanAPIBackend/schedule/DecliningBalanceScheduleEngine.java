@@ -0,0 +1,30 @@
+package com.example.LoanAPIBackend.schedule;
+
+import com.example.LoanAPIBackend.enums.ScheduleType;
+import com.example.LoanAPIBackend.money.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Equal principal each month plus interest at the monthly rate on the balance still open, so installments
+ * start highest and shrink. The last installment repays whatever principal rounding left.
+ */
+public class DecliningBalanceScheduleEngine extends TemplatedScheduleEngine {
+
+    @Override
+    public ScheduleType type() {
+        return ScheduleType.DECLINING_BALANCE;
+    }
+
+    @Override
+    protected ScheduleTemplate factors(List<LocalDate> dueDates, long rateUnits) {
+        return new ScheduleTemplate(rateUnits, dueDates, null);
+    }
+
+    @Override
+    public AmortizationSchedule generate(long principalCents, ScheduleTemplate template) {
+        long principalShareCents = Money.divide(principalCents, template.installments());
+        return onOpenBalance(principalCents, template, interestCents -> principalShareCents);
+    }
+}
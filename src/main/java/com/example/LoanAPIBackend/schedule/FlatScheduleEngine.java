@@ -0,0 +1,40 @@
+package com.example.LoanAPIBackend.schedule;
+
+import com.example.LoanAPIBackend.enums.ScheduleType;
+import com.example.LoanAPIBackend.money.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code amount * (1 + rate)} split into equal installments, each repaying an equal share of the principal.
+ * Both are rounded per installment, as flat loans always were, so the installments can add up to a few cents
+ * off the total; the schedule's total is the sum of the installments.
+ */
+public class FlatScheduleEngine extends TemplatedScheduleEngine {
+
+    @Override
+    public ScheduleType type() {
+        return ScheduleType.FLAT;
+    }
+
+    // Exact integer arithmetic on the loan's own rate; there is nothing worth precomputing beyond the dates.
+    @Override
+    protected ScheduleTemplate factors(List<LocalDate> dueDates, long rateUnits) {
+        return new ScheduleTemplate(rateUnits, dueDates, null);
+    }
+
+    @Override
+    public AmortizationSchedule generate(long principalCents, ScheduleTemplate template) {
+        int count = template.installments();
+        long amountCents = Money.divide(Money.withRate(principalCents, template.rateUnits()), count);
+        long principalShareCents = Money.divide(principalCents, count);
+
+        List<AmortizationSchedule.ScheduledInstallment> installments = new ArrayList<>(count);
+        for (LocalDate dueDate : template.dueDates()) {
+            installments.add(new AmortizationSchedule.ScheduledInstallment(dueDate, amountCents, principalShareCents));
+        }
+        return new AmortizationSchedule(installments, Math.multiplyExact(amountCents, count));
+    }
+}
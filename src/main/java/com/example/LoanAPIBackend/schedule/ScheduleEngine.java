@@ -0,0 +1,23 @@
+package com.example.LoanAPIBackend.schedule;
+
+import com.example.LoanAPIBackend.enums.ScheduleType;
+
+import java.time.YearMonth;
+
+/**
+ * Lays out a loan's installments for one {@link ScheduleType}. Implementations hold no state beyond their
+ * template cache and work on long cents, so the same engine serves loan creation and the amounts derived on
+ * the loan entity. Look one up with {@link ScheduleEngines#of}.
+ */
+public interface ScheduleEngine {
+
+    ScheduleType type();
+
+    /**
+     * @param principalCents amount borrowed, in cents
+     * @param rateUnits      the loan's interest rate in 1/10000 units
+     * @param installments   one of the allowed installment counts
+     * @param firstDueMonth  month of the first installment; later ones follow monthly, each due on the 1st
+     */
+    AmortizationSchedule generate(long principalCents, long rateUnits, int installments, YearMonth firstDueMonth);
+}
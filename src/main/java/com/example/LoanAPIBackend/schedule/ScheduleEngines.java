@@ -0,0 +1,41 @@
+package com.example.LoanAPIBackend.schedule;
+
+import com.example.LoanAPIBackend.enums.ScheduleType;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The engine for each {@link ScheduleType}. Plain singletons rather than beans, since the loan entity derives
+ * its amounts through them too.
+ */
+public final class ScheduleEngines {
+
+    private static final Map<ScheduleType, ScheduleEngine> BY_TYPE = new EnumMap<>(ScheduleType.class);
+
+    static {
+        register(new FlatScheduleEngine());
+        register(new AnnuityScheduleEngine());
+        register(new DecliningBalanceScheduleEngine());
+    }
+
+    private ScheduleEngines() {
+    }
+
+    public static ScheduleEngine of(ScheduleType type) {
+        return BY_TYPE.get(type);
+    }
+
+    /**
+     * Installments start the month after the loan is created.
+     */
+    public static YearMonth firstDueMonth(LocalDate createDate) {
+        return YearMonth.from(createDate).plusMonths(1);
+    }
+
+    private static void register(ScheduleEngine engine) {
+        BY_TYPE.put(engine.type(), engine);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.LoanAPIBackend.schedule;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Everything about a schedule that does not depend on the amount borrowed: the loan's terms, the due dates
+ * for one start month, and the engine's factors. Precomputed once and shared by every loan with the same terms.
+ *
+ * @param rateUnits     the loan's interest rate in 1/10000 units
+ * @param dueDates      the first day of each month from the start month on, one per installment
+ * @param paymentFactor level installment per unit of principal, or {@code null} when the engine needs none
+ */
+public record ScheduleTemplate(long rateUnits, List<LocalDate> dueDates, BigDecimal paymentFactor) {
+
+    public int installments() {
+        return dueDates.size();
+    }
+}
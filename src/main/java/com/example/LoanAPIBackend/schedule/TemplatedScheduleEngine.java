@@ -0,0 +1,108 @@
+package com.example.LoanAPIBackend.schedule;
+
+import com.example.LoanAPIBackend.cache.ExpiringCache;
+import com.example.LoanAPIBackend.money.Money;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caches one {@link ScheduleTemplate} per installment count, rate and start month, and generates schedules
+ * from it. The counts are a closed set and loans opened in the same month share their start month, so a
+ * handful of templates covers the day's originations; the cache is bounded and entries expire regardless.
+ * <p>
+ * Amounts are rounded HALF_UP to cents per installment, and the last installment takes whatever principal is
+ * left, so the principal always adds up to exactly the amount borrowed.
+ */
+public abstract class TemplatedScheduleEngine implements ScheduleEngine {
+
+    // Enough digits that factor rounding never shows at the cent for any amount a NUMERIC(19,2) can hold.
+    static final MathContext FACTOR_PRECISION = new MathContext(34, RoundingMode.HALF_EVEN);
+
+    static final long MONTHS_PER_YEAR = 12;
+    static final long RATE_ONE = 10_000;
+
+    private static final int MAX_TEMPLATES = 4096;
+    private static final Duration TEMPLATE_TTL = Duration.ofDays(1);
+
+    private record TemplateKey(int installments, long rateUnits, YearMonth firstDueMonth) {
+    }
+
+    private final ExpiringCache<TemplateKey, ScheduleTemplate> templates =
+            new ExpiringCache<>(MAX_TEMPLATES, TEMPLATE_TTL);
+
+    @Override
+    public AmortizationSchedule generate(long principalCents, long rateUnits, int installments,
+                                         YearMonth firstDueMonth) {
+        TemplateKey key = new TemplateKey(installments, rateUnits, firstDueMonth);
+        ScheduleTemplate template = templates.get(key).orElse(null);
+        if (template == null) {
+            template = template(installments, rateUnits, firstDueMonth);
+            templates.put(key, template);
+        }
+        return generate(principalCents, template);
+    }
+
+    /**
+     * Builds a template without consulting the cache.
+     */
+    public ScheduleTemplate template(int installments, long rateUnits, YearMonth firstDueMonth) {
+        if (installments < 1) {
+            throw new IllegalArgumentException("installments must be positive");
+        }
+        List<LocalDate> dueDates = new ArrayList<>(installments);
+        for (int i = 0; i < installments; i++) {
+            dueDates.add(firstDueMonth.plusMonths(i).atDay(1));
+        }
+        return factors(List.copyOf(dueDates), rateUnits);
+    }
+
+    /**
+     * Lays out one loan from a template of matching terms.
+     */
+    public abstract AmortizationSchedule generate(long principalCents, ScheduleTemplate template);
+
+    protected abstract ScheduleTemplate factors(List<LocalDate> dueDates, long rateUnits);
+
+    // The loan's rate is annual for the balance-based engines and charged monthly: rate / 12, which in 1/10000
+    // units is an exact fraction, so interest stays in long cents with a single HALF_UP rounding.
+    static long monthlyInterestCents(long balanceCents, long rateUnits) {
+        return Money.divide(Math.multiplyExact(balanceCents, rateUnits), MONTHS_PER_YEAR * RATE_ONE);
+    }
+
+    static long timesFactor(long cents, BigDecimal factor) {
+        return BigDecimal.valueOf(cents).multiply(factor).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // Interest on the open balance each month; the caller decides how much principal each installment repays.
+    static AmortizationSchedule onOpenBalance(long principalCents, ScheduleTemplate template,
+                                              PrincipalPerInstallment principalRepaid) {
+        List<LocalDate> dueDates = template.dueDates();
+        List<AmortizationSchedule.ScheduledInstallment> installments = new ArrayList<>(dueDates.size());
+        long balanceCents = principalCents;
+        long totalCents = 0;
+        for (int i = 0; i < dueDates.size(); i++) {
+            long interestCents = monthlyInterestCents(balanceCents, template.rateUnits());
+            long repaidCents = i == dueDates.size() - 1
+                    ? balanceCents
+                    : Math.min(balanceCents, principalRepaid.cents(interestCents));
+            long amountCents = Math.addExact(repaidCents, interestCents);
+            installments.add(new AmortizationSchedule.ScheduledInstallment(dueDates.get(i), amountCents,
+                    repaidCents));
+            balanceCents -= repaidCents;
+            totalCents = Math.addExact(totalCents, amountCents);
+        }
+        return new AmortizationSchedule(installments, totalCents);
+    }
+
+    @FunctionalInterface
+    interface PrincipalPerInstallment {
+        long cents(long interestCents);
+    }
+}
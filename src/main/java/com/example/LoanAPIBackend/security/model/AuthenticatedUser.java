@@ -0,0 +1,50 @@
+package com.example.LoanAPIBackend.security.model;
+
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.model.User;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal built once from the {@code app_users} row during authentication. It carries everything the
+ * services need for authorization, so they never have to look the user up again.
+ * Deliberately not a {@code CredentialsContainer}: the same instance is cached and must keep its password hash.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long userId;
+    private final String username;
+    private final String password;
+    private final Role role;
+    private final Long customerId;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long userId, String username, String password, Role role, Long customerId) {
+        this.userId = userId;
+        this.username = username;
+        this.password = password;
+        this.role = role;
+        this.customerId = customerId;
+        this.authorities = List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getRole(),
+                user.getCustomer() != null ? user.getCustomer().getId() : null);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
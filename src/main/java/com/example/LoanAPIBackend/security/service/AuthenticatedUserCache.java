@@ -0,0 +1,52 @@
+package com.example.LoanAPIBackend.security.service;
+
+import com.example.LoanAPIBackend.cache.ExpiringCache;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-evicting cache of {@link AuthenticatedUser} principals keyed by username.
+ * Plugged into the DAO authentication provider as its {@link UserCache} and read by
+ * {@link AuthenticatedUserResolver}, so a user row is loaded at most once per TTL.
+ */
+@Component
+public class AuthenticatedUserCache implements UserCache {
+
+    private final ExpiringCache<String, AuthenticatedUser> cache;
+
+    public AuthenticatedUserCache(@Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+                                  @Value("${app.security.principal-cache.ttl:5m}") Duration ttl) {
+        this.cache = new ExpiringCache<>(maxSize, ttl);
+    }
+
+    public Optional<AuthenticatedUser> get(String username) {
+        return cache.get(username);
+    }
+
+    public void put(AuthenticatedUser user) {
+        cache.put(user.getUsername(), user);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return cache.get(username).orElse(null);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        if (user instanceof AuthenticatedUser authenticatedUser) {
+            put(authenticatedUser);
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(username);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.LoanAPIBackend.security.service;
+
+import com.example.LoanAPIBackend.exception.ResourceNotFoundException;
+import com.example.LoanAPIBackend.repository.UserRepository;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class AuthenticatedUserResolver {
+
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final UserRepository userRepository;
+
+    public AuthenticatedUser resolve(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser;
+        }
+        // Authentications not produced by UserDetailsServiceImpl (e.g. tests, other providers) only carry a name.
+        String username = authentication.getName();
+        return authenticatedUserCache.get(username).orElseGet(() -> {
+            AuthenticatedUser loaded = userRepository.findByUsername(username)
+                    .map(AuthenticatedUser::from)
+                    .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found."));
+            authenticatedUserCache.put(loaded);
+            return loaded;
+        });
+    }
+}
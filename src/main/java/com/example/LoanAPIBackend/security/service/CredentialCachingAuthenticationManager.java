@@ -0,0 +1,42 @@
+package com.example.LoanAPIBackend.security.service;
+
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import java.util.Optional;
+
+/**
+ * Answers repeated HTTP Basic logins from {@link VerifiedCredentialCache} and only falls through to the
+ * BCrypt-checking delegate on a miss or a credential mismatch. Failed attempts are never cached.
+ */
+@RequiredArgsConstructor
+public class CredentialCachingAuthenticationManager implements AuthenticationManager {
+
+    private final AuthenticationManager delegate;
+    private final VerifiedCredentialCache verifiedCredentialCache;
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication instanceof UsernamePasswordAuthenticationToken)
+                || !(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+        String username = authentication.getName();
+
+        Optional<AuthenticatedUser> verified = verifiedCredentialCache.verify(username, password);
+        if (verified.isPresent()) {
+            AuthenticatedUser user = verified.get();
+            return UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+        }
+
+        Authentication result = delegate.authenticate(authentication);
+        if (result.getPrincipal() instanceof AuthenticatedUser user) {
+            verifiedCredentialCache.put(username, password, user);
+        }
+        return result;
+    }
+}
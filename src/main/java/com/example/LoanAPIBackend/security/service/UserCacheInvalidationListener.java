@@ -0,0 +1,44 @@
+package com.example.LoanAPIBackend.security.service;
+
+import com.example.LoanAPIBackend.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Drops cached principals and verified credentials when a {@link User} row is updated or deleted through JPA.
+ * Evicts again after commit so a concurrent request cannot re-cache the pre-commit row.
+ * JPQL bulk updates on app_users bypass entity callbacks and must evict explicitly.
+ * Both caches are optional so JPA-only test slices, which have no security beans, still bootstrap.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener {
+
+    private final ObjectProvider<AuthenticatedUserCache> authenticatedUserCacheProvider;
+    private final ObjectProvider<VerifiedCredentialCache> verifiedCredentialCacheProvider;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        String username = user.getUsername();
+        evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        }
+    }
+
+    private void evict(String username) {
+        authenticatedUserCacheProvider.ifAvailable(cache -> cache.removeUserFromCache(username));
+        verifiedCredentialCacheProvider.ifAvailable(cache -> cache.invalidate(username));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.LoanAPIBackend.security.service;
+
+import com.example.LoanAPIBackend.cache.ExpiringCache;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived record of username/password pairs that already passed BCrypt verification.
+ * Only an HMAC of the credentials is kept, keyed with a random secret generated per process,
+ * so the cache content is useless outside this JVM. Enabled with {@code app.security.credential-cache.enabled}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.credential-cache.enabled", havingValue = "true")
+public class VerifiedCredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private record VerifiedCredential(byte[] digest, AuthenticatedUser user) {
+    }
+
+    private final ExpiringCache<String, VerifiedCredential> cache;
+    private final SecretKeySpec key;
+
+    public VerifiedCredentialCache(@Value("${app.security.credential-cache.max-size:10000}") int maxSize,
+                                   @Value("${app.security.credential-cache.ttl:60s}") Duration ttl) {
+        this.cache = new ExpiringCache<>(maxSize, ttl);
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    public Optional<AuthenticatedUser> verify(String username, String password) {
+        return cache.get(username)
+                .filter(entry -> MessageDigest.isEqual(entry.digest(), digest(username, password)))
+                .map(VerifiedCredential::user);
+    }
+
+    public void put(String username, String password, AuthenticatedUser user) {
+        cache.put(username, new VerifiedCredential(digest(username, password), user));
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    private byte[] digest(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
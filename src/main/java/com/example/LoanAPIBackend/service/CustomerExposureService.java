@@ -0,0 +1,157 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.dto.CustomerExposureResponse;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.model.CustomerExposure;
+import com.example.LoanAPIBackend.model.Loan;
+import com.example.LoanAPIBackend.model.LoanInstallment;
+import com.example.LoanAPIBackend.repository.CustomerExposureRepository;
+import com.example.LoanAPIBackend.repository.LoanInstallmentRepository;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.security.service.AuthenticatedUserResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintains the {@link CustomerExposure} summary incrementally and serves it.
+ * <p>
+ * The record methods run inside the loan-creation and payment transactions, after those have changed the
+ * customer's used credit. That UPDATE locks the customer row until commit, so concurrent writers of the same
+ * customer's summary are already serialized and the read-modify-write in {@link #recordPayment} cannot lose
+ * an update.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomerExposureService {
+
+    private final CustomerExposureRepository customerExposureRepository;
+    private final LoanInstallmentRepository loanInstallmentRepository;
+    private final CustomerService customerService;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+
+    @Transactional(readOnly = true)
+    public CustomerExposureResponse getExposure(Long customerId, Authentication authentication) {
+        AuthenticatedUser authenticatedUser = authenticatedUserResolver.resolve(authentication);
+        if (authenticatedUser.getRole() == Role.ROLE_CUSTOMER &&
+                !customerId.equals(authenticatedUser.getCustomerId())) {
+            throw new AccessDeniedException("You can only view your own exposure.");
+        }
+
+        CustomerExposure exposure = customerExposureRepository.findById(customerId)
+                .orElseGet(() -> emptyExposure(customerService.getCustomerById(customerId).getId()));
+        return CustomerExposureResponse.builder()
+                .customerId(exposure.getCustomerId())
+                .openLoanCount(exposure.getOpenLoanCount())
+                .unpaidInstallmentCount(exposure.getUnpaidInstallmentCount())
+                .outstandingAmount(exposure.getOutstandingAmount())
+                .nextDueDate(exposure.getNextDueDate())
+                .overdueInstallmentCount(exposure.getOverdueInstallmentCount())
+                .overdueAsOf(exposure.getOverdueAsOf())
+                .build();
+    }
+
+    /**
+     * Adds freshly created loans of one customer in a single UPDATE. New installments are all due in the
+     * future, so the overdue count is left alone. A customer without a summary row gets one covering only
+     * these loans; the next reconciliation completes it.
+     */
+    @Transactional
+    public void recordNewLoans(Long customerId, List<Loan> loans) {
+        int installments = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        LocalDate firstDueDate = null;
+        for (Loan loan : loans) {
+            for (LoanInstallment installment : loan.getInstallments()) {
+                installments++;
+                amount = amount.add(installment.getInstallmentAmount());
+                if (firstDueDate == null || installment.getDueDate().isBefore(firstDueDate)) {
+                    firstDueDate = installment.getDueDate();
+                }
+            }
+        }
+
+        if (customerExposureRepository.addLoans(customerId, loans.size(), installments, amount, firstDueDate) == 0) {
+            customerExposureRepository.save(
+                    new CustomerExposure(customerId, loans.size(), installments, amount, firstDueDate, 0, null));
+        }
+    }
+
+    /**
+     * Takes the installments of an applied payment plan off the summary. The next due date only needs a
+     * query when the payment covered the installment that was next due.
+     */
+    @Transactional
+    public void recordPayment(Long customerId, PaymentPlan plan) {
+        recordPayments(customerId, List.of(plan));
+    }
+
+    /**
+     * Same as {@link #recordPayment} for plans applied to several loans of the customer in one transaction:
+     * one read and one write of the summary, and at most one next-due-date query.
+     */
+    @Transactional
+    public void recordPayments(Long customerId, List<PaymentPlan> plans) {
+        int installmentsPaid = 0;
+        BigDecimal amountPaid = BigDecimal.ZERO;
+        LocalDate firstPaidDueDate = null;
+        int loansPaidOff = 0;
+        for (PaymentPlan plan : plans) {
+            if (plan.installmentsPaidCount() == 0) {
+                continue;
+            }
+            installmentsPaid += plan.installmentsPaidCount();
+            amountPaid = amountPaid.add(plan.totalBaseAmount());
+            LocalDate dueDate = plan.payments().get(0).installment().getDueDate();
+            if (firstPaidDueDate == null || dueDate.isBefore(firstPaidDueDate)) {
+                firstPaidDueDate = dueDate;
+            }
+            if (plan.paysOffLoan()) {
+                loansPaidOff++;
+            }
+        }
+        if (installmentsPaid == 0) {
+            return;
+        }
+        CustomerExposure exposure = customerExposureRepository.findById(customerId).orElse(null);
+        if (exposure == null) {
+            // Created by the next reconciliation, from the installments as they are after this payment.
+            return;
+        }
+
+        // Queried before the summary is touched: the query flushes the paid installments, and a dirty
+        // summary would be flushed with them and then written a second time at commit.
+        if (exposure.getNextDueDate() != null && !firstPaidDueDate.isAfter(exposure.getNextDueDate())) {
+            exposure.setNextDueDate(loanInstallmentRepository.findEarliestUnpaidDueDateByCustomerId(customerId)
+                    .orElse(null));
+        }
+
+        int overduePaid = 0;
+        if (exposure.getOverdueAsOf() != null) {
+            for (PaymentPlan plan : plans) {
+                for (PaymentPlan.InstallmentPayment payment : plan.payments()) {
+                    if (payment.installment().getDueDate().isBefore(exposure.getOverdueAsOf())) {
+                        overduePaid++;
+                    }
+                }
+            }
+        }
+
+        exposure.setUnpaidInstallmentCount(exposure.getUnpaidInstallmentCount() - installmentsPaid);
+        exposure.setOutstandingAmount(exposure.getOutstandingAmount().subtract(amountPaid));
+        exposure.setOverdueInstallmentCount(Math.max(0, exposure.getOverdueInstallmentCount() - overduePaid));
+        exposure.setOpenLoanCount(exposure.getOpenLoanCount() - loansPaidOff);
+    }
+
+    private static CustomerExposure emptyExposure(Long customerId) {
+        CustomerExposure exposure = new CustomerExposure();
+        exposure.setCustomerId(customerId);
+        return exposure;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.model.Loan;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Outcome of allocating one payment over several loans of a customer, computed without touching the database.
+ *
+ * @param loanPlans          loans that receive part of the payment, by loan id, each with its own plan;
+ *                           every plan's {@code remainingPayment} is the leftover of the whole payment
+ * @param totalBaseAmount    sum of all covered installments' base amounts, i.e. what the payment is debited
+ * @param totalActualAmount  sum of the recorded amounts after early-payment discounts and late penalties
+ * @param remainingPayment   part of the payment left over after all covered installments
+ * @param principalReleased  principal that goes back to the customer's available credit, over all loans
+ */
+public record CustomerPaymentPlan(List<LoanPlan> loanPlans,
+                                  BigDecimal totalBaseAmount,
+                                  BigDecimal totalActualAmount,
+                                  BigDecimal remainingPayment,
+                                  BigDecimal principalReleased) {
+
+    public record LoanPlan(Loan loan, PaymentPlan plan) {
+    }
+
+    public int installmentsPaidCount() {
+        return loanPlans.stream().mapToInt(loanPlan -> loanPlan.plan().installmentsPaidCount()).sum();
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.LoanAPIBackend.service;
 
+import com.example.LoanAPIBackend.exception.InsufficientCreditException;
 import com.example.LoanAPIBackend.exception.ResourceNotFoundException;
 import com.example.LoanAPIBackend.model.Customer;
 import com.example.LoanAPIBackend.repository.CustomerRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 
@@ -14,15 +19,52 @@ import java.math.BigDecimal;
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final EntityManagerFactory entityManagerFactory;
 
     public Customer getCustomerById(Long customerId) {
         return customerRepository.findById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
     }
 
+    /**
+     * Draws {@code amount} from the customer's credit in a single conditional UPDATE, so concurrent draws
+     * can neither lose each other's update nor overshoot the limit together.
+     */
     @Transactional
-    public void updateUsedCreditLimit(Customer customer, BigDecimal amountChange) {
-        customer.setUsedCreditLimit(customer.getUsedCreditLimit().add(amountChange));
-        customerRepository.save(customer);
+    public void reserveCredit(Long customerId, BigDecimal amount) {
+        int updated = customerRepository.reserveCredit(customerId, amount);
+        evictCachedCustomer(customerId);
+        if (updated == 0) {
+            BigDecimal availableCredit = customerRepository.findAvailableCredit(customerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
+            throw new InsufficientCreditException(
+                    "Customer does not have enough credit limit. Available: " + availableCredit +
+                            ", Requested: " + amount);
+        }
+    }
+
+    /**
+     * Applies a signed delta to the used credit without a limit check; used to release principal on payment.
+     */
+    @Transactional
+    public void adjustUsedCreditLimit(Long customerId, BigDecimal amountChange) {
+        int updated = customerRepository.adjustUsedCreditLimit(customerId, amountChange);
+        evictCachedCustomer(customerId);
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
+        }
+    }
+
+    // The credit UPDATEs leave the second-level cache to us. Evicted now for reads later in this transaction,
+    // and again once it completes, in case a concurrent read cached the row as it was before the commit.
+    private void evictCachedCustomer(Long customerId) {
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(Customer.class, customerId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cache.evict(Customer.class, customerId);
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.dto.InstallmentExportRow;
+import com.example.LoanAPIBackend.dto.LoanExportRow;
+import com.example.LoanAPIBackend.repository.LoanInstallmentRepository;
+import com.example.LoanAPIBackend.repository.LoanRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Admin portfolio export. Rows are handed to the sink one at a time while a forward-only cursor is open,
+ * so memory use does not depend on the number of loans. The read-only transaction spans the whole export,
+ * which is what keeps the cursor open (PostgreSQL only honours the fetch size outside auto-commit).
+ */
+@Service
+@RequiredArgsConstructor
+public class LoanExportService {
+
+    private final LoanRepository loanRepository;
+    private final LoanInstallmentRepository loanInstallmentRepository;
+
+    @Transactional(readOnly = true)
+    public void exportLoans(Consumer<LoanExportRow> sink) {
+        try (Stream<LoanExportRow> rows = loanRepository.streamAllForExport()) {
+            rows.forEach(sink);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportInstallments(Consumer<InstallmentExportRow> sink) {
+        try (Stream<InstallmentExportRow> rows = loanInstallmentRepository.streamAllForExport()) {
+            rows.forEach(sink);
+        }
+    }
+}
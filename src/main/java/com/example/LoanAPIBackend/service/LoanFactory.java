@@ -0,0 +1,74 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.enums.AllowedInstallmentCounts;
+import com.example.LoanAPIBackend.enums.ScheduleType;
+import com.example.LoanAPIBackend.exception.InsufficientCreditException;
+import com.example.LoanAPIBackend.model.Customer;
+import com.example.LoanAPIBackend.model.Loan;
+import com.example.LoanAPIBackend.model.LoanInstallment;
+import com.example.LoanAPIBackend.money.Money;
+import com.example.LoanAPIBackend.schedule.AmortizationSchedule;
+import com.example.LoanAPIBackend.schedule.ScheduleEngines;
+import jakarta.validation.ValidationException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Builds new loans with their installment schedule, laid out by the {@link ScheduleEngines engine} for the
+ * requested schedule type. Shared by single and bulk origination; it does not persist anything or touch the
+ * customer's used credit.
+ */
+@Component
+public class LoanFactory {
+
+    public void validateLoanTerms(Integer numberOfInstallments, BigDecimal interestRate) {
+        if (!AllowedInstallmentCounts.isValid(numberOfInstallments)) {
+            throw new ValidationException("Number of installments can only be 6, 9, 12, or 24.");
+        }
+
+        if (interestRate.compareTo(BigDecimal.valueOf(0.1)) < 0 ||
+                interestRate.compareTo(BigDecimal.valueOf(0.5)) > 0) {
+            throw new ValidationException("Interest rate must be between 0.1 (10%) and 0.5 (50%).");
+        }
+    }
+
+    public Loan newLoan(Customer customer, BigDecimal amount, BigDecimal interestRate, Integer numberOfInstallments,
+                        ScheduleType scheduleType) {
+        BigDecimal availableCredit = customer.getCreditLimit().subtract(customer.getUsedCreditLimit());
+        if (availableCredit.compareTo(amount) < 0) {
+            throw new InsufficientCreditException(
+                    "Customer does not have enough credit limit. Available: " + availableCredit +
+                            ", Requested: " + amount);
+        }
+
+        Loan loan = new Loan();
+        loan.setCustomer(customer);
+        // Priced at the scales the columns store, so the installments match the loan as it is read back.
+        loan.setLoanAmount(amount.setScale(Money.SCALE, RoundingMode.HALF_UP));
+        loan.setInterestRate(interestRate.setScale(Money.RATE_SCALE, RoundingMode.HALF_UP));
+        loan.setNumberOfInstallments(numberOfInstallments);
+        loan.setScheduleType(scheduleType != null ? scheduleType : ScheduleType.FLAT);
+        loan.setCreateDate(LocalDate.now());
+        loan.setPaid(false);
+
+        AmortizationSchedule schedule = ScheduleEngines.of(loan.getScheduleType()).generate(
+                Money.cents(loan.getLoanAmount()), Money.rateUnits(loan.getInterestRate()),
+                numberOfInstallments, ScheduleEngines.firstDueMonth(loan.getCreateDate()));
+        for (AmortizationSchedule.ScheduledInstallment scheduled : schedule.installments()) {
+            LoanInstallment installment = new LoanInstallment();
+            installment.setInstallmentAmount(Money.toBigDecimal(scheduled.amountCents()));
+            installment.setPrincipalAmount(Money.toBigDecimal(scheduled.principalCents()));
+            installment.setDueDate(scheduled.dueDate());
+            installment.setPaid(false);
+            loan.addInstallment(installment);
+        }
+        // Flat loans keep the total priced from their terms, which their rounded installments can miss by cents.
+        loan.setTotalLoanAmountWithInterest(loan.getScheduleType() == ScheduleType.FLAT
+                ? loan.getTotalLoanAmountWithInterest()
+                : Money.toBigDecimal(schedule.totalCents()));
+        return loan;
+    }
+}
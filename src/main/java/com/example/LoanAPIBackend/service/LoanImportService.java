@@ -0,0 +1,261 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.dto.BulkLoanItemResult;
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.enums.BulkItemStatus;
+import com.example.LoanAPIBackend.exception.InsufficientCreditException;
+import com.example.LoanAPIBackend.model.Customer;
+import com.example.LoanAPIBackend.model.Loan;
+import com.example.LoanAPIBackend.outbox.LoanCreatedEvent;
+import com.example.LoanAPIBackend.outbox.OutboxWriter;
+import com.example.LoanAPIBackend.repository.CustomerRepository;
+import com.example.LoanAPIBackend.repository.LoanRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Admin portfolio import. Requests are consumed from an iterator and committed in chunks, each chunk in
+ * its own transaction, so memory stays flat and a failing chunk never rolls back earlier ones.
+ * Credit limits are checked against the running total of everything accepted so far for the customer,
+ * and each customer's chunk total is then drawn with one conditional UPDATE.
+ * Items that cannot be read as a request are rejected one by one; input that cannot be read any further ends
+ * the import after the items read so far have been answered.
+ */
+@Service
+public class LoanImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanImportService.class);
+
+    private final LoanRepository loanRepository;
+    private final CustomerRepository customerRepository;
+    private final CustomerService customerService;
+    private final CustomerExposureService customerExposureService;
+    private final OutboxWriter outboxWriter;
+    private final LoanFactory loanFactory;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public LoanImportService(LoanRepository loanRepository,
+                             CustomerRepository customerRepository,
+                             CustomerService customerService,
+                             CustomerExposureService customerExposureService,
+                             OutboxWriter outboxWriter,
+                             LoanFactory loanFactory,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.loans.bulk.chunk-size:500}") int chunkSize) {
+        this.loanRepository = loanRepository;
+        this.customerRepository = customerRepository;
+        this.customerService = customerService;
+        this.customerExposureService = customerExposureService;
+        this.outboxWriter = outboxWriter;
+        this.loanFactory = loanFactory;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    // A request, or why its item could not be read as one.
+    private record IndexedRequest(long index, CreateLoanRequest request, String unreadable) {
+
+        IndexedRequest(long index, CreateLoanRequest request) {
+            this(index, request, null);
+        }
+    }
+
+    public void importLoans(Iterator<CreateLoanRequest> requests, Consumer<BulkLoanItemResult> results) {
+        List<IndexedRequest> chunk = new ArrayList<>(chunkSize);
+        long index = 0;
+        while (requests.hasNext()) {
+            add(chunk, new IndexedRequest(index++, requests.next()), results);
+        }
+        importChunk(chunk, results);
+    }
+
+    /**
+     * Imports the JSON items of {@code json} (the elements of an array, or NDJSON lines), read as trees. Each tree
+     * is bound to a request on its own, so an item with a wrong field type is rejected at its index and the
+     * stream goes on. A syntax error leaves the parser with no next item to find: the items read before it are
+     * still imported and answered, and one final REJECTED result at the failing index says the import stopped.
+     */
+    public void importLoans(InputStream json, Consumer<BulkLoanItemResult> results) {
+        List<IndexedRequest> chunk = new ArrayList<>(chunkSize);
+        long index = 0;
+        try (MappingIterator<JsonNode> items = objectMapper.readerFor(JsonNode.class)
+                .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .readValues(json)) {
+            while (items.hasNextValue()) {
+                add(chunk, read(index, items.nextValue()), results);
+                index++;
+            }
+        } catch (IOException e) {
+            importChunk(chunk, results);
+            results.accept(rejected(new IndexedRequest(index, null),
+                    "Malformed input, import stopped at this item: " + originalMessage(e)));
+            return;
+        }
+        importChunk(chunk, results);
+    }
+
+    private void add(List<IndexedRequest> chunk, IndexedRequest item, Consumer<BulkLoanItemResult> results) {
+        chunk.add(item);
+        if (chunk.size() == chunkSize) {
+            importChunk(chunk, results);
+            chunk.clear();
+        }
+    }
+
+    private IndexedRequest read(long index, JsonNode item) {
+        try {
+            return new IndexedRequest(index, objectMapper.treeToValue(item, CreateLoanRequest.class));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return new IndexedRequest(index, null, "Malformed item: " + originalMessage(e));
+        }
+    }
+
+    private static String originalMessage(Exception e) {
+        return e instanceof JsonProcessingException jsonException ? jsonException.getOriginalMessage() : e.getMessage();
+    }
+
+    private void importChunk(List<IndexedRequest> chunk, Consumer<BulkLoanItemResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<BulkLoanItemResult> chunkResults;
+        try {
+            chunkResults = transactionTemplate.execute(status -> createLoans(chunk));
+        } catch (InsufficientCreditException e) {
+            if (chunk.size() == 1) {
+                results.accept(rejected(chunk.get(0), e.getMessage()));
+                return;
+            }
+            // A concurrent draw used up credit the chunk counted on: re-check each item against the current limit.
+            for (IndexedRequest item : chunk) {
+                importChunk(List.of(item), results);
+            }
+            return;
+        } catch (DataAccessException | TransactionException e) {
+            if (chunk.size() == 1) {
+                logger.warn("Bulk loan item {} failed to persist", chunk.get(0).index(), e);
+                results.accept(rejected(chunk.get(0), "Loan could not be persisted: " + e.getMessage()));
+                return;
+            }
+            // Isolate the offending rows: retry each item in its own transaction.
+            for (IndexedRequest item : chunk) {
+                importChunk(List.of(item), results);
+            }
+            return;
+        }
+        chunkResults.forEach(results);
+    }
+
+    private List<BulkLoanItemResult> createLoans(List<IndexedRequest> chunk) {
+        Set<Long> customerIds = chunk.stream()
+                .filter(item -> item.request() != null)
+                .map(item -> item.request().getCustomerId())
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Map<Long, Customer> customers = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        List<BulkLoanItemResult> chunkResults = new ArrayList<>(chunk.size());
+        List<Loan> loans = new ArrayList<>(chunk.size());
+        // Drawn in customer-id order, the order the exposure reconciliation locks customers in.
+        Map<Long, BigDecimal> creditDraws = new TreeMap<>();
+        for (IndexedRequest item : chunk) {
+            if (item.unreadable() != null) {
+                chunkResults.add(rejected(item, item.unreadable()));
+                continue;
+            }
+            CreateLoanRequest request = item.request();
+
+            Set<ConstraintViolation<CreateLoanRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                chunkResults.add(rejected(item, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "))));
+                continue;
+            }
+
+            Customer customer = customers.get(request.getCustomerId());
+            if (customer == null) {
+                chunkResults.add(rejected(item, "Customer not found with id: " + request.getCustomerId()));
+                continue;
+            }
+
+            try {
+                loanFactory.validateLoanTerms(request.getNumberOfInstallments(), request.getInterestRate());
+                Loan loan = loanFactory.newLoan(customer, request.getAmount(), request.getInterestRate(),
+                        request.getNumberOfInstallments(), request.getScheduleType());
+                // In-memory running total so later items for the same customer see this draw; the column is
+                // not updatable, the chunk's draw is reserved atomically below.
+                customer.setUsedCreditLimit(customer.getUsedCreditLimit().add(loan.getLoanAmount()));
+                creditDraws.merge(customer.getId(), loan.getLoanAmount(), BigDecimal::add);
+                loans.add(loan);
+                chunkResults.add(BulkLoanItemResult.builder()
+                        .index(item.index())
+                        .status(BulkItemStatus.CREATED)
+                        .customerId(customer.getId())
+                        .build());
+            } catch (ValidationException | InsufficientCreditException e) {
+                chunkResults.add(rejected(item, e.getMessage()));
+            }
+        }
+
+        creditDraws.forEach(customerService::reserveCredit);
+        loanRepository.saveAll(loans);
+        loans.stream()
+                .collect(Collectors.groupingBy(loan -> loan.getCustomer().getId(), TreeMap::new, Collectors.toList()))
+                .forEach(customerExposureService::recordNewLoans);
+        outboxWriter.appendAll(loans.stream().map(LoanCreatedEvent::of).toList());
+
+        Iterator<Loan> savedLoans = loans.iterator();
+        for (BulkLoanItemResult result : chunkResults) {
+            if (result.getStatus() == BulkItemStatus.CREATED) {
+                result.setLoanId(savedLoans.next().getId());
+            }
+        }
+        return chunkResults;
+    }
+
+    private BulkLoanItemResult rejected(IndexedRequest item, String message) {
+        return BulkLoanItemResult.builder()
+                .index(item.index())
+                .status(BulkItemStatus.REJECTED)
+                .customerId(item.request() != null ? item.request().getCustomerId() : null)
+                .message(message)
+                .build();
+    }
+}
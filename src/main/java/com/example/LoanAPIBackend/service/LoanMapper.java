@@ -0,0 +1,49 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.dto.LoanInstallmentResponse;
+import com.example.LoanAPIBackend.dto.LoanResponse;
+import com.example.LoanAPIBackend.model.Loan;
+import com.example.LoanAPIBackend.model.LoanInstallment;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * Maps loan entities to their API responses. Callers must have the installments loaded when they ask for them.
+ */
+@Component
+public class LoanMapper {
+
+    public LoanResponse mapToLoanResponse(Loan loan, boolean includeInstallments) {
+        LoanResponse.LoanResponseBuilder builder = LoanResponse.builder()
+                .id(loan.getId())
+                .customerId(loan.getCustomer().getId())
+                .loanAmount(loan.getLoanAmount())
+                .interestRate(loan.getInterestRate())
+                .totalAmountWithInterest(loan.getTotalLoanAmountWithInterest())
+                .numberOfInstallments(loan.getNumberOfInstallments())
+                .scheduleType(loan.getScheduleType())
+                .createDate(loan.getCreateDate())
+                .isPaid(loan.isPaid());
+
+        if (includeInstallments) {
+            builder.installments(loan.getInstallments().stream()
+                    .map(this::mapToLoanInstallmentResponse)
+                    .collect(Collectors.toList()));
+        }
+        return builder.build();
+    }
+
+    public LoanInstallmentResponse mapToLoanInstallmentResponse(LoanInstallment installment) {
+        return LoanInstallmentResponse.builder()
+                .id(installment.getId())
+                .loanId(installment.getLoan().getId())
+                .installmentAmount(installment.getInstallmentAmount())
+                .principalAmount(installment.getPrincipalAmount())
+                .paidAmount(installment.getPaidAmount())
+                .dueDate(installment.getDueDate())
+                .paymentDate(installment.getPaymentDate())
+                .isPaid(installment.isPaid())
+                .build();
+    }
+}
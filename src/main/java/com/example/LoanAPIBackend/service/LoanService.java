@@ -1,33 +1,40 @@
 package com.example.LoanAPIBackend.service;
 
-import java.util.function.Predicate;
-
 import com.example.LoanAPIBackend.dto.CreateLoanRequest;
 import com.example.LoanAPIBackend.dto.CreateUserLoanRequest;
+import com.example.LoanAPIBackend.dto.LoanPageResponse;
 import com.example.LoanAPIBackend.dto.LoanResponse;
 import com.example.LoanAPIBackend.dto.LoanInstallmentResponse;
-import com.example.LoanAPIBackend.enums.AllowedInstallmentCounts;
+import com.example.LoanAPIBackend.dto.LoanSearchRequest;
 import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.enums.ScheduleType;
 import com.example.LoanAPIBackend.exception.InsufficientCreditException;
 import com.example.LoanAPIBackend.exception.ResourceNotFoundException;
+import com.example.LoanAPIBackend.metrics.LoanMetrics;
 import com.example.LoanAPIBackend.model.Customer;
 import com.example.LoanAPIBackend.model.Loan;
 import com.example.LoanAPIBackend.model.LoanInstallment;
-import com.example.LoanAPIBackend.model.User;
+import com.example.LoanAPIBackend.outbox.LoanCreatedEvent;
+import com.example.LoanAPIBackend.outbox.OutboxWriter;
+import com.example.LoanAPIBackend.repository.LoanInstallmentRepository;
 import com.example.LoanAPIBackend.repository.LoanRepository;
-import com.example.LoanAPIBackend.repository.UserRepository;
-import jakarta.validation.ValidationException;
+import com.example.LoanAPIBackend.repository.LoanVersion;
+import com.example.LoanAPIBackend.retry.RetryOnConflict;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.security.service.AuthenticatedUserResolver;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.YearMonth;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,178 +42,179 @@ import java.util.stream.Collectors;
 public class LoanService {
 
     private final LoanRepository loanRepository;
+    private final LoanInstallmentRepository loanInstallmentRepository;
     private final CustomerService customerService;
-    private final UserRepository userRepository;
-
+    private final LoanFactory loanFactory;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+    private final LoanMapper loanMapper;
+    private final LoanMetrics loanMetrics;
+    private final CustomerExposureService customerExposureService;
+    private final OutboxWriter outboxWriter;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final String INSTALLMENTS_ROLE = Loan.class.getName() + ".installments";
+
+    @RetryOnConflict
     @Transactional
+    @Observed(name = "loan.creation")
     public LoanResponse createLoanWithCustomerbyAdmin(CreateLoanRequest request) {
-        if (!AllowedInstallmentCounts.isValid(request.getNumberOfInstallments())) {
-            throw new ValidationException("Number of installments can only be 6, 9, 12, or 24.");
-        }
-
-        if (request.getInterestRate().compareTo(BigDecimal.valueOf(0.1)) < 0 ||
-                request.getInterestRate().compareTo(BigDecimal.valueOf(0.5)) > 0) {
-            throw new ValidationException("Interest rate must be between 0.1 (10%) and 0.5 (50%).");
-        }
+        loanFactory.validateLoanTerms(request.getNumberOfInstallments(), request.getInterestRate());
 
         Customer customer = customerService.getCustomerById(request.getCustomerId());
 
-        Loan savedLoan = createLoan(customer, request.getAmount(), request.getInterestRate(), request.getNumberOfInstallments());
-        return mapToLoanResponse(savedLoan, true);
+        Loan savedLoan = createLoan(customer, request.getAmount(), request.getInterestRate(),
+                request.getNumberOfInstallments(), request.getScheduleType());
+        return loanMapper.mapToLoanResponse(savedLoan, true);
     }
 
 
-    private Loan createLoan(Customer customer, BigDecimal amount, BigDecimal interestRate, Integer numberOfInstallments) {
-        BigDecimal availableCredit = customer.getCreditLimit().subtract(customer.getUsedCreditLimit());
-        if (availableCredit.compareTo(amount) < 0) {
-            throw new InsufficientCreditException(
-                    "Customer does not have enough credit limit. Available: " + availableCredit +
-                            ", Requested: " + amount);
+    private Loan createLoan(Customer customer, BigDecimal amount, BigDecimal interestRate, Integer numberOfInstallments,
+                            ScheduleType scheduleType) {
+        try {
+            Loan loan = loanFactory.newLoan(customer, amount, interestRate, numberOfInstallments, scheduleType);
+            // The amount as stored, which the installments' principal releases again.
+            customerService.reserveCredit(customer.getId(), loan.getLoanAmount());
+            Loan savedLoan = loanRepository.save(loan);
+            customerExposureService.recordNewLoans(customer.getId(), List.of(savedLoan));
+            outboxWriter.append(LoanCreatedEvent.of(savedLoan));
+            return savedLoan;
+        } catch (InsufficientCreditException e) {
+            loanMetrics.creditRejected();
+            throw e;
         }
-
-        Loan loan = new Loan();
-        loan.setCustomer(customer);
-        loan.setLoanAmount(amount);
-        loan.setInterestRate(interestRate);
-        loan.setNumberOfInstallments(numberOfInstallments);
-        loan.setCreateDate(LocalDate.now());
-        loan.setPaid(false);
-
-        BigDecimal singleInstallmentAmount = loan.getCalculatedInstallmentAmount();
-
-        LocalDate firstDueDate = YearMonth.from(LocalDate.now().plusMonths(1)).atDay(1);
-        for (int i = 0; i < loan.getNumberOfInstallments(); i++) {
-            LoanInstallment installment = new LoanInstallment();
-            installment.setInstallmentAmount(singleInstallmentAmount);
-            installment.setDueDate(firstDueDate.plusMonths(i));
-            installment.setPaid(false);
-            loan.addInstallment(installment);
-        }
-        customerService.updateUsedCreditLimit(customer, amount);
-        Loan savedLoan = loanRepository.save(loan);
-        return savedLoan;
     }
 
 
+    @RetryOnConflict
     @Transactional
+    @Observed(name = "loan.creation")
     public LoanResponse createLoanbyUser(CreateUserLoanRequest request, Authentication authentication) {
-        User authenticatedUser = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found."));
+        AuthenticatedUser authenticatedUser = authenticatedUserResolver.resolve(authentication);
 
         if (authenticatedUser.getRole() != Role.ROLE_CUSTOMER) {
             throw new AccessDeniedException("Only users with ROLE_CUSTOMER can create loans.");
         }
-        if (authenticatedUser.getCustomer() == null) {
+        if (authenticatedUser.getCustomerId() == null) {
             throw new AccessDeniedException("Customer user is not associated with a customer record.");
         }
 
-        if (!AllowedInstallmentCounts.isValid(request.getNumberOfInstallments())) {
-            throw new ValidationException("Number of installments can only be 6, 9, 12, or 24.");
-        }
-
-        if (request.getInterestRate().compareTo(BigDecimal.valueOf(0.1)) < 0 ||
-                request.getInterestRate().compareTo(BigDecimal.valueOf(0.5)) > 0) {
-            throw new ValidationException("Interest rate must be between 0.1 (10%) and 0.5 (50%).");
-        }
+        loanFactory.validateLoanTerms(request.getNumberOfInstallments(), request.getInterestRate());
 
-        Customer customer = customerService.getCustomerById(authenticatedUser.getCustomer().getId());
+        Customer customer = customerService.getCustomerById(authenticatedUser.getCustomerId());
 
-        Loan savedLoan = createLoan(customer, request.getAmount(), request.getInterestRate(), request.getNumberOfInstallments());
-        return mapToLoanResponse(savedLoan, true);
+        Loan savedLoan = createLoan(customer, request.getAmount(), request.getInterestRate(),
+                request.getNumberOfInstallments(), request.getScheduleType());
+        return loanMapper.mapToLoanResponse(savedLoan, true);
 
     }
 
     @Transactional(readOnly = true)
-    public List<LoanResponse> getLoans(Optional<Long> customerIdOpt,
-                                       Authentication authentication) {
+    public LoanPageResponse getLoans(LoanSearchRequest search, Authentication authentication) {
 
-        User authenticatedUser = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found."));
+        AuthenticatedUser authenticatedUser = authenticatedUserResolver.resolve(authentication);
 
-        List<Loan> list = null;
-        Predicate<Loan> filteredListLoans = null;
+        Long customerId = search.getCustomerId();
 
         if (authenticatedUser.getRole() == Role.ROLE_CUSTOMER) {
-            if (authenticatedUser.getCustomer() == null) {
+            if (authenticatedUser.getCustomerId() == null) {
                 throw new AccessDeniedException("Customer user is not associated with a customer record.");
             }
-            if (customerIdOpt.isPresent() && !customerIdOpt.get().equals(authenticatedUser.getCustomer().getId())) {
+            if (customerId != null && !customerId.equals(authenticatedUser.getCustomerId())) {
                 throw new AccessDeniedException("You can only view your own loans.");
             }
-
-            filteredListLoans = loan -> authenticatedUser.getCustomer().getId().equals(loan.getCustomer().getId());
-
-            list = loanRepository.findAll().stream().filter(filteredListLoans).toList();
-
-        } else if (authenticatedUser.getRole() == Role.ROLE_ADMIN) {
-            list = loanRepository.findAll();
-
+            customerId = authenticatedUser.getCustomerId();
         }
 
-        return list.stream()
-                .map(loan -> mapToLoanResponse(loan, false))
-                .collect(Collectors.toList());
+        int size = search.getSize() != null ? search.getSize() : DEFAULT_PAGE_SIZE;
+        long afterId = search.getCursor() != null ? search.getCursor() : 0L;
+
+        // One extra row tells us whether another page exists without a count query.
+        Limit limit = Limit.of(size + 1);
+        List<Loan> loans = customerId != null
+                ? loanRepository.findCustomerPageAfter(customerId, afterId, search.getIsPaid(),
+                        search.getCreatedFrom(), search.getCreatedTo(), limit)
+                : loanRepository.findPageAfter(afterId, search.getIsPaid(),
+                        search.getCreatedFrom(), search.getCreatedTo(), limit);
+
+        boolean hasNext = loans.size() > size;
+        List<Loan> page = hasNext ? loans.subList(0, size) : loans;
+
+        return LoanPageResponse.builder()
+                .loans(page.stream()
+                        .map(loan -> loanMapper.mapToLoanResponse(loan, false))
+                        .collect(Collectors.toList()))
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? page.get(page.size() - 1).getId() : null)
+                .build();
     }
 
     @Transactional(readOnly = true)
     public LoanResponse getLoanById(Long loanId, Authentication authentication) {
-        Loan loan = loanRepository.findById(loanId)
+        Loan loan = (isCachedWithInstallments(loanId) ? loanRepository.findById(loanId)
+                : loanRepository.findWithInstallmentsById(loanId))
                 .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + loanId));
         authorizeAccessToLoan(loan, authentication);
-        return mapToLoanResponse(loan, true);
+        return loanMapper.mapToLoanResponse(loan, true);
     }
 
     @Transactional(readOnly = true)
     public List<LoanInstallmentResponse> getInstallmentsByLoanId(Long loanId, Authentication authentication) {
-        Loan loan = loanRepository.findById(loanId)
-                .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + loanId));
-        authorizeAccessToLoan(loan, authentication);
+        List<LoanInstallment> installments;
+        if (isCachedWithInstallments(loanId)) {
+            Loan loan = loanRepository.findById(loanId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + loanId));
+            authorizeAccessToLoan(loan, authentication);
+            installments = loan.getInstallments();
+        } else {
+            installments = loanInstallmentRepository.findWithLoanByLoanIdOrderByDueDateAsc(loanId);
+            if (installments.isEmpty()) {
+                Loan loan = loanRepository.findById(loanId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + loanId));
+                authorizeAccessToLoan(loan, authentication);
+                return List.of();
+            }
+            authorizeAccessToLoan(installments.get(0).getLoan(), authentication);
+        }
 
-        return loan.getInstallments().stream()
-                .map(this::mapToLoanInstallmentResponse)
+        return installments.stream()
+                .map(loanMapper::mapToLoanInstallmentResponse)
                 .collect(Collectors.toList());
     }
 
-    private void authorizeAccessToLoan(Loan loan, Authentication authentication) {
-        User authenticatedUser = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found."));
+    /**
+     * Current version of the loan, after the same access check as the reads it guards. The loan endpoints
+     * turn it into their ETag, so an unchanged poll is answered without loading the loan or its installments.
+     */
+    @Transactional(readOnly = true)
+    public long getLoanVersion(Long loanId, Authentication authentication) {
+        LoanVersion loanVersion = loanRepository.findVersionById(loanId)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + loanId));
+        authorizeAccessToCustomerLoan(loanVersion.customerId(), authentication);
+        return loanVersion.version();
+    }
 
-        if (authenticatedUser.getRole() == com.example.LoanAPIBackend.enums.Role.ROLE_CUSTOMER) {
-            if (authenticatedUser.getCustomer() == null ||
-                    !loan.getCustomer().getId().equals(authenticatedUser.getCustomer().getId())) {
-                throw new AccessDeniedException("You do not have permission to access this loan's details.");
-            }
-        }
+    // Whether the second-level cache holds the loan and its installment list, so loading it by id and walking
+    // the collection needs no SQL. Otherwise the detail reads take their single join query, which also fills
+    // the cache for the next read. Always false while the cache is disabled.
+    private boolean isCachedWithInstallments(Long loanId) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        return cache.containsEntity(Loan.class, loanId) && cache.containsCollection(INSTALLMENTS_ROLE, loanId);
     }
 
-    private LoanResponse mapToLoanResponse(Loan loan, boolean includeInstallments) {
-        LoanResponse.LoanResponseBuilder builder = LoanResponse.builder()
-                .id(loan.getId())
-                .customerId(loan.getCustomer().getId())
-                .loanAmount(loan.getLoanAmount())
-                .interestRate(loan.getInterestRate())
-                .totalAmountWithInterest(loan.getTotalLoanAmountWithInterest())
-                .numberOfInstallments(loan.getNumberOfInstallments())
-                .createDate(loan.getCreateDate())
-                .isPaid(loan.isPaid());
-
-        if (includeInstallments) {
-            builder.installments(loan.getInstallments().stream()
-                    .map(this::mapToLoanInstallmentResponse)
-                    .collect(Collectors.toList()));
-        }
-        return builder.build();
+    private void authorizeAccessToLoan(Loan loan, Authentication authentication) {
+        authorizeAccessToCustomerLoan(loan.getCustomer().getId(), authentication);
     }
 
-    private LoanInstallmentResponse mapToLoanInstallmentResponse(LoanInstallment installment) {
-        return LoanInstallmentResponse.builder()
-                .id(installment.getId())
-                .loanId(installment.getLoan().getId())
-                .installmentAmount(installment.getInstallmentAmount())
-                .paidAmount(installment.getPaidAmount())
-                .dueDate(installment.getDueDate())
-                .paymentDate(installment.getPaymentDate())
-                .isPaid(installment.isPaid())
-                .build();
+    private void authorizeAccessToCustomerLoan(Long loanCustomerId, Authentication authentication) {
+        AuthenticatedUser authenticatedUser = authenticatedUserResolver.resolve(authentication);
+
+        if (authenticatedUser.getRole() == Role.ROLE_CUSTOMER) {
+            if (authenticatedUser.getCustomerId() == null ||
+                    !loanCustomerId.equals(authenticatedUser.getCustomerId())) {
+                throw new AccessDeniedException("You do not have permission to access this loan's details.");
+            }
+        }
     }
 }
@@ -0,0 +1,268 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.enums.AllocationStrategy;
+import com.example.LoanAPIBackend.exception.PaymentException;
+import com.example.LoanAPIBackend.model.Loan;
+import com.example.LoanAPIBackend.model.LoanInstallment;
+import com.example.LoanAPIBackend.money.Money;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The payment rules: installments are paid whole and in due-date order, only within the current month and
+ * the two after it, with a per-day discount for early and penalty for late payment. Pure computation,
+ * so paying and quoting share exactly the same arithmetic. The loop runs on long cents ({@link Money});
+ * BigDecimals are only created for the resulting plan.
+ */
+@Component
+public class PaymentAllocator {
+
+    static final long PENALTY_DISCOUNT_RATE_UNITS_PER_DAY = Money.rateUnits(new BigDecimal("0.001"));
+
+    /**
+     * @param loan               a persisted loan, so its amount is in whole cents
+     * @param unpaidInstallments the loan's unpaid installments ordered by due date, never empty
+     */
+    public PaymentPlan plan(Loan loan, List<LoanInstallment> unpaidInstallments, BigDecimal paymentAmountFromUser,
+                            LocalDate today) {
+        long totalBaseCents = 0;
+        long totalActualCents = 0;
+        long remainingPaymentCents = Money.floorCents(paymentAmountFromUser);
+
+        YearMonth currentYearMonth = YearMonth.from(today);
+        YearMonth maxPayableYearMonth = currentYearMonth.plusMonths(2);
+
+        LoanInstallment firstEligibleInstallment = null;
+        for (LoanInstallment inst : unpaidInstallments) {
+            YearMonth installmentYearMonth = YearMonth.from(inst.getDueDate());
+            if (!installmentYearMonth.isAfter(maxPayableYearMonth)) {
+                firstEligibleInstallment = inst;
+                break;
+            }
+        }
+
+        if (firstEligibleInstallment == null) {
+            throw new PaymentException(PaymentException.Reason.NOTHING_DUE_IN_WINDOW,
+                    "No installments are currently payable within the 3-month window.");
+        }
+
+        if (remainingPaymentCents < Money.cents(firstEligibleInstallment.getInstallmentAmount())) {
+            throw new PaymentException(PaymentException.Reason.AMOUNT_BELOW_INSTALLMENT,
+                    "Payment amount is less than the earliest eligible due installment amount ("
+                    + firstEligibleInstallment.getInstallmentAmount().setScale(2, RoundingMode.HALF_UP) +
+                    "). No installments can be paid.");
+        }
+
+        List<PaymentPlan.InstallmentPayment> payments = new ArrayList<>();
+        for (LoanInstallment installment : unpaidInstallments) {
+            YearMonth installmentYearMonth = YearMonth.from(installment.getDueDate());
+
+            if (installmentYearMonth.isAfter(maxPayableYearMonth)) {
+                break;
+            }
+
+            long baseInstallmentCents = Money.cents(installment.getInstallmentAmount());
+
+            if (remainingPaymentCents >= baseInstallmentCents) {
+                long actualPaidCents = actualCentsFor(baseInstallmentCents,
+                        ChronoUnit.DAYS.between(today, installment.getDueDate()));
+                payments.add(new PaymentPlan.InstallmentPayment(installment, Money.toBigDecimal(actualPaidCents)));
+
+                remainingPaymentCents -= baseInstallmentCents;
+                totalBaseCents += baseInstallmentCents;
+                totalActualCents += actualPaidCents;
+            } else {
+                break;
+            }
+        }
+
+        if (payments.isEmpty()) {
+            return new PaymentPlan(payments, BigDecimal.ZERO, BigDecimal.ZERO, paymentAmountFromUser,
+                    BigDecimal.ZERO, unpaidInstallments.size());
+        }
+
+        return toPlan(loan, payments, totalBaseCents, totalActualCents,
+                paymentAmountFromUser.subtract(Money.toBigDecimal(totalBaseCents)), unpaidInstallments.size());
+    }
+
+    /**
+     * Allocates one payment over several loans of a customer. Each loan keeps the single-loan rules above:
+     * whole installments, in due-date order, within the payable window. The strategy only decides which
+     * loan's next installment is taken first; a loan whose next installment no longer fits is left out while
+     * cheaper installments of other loans may still be covered.
+     *
+     * @param loans                      persisted unpaid loans of one customer
+     * @param unpaidInstallmentsByLoanId each loan's unpaid installments ordered by due date
+     * @throws PaymentException when nothing is payable in the window, or the amount covers no installment
+     */
+    public CustomerPaymentPlan planAcrossLoans(List<Loan> loans,
+                                               Map<Long, List<LoanInstallment>> unpaidInstallmentsByLoanId,
+                                               BigDecimal paymentAmountFromUser, LocalDate today,
+                                               AllocationStrategy strategy) {
+        YearMonth maxPayableYearMonth = YearMonth.from(today).plusMonths(2);
+
+        PriorityQueue<LoanCursor> heads = new PriorityQueue<>(loanOrder(strategy, today));
+        LoanInstallment cheapestHead = null;
+        for (Loan loan : loans) {
+            List<LoanInstallment> unpaid = unpaidInstallmentsByLoanId.getOrDefault(loan.getId(), List.of());
+            int eligible = 0;
+            while (eligible < unpaid.size() &&
+                    !YearMonth.from(unpaid.get(eligible).getDueDate()).isAfter(maxPayableYearMonth)) {
+                eligible++;
+            }
+            if (eligible == 0) {
+                continue;
+            }
+            LoanCursor cursor = new LoanCursor(loan, unpaid, eligible);
+            heads.add(cursor);
+            if (cheapestHead == null ||
+                    cursor.head().getInstallmentAmount().compareTo(cheapestHead.getInstallmentAmount()) < 0) {
+                cheapestHead = cursor.head();
+            }
+        }
+
+        if (cheapestHead == null) {
+            throw new PaymentException(PaymentException.Reason.NOTHING_DUE_IN_WINDOW,
+                    "No installments are currently payable within the 3-month window.");
+        }
+
+        long remainingPaymentCents = Money.floorCents(paymentAmountFromUser);
+        if (remainingPaymentCents < Money.cents(cheapestHead.getInstallmentAmount())) {
+            throw new PaymentException(PaymentException.Reason.AMOUNT_BELOW_INSTALLMENT,
+                    "Payment amount is less than the smallest eligible due installment amount ("
+                    + cheapestHead.getInstallmentAmount().setScale(2, RoundingMode.HALF_UP) +
+                    "). No installments can be paid.");
+        }
+
+        List<LoanCursor> covered = new ArrayList<>();
+        while (!heads.isEmpty()) {
+            LoanCursor cursor = heads.poll();
+            long baseInstallmentCents = Money.cents(cursor.head().getInstallmentAmount());
+            if (remainingPaymentCents < baseInstallmentCents) {
+                continue;
+            }
+            if (cursor.payments.isEmpty()) {
+                covered.add(cursor);
+            }
+            long actualPaidCents = actualCentsFor(baseInstallmentCents,
+                    ChronoUnit.DAYS.between(today, cursor.head().getDueDate()));
+            cursor.payments.add(new PaymentPlan.InstallmentPayment(cursor.head(), Money.toBigDecimal(actualPaidCents)));
+            cursor.totalBaseCents += baseInstallmentCents;
+            cursor.totalActualCents += actualPaidCents;
+            remainingPaymentCents -= baseInstallmentCents;
+            if (cursor.payments.size() < cursor.eligible) {
+                heads.add(cursor);
+            }
+        }
+
+        covered.sort(Comparator.comparing(cursor -> cursor.loan.getId()));
+        long totalBaseCents = 0;
+        long totalActualCents = 0;
+        for (LoanCursor cursor : covered) {
+            totalBaseCents += cursor.totalBaseCents;
+            totalActualCents += cursor.totalActualCents;
+        }
+        BigDecimal remainingPayment = paymentAmountFromUser.subtract(Money.toBigDecimal(totalBaseCents));
+
+        List<CustomerPaymentPlan.LoanPlan> loanPlans = new ArrayList<>();
+        BigDecimal principalReleased = BigDecimal.ZERO;
+        for (LoanCursor cursor : covered) {
+            PaymentPlan plan = toPlan(cursor.loan, cursor.payments, cursor.totalBaseCents, cursor.totalActualCents,
+                    remainingPayment, cursor.unpaid.size());
+            loanPlans.add(new CustomerPaymentPlan.LoanPlan(cursor.loan, plan));
+            principalReleased = principalReleased.add(plan.principalReleased());
+        }
+
+        return new CustomerPaymentPlan(loanPlans, Money.toBigDecimal(totalBaseCents),
+                Money.toBigDecimal(totalActualCents), remainingPayment, principalReleased);
+    }
+
+    private PaymentPlan toPlan(Loan loan, List<PaymentPlan.InstallmentPayment> payments, long totalBaseCents,
+                               long totalActualCents, BigDecimal remainingPayment, int unpaidCount) {
+        return new PaymentPlan(payments, Money.toBigDecimal(totalBaseCents), Money.toBigDecimal(totalActualCents),
+                remainingPayment, Money.toBigDecimal(principalReleasedCents(loan, payments)),
+                unpaidCount - payments.size());
+    }
+
+    // Each installment's scheduled principal; installments without one repay an equal share, as flat ones do.
+    private static long principalReleasedCents(Loan loan, List<PaymentPlan.InstallmentPayment> payments) {
+        long equalShareCents = Money.divide(Money.cents(loan.getLoanAmount()), loan.getNumberOfInstallments());
+        long releasedCents = 0;
+        for (PaymentPlan.InstallmentPayment payment : payments) {
+            BigDecimal principal = payment.installment().getPrincipalAmount();
+            releasedCents = Math.addExact(releasedCents, principal != null ? Money.cents(principal) : equalShareCents);
+        }
+        return releasedCents;
+    }
+
+    // Ties, and installments without a penalty yet, fall back to the earliest due date, then the lowest loan id.
+    private static Comparator<LoanCursor> loanOrder(AllocationStrategy strategy, LocalDate today) {
+        Comparator<LoanCursor> byDueDate = Comparator
+                .comparing((LoanCursor cursor) -> cursor.head().getDueDate())
+                .thenComparing(cursor -> cursor.loan.getId());
+        if (strategy == AllocationStrategy.HIGHEST_PENALTY_FIRST) {
+            return Comparator.comparingLong((LoanCursor cursor) -> -penaltyCentsOn(cursor.head(), today))
+                    .thenComparing(byDueDate);
+        }
+        return byDueDate;
+    }
+
+    private static long penaltyCentsOn(LoanInstallment installment, LocalDate today) {
+        long daysOverdue = ChronoUnit.DAYS.between(installment.getDueDate(), today);
+        return daysOverdue > 0 ? penaltyCents(Money.cents(installment.getInstallmentAmount()), daysOverdue) : 0;
+    }
+
+    // One loan's position in a cross-loan allocation: the first `eligible` unpaid installments are payable.
+    private static final class LoanCursor {
+
+        private final Loan loan;
+        private final List<LoanInstallment> unpaid;
+        private final int eligible;
+        private final List<PaymentPlan.InstallmentPayment> payments = new ArrayList<>();
+        private long totalBaseCents;
+        private long totalActualCents;
+
+        private LoanCursor(Loan loan, List<LoanInstallment> unpaid, int eligible) {
+            this.loan = loan;
+            this.unpaid = unpaid;
+            this.eligible = eligible;
+        }
+
+        private LoanInstallment head() {
+            return unpaid.get(payments.size());
+        }
+    }
+
+    /**
+     * Discount for days paid ahead of the due date, penalty for days overdue, both rounded HALF_UP to cents.
+     */
+    long actualCentsFor(long baseInstallmentCents, long daysDifference) {
+        if (daysDifference > 0) {
+            long discount = Money.applyRate(baseInstallmentCents,
+                    Math.multiplyExact(PENALTY_DISCOUNT_RATE_UNITS_PER_DAY, daysDifference));
+            return baseInstallmentCents - discount;
+        } else if (daysDifference < 0) {
+            return baseInstallmentCents + penaltyCents(baseInstallmentCents, Math.abs(daysDifference));
+        }
+        return baseInstallmentCents;
+    }
+
+    /**
+     * Late fee for an installment {@code daysOverdue} days past due, rounded HALF_UP to cents. Shared with
+     * the overdue accrual batch so the accrued figure is exactly what a payment on that day would add.
+     */
+    public static long penaltyCents(long baseInstallmentCents, long daysOverdue) {
+        return Money.applyRate(baseInstallmentCents,
+                Math.multiplyExact(PENALTY_DISCOUNT_RATE_UNITS_PER_DAY, daysOverdue));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.model.LoanInstallment;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Outcome of allocating one payment over a loan's unpaid installments, computed without touching the database.
+ *
+ * @param payments              installments covered, in due-date order, with the amount recorded as paid
+ * @param totalBaseAmount       sum of the covered installments' base amounts, i.e. what the payment is debited
+ * @param totalActualAmount     sum of the recorded amounts after early-payment discounts and late penalties
+ * @param remainingPayment      part of the payment left over after the covered installments
+ * @param principalReleased     principal that goes back to the customer's available credit
+ * @param remainingUnpaidCount  installments still unpaid once the plan is applied
+ */
+public record PaymentPlan(List<InstallmentPayment> payments,
+                          BigDecimal totalBaseAmount,
+                          BigDecimal totalActualAmount,
+                          BigDecimal remainingPayment,
+                          BigDecimal principalReleased,
+                          int remainingUnpaidCount) {
+
+    public record InstallmentPayment(LoanInstallment installment, BigDecimal paidAmount) {
+    }
+
+    public int installmentsPaidCount() {
+        return payments.size();
+    }
+
+    public boolean paysOffLoan() {
+        return remainingUnpaidCount == 0 && !payments.isEmpty();
+    }
+}
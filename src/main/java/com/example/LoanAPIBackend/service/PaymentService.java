@@ -1,28 +1,37 @@
 package com.example.LoanAPIBackend.service;
 
+import com.example.LoanAPIBackend.dto.CustomerPaymentResponse;
 import com.example.LoanAPIBackend.dto.PaymentResponse;
+import com.example.LoanAPIBackend.enums.AllocationStrategy;
+import com.example.LoanAPIBackend.enums.Role;
 import com.example.LoanAPIBackend.exception.PaymentException;
 import com.example.LoanAPIBackend.exception.ResourceNotFoundException;
-import com.example.LoanAPIBackend.model.Customer;
+import com.example.LoanAPIBackend.metrics.LoanMetrics;
 import com.example.LoanAPIBackend.model.Loan;
 import com.example.LoanAPIBackend.model.LoanInstallment;
-import com.example.LoanAPIBackend.model.User;
+import com.example.LoanAPIBackend.outbox.InstallmentsPaidEvent;
+import com.example.LoanAPIBackend.outbox.OutboxWriter;
 
 import com.example.LoanAPIBackend.repository.LoanInstallmentRepository;
 import com.example.LoanAPIBackend.repository.LoanRepository;
-import com.example.LoanAPIBackend.repository.UserRepository;
+import com.example.LoanAPIBackend.retry.RetryOnConflict;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.security.service.AuthenticatedUserResolver;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.YearMonth;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -31,143 +40,263 @@ public class PaymentService {
     private final LoanRepository loanRepository;
     private final LoanInstallmentRepository loanInstallmentRepository;
     private final CustomerService customerService;
-    private final UserRepository userRepository;
-
-    private static final BigDecimal PENALTY_DISCOUNT_RATE_PER_DAY = new BigDecimal("0.001");
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+    private final PaymentAllocator paymentAllocator;
+    private final LoanMetrics loanMetrics;
+    private final CustomerExposureService customerExposureService;
+    private final OutboxWriter outboxWriter;
 
+    @RetryOnConflict
     @Transactional
+    @Observed(name = "loan.payment")
     public PaymentResponse payLoanInstallments(Long loanId, BigDecimal paymentAmountFromUser, Authentication authentication) {
+        try {
+            return pay(loanId, paymentAmountFromUser, authentication);
+        } catch (PaymentException e) {
+            loanMetrics.paymentRejected(e.getReason());
+            throw e;
+        }
+    }
+
+    private PaymentResponse pay(Long loanId, BigDecimal paymentAmountFromUser, Authentication authentication) {
+        Loan loan = loanRepository.findForUpdateById(loanId)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + loanId));
+
+        List<LoanInstallment> unpaidInstallments = unpaidInstallmentsForPayment(loan, paymentAmountFromUser,
+                authentication);
+        if (unpaidInstallments.isEmpty()) {
+            loan.setPaid(true);
+            loanRepository.save(loan);
+            throw noUnpaidInstallments();
+        }
+
+        LocalDate today = LocalDate.now();
+        PaymentPlan plan = paymentAllocator.plan(loan, unpaidInstallments, paymentAmountFromUser, today);
+        applyPlan(loan, plan, today);
+        recordAcceptedAfterCommit(plan.installmentsPaidCount(), loan.isPaid());
+
+        return toPaymentResponse(plan, loan.isPaid());
+    }
+
+    /**
+     * What {@link #payLoanInstallments} would answer on {@code today} for this amount, without paying: the same
+     * checks, the same allocation and the same response, or the same {@link PaymentException}. Nothing is
+     * locked or written, and the loan and its installments may come from the second-level cache. The answer
+     * only changes with the loan's version and the date, which is what the endpoint's ETag is made of.
+     */
+    @Transactional(readOnly = true)
+    public PaymentResponse quoteLoanInstallments(Long loanId, BigDecimal paymentAmountFromUser, LocalDate today,
+                                                 Authentication authentication) {
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + loanId));
 
+        List<LoanInstallment> unpaidInstallments = unpaidInstallmentsForPayment(loan, paymentAmountFromUser,
+                authentication);
+        if (unpaidInstallments.isEmpty()) {
+            throw noUnpaidInstallments();
+        }
+
+        PaymentPlan plan = paymentAllocator.plan(loan, unpaidInstallments, paymentAmountFromUser, today);
+        return toPaymentResponse(plan, plan.paysOffLoan());
+    }
+
+    // The checks a payment makes before allocating; an empty result means the loan is settled but not flagged.
+    private List<LoanInstallment> unpaidInstallmentsForPayment(Loan loan, BigDecimal paymentAmountFromUser,
+                                                               Authentication authentication) {
         authorizeAccessToLoanPayment(loan, authentication);
 
         if (loan.isPaid()) {
-            throw new PaymentException("This loan is already fully paid.");
+            throw new PaymentException(PaymentException.Reason.LOAN_ALREADY_PAID, "This loan is already fully paid.");
         }
         if (paymentAmountFromUser == null || paymentAmountFromUser.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new PaymentException("Payment amount must be positive.");
+            throw new PaymentException(PaymentException.Reason.INVALID_AMOUNT, "Payment amount must be positive.");
         }
 
-        List<LoanInstallment> unpaidInstallments = loanInstallmentRepository.findByLoanIdAndIsPaidFalseOrderByDueDateAsc(loanId);
-        if (unpaidInstallments.isEmpty()) {
-            if (!loan.isPaid()) {
-                loan.setPaid(true);
-                loanRepository.save(loan);
+        return loanInstallmentRepository.findByLoanIdAndIsPaidFalseOrderByDueDateAsc(loan.getId());
+    }
+
+    private static PaymentException noUnpaidInstallments() {
+        return new PaymentException(PaymentException.Reason.NO_UNPAID_INSTALLMENTS,
+                "No unpaid installments found for this loan. It might be fully paid.");
+    }
+
+    private static PaymentResponse toPaymentResponse(PaymentPlan plan, boolean loanFullyPaid) {
+        int installmentsPaidThisTransaction = plan.installmentsPaidCount();
+        String message;
+        if (installmentsPaidThisTransaction > 0) {
+            message = installmentsPaidThisTransaction + " installment(s) paid successfully.";
+            if (loanFullyPaid) {
+                message += " The loan is now fully paid.";
             }
-            throw new PaymentException("No unpaid installments found for this loan. It might be fully paid.");
+        } else {
+            message = "Payment processed, but no installments were covered. Please check the payment amount and installment status.";
         }
 
-        int installmentsPaidThisTransaction = 0;
-        BigDecimal totalBaseAmountDebitedFromPayment = BigDecimal.ZERO;
-        BigDecimal totalActualAmountRecordedAsPaid = BigDecimal.ZERO;
-        BigDecimal remainingUserPayment = paymentAmountFromUser;
+        return PaymentResponse.builder()
+                .installmentsPaidCount(installmentsPaidThisTransaction)
+                .totalActualAmountAccountedForInstallments(plan.totalActualAmount())
+                .totalBaseAmountDebitedFromPayment(plan.totalBaseAmount())
+                .remainingPaymentAmount(plan.remainingPayment())
+                .loanFullyPaid(loanFullyPaid)
+                .message(message)
+                .build();
+    }
 
-        LocalDate today = LocalDate.now();
-        YearMonth currentYearMonth = YearMonth.from(today);
-        YearMonth maxPayableYearMonth = currentYearMonth.plusMonths(2);
-
-        LoanInstallment firstEligibleInstallment = null;
-        for (LoanInstallment inst : unpaidInstallments) {
-            YearMonth installmentYearMonth = YearMonth.from(inst.getDueDate());
-            if (!installmentYearMonth.isAfter(maxPayableYearMonth)) {
-                firstEligibleInstallment = inst;
-                break;
+    // Counted once the payment is durable, so a rolled-back or retried attempt is not reported as paid.
+    private void recordAcceptedAfterCommit(int installmentsPaid, boolean loanPaidOff) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            loanMetrics.paymentAccepted(installmentsPaid, loanPaidOff);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                loanMetrics.paymentAccepted(installmentsPaid, loanPaidOff);
             }
+        });
+    }
+
+    /**
+     * Writes the plan back in a fixed number of statements: the installment rows go out as one JDBC batch
+     * (hibernate.jdbc.batch_size), the released principal as a single credit delta, and one loan update
+     * carrying the new version and, when this payment settles it, the paid flag. The customer's exposure
+     * summary is read and updated once more, plus a next-due-date query when the earliest installment was paid.
+     * The InstallmentsPaid outbox event is a plain JDBC insert on the same transaction.
+     * Remaining installments come from the plan, not a count query.
+     */
+    private void applyPlan(Loan loan, PaymentPlan plan, LocalDate today) {
+        applyInstallments(loan, plan, today);
+
+        if (plan.installmentsPaidCount() > 0) {
+            customerService.adjustUsedCreditLimit(loan.getCustomer().getId(), plan.principalReleased().negate());
         }
 
-        if (firstEligibleInstallment == null) {
-            throw new PaymentException("No installments are currently payable within the 3-month window.");
+        customerExposureService.recordPayment(loan.getCustomer().getId(), plan);
+
+        if (plan.installmentsPaidCount() > 0) {
+            outboxWriter.append(installmentsPaidEvent(loan, plan, today));
         }
+    }
 
-        if (paymentAmountFromUser.compareTo(firstEligibleInstallment.getInstallmentAmount()) < 0) {
-            throw new PaymentException("Payment amount is less than the earliest eligible due installment amount ("
-                    + firstEligibleInstallment.getInstallmentAmount().setScale(2, RoundingMode.HALF_UP) +
-                    "). No installments can be paid.");
+    private void applyInstallments(Loan loan, PaymentPlan plan, LocalDate today) {
+        for (PaymentPlan.InstallmentPayment payment : plan.payments()) {
+            LoanInstallment installment = payment.installment();
+            installment.setPaidAmount(payment.paidAmount());
+            installment.setPaymentDate(today);
+            installment.setPaid(true);
         }
 
-        for (LoanInstallment installment : unpaidInstallments) {
-            YearMonth installmentYearMonth = YearMonth.from(installment.getDueDate());
+        if (plan.installmentsPaidCount() > 0) {
+            loan.incrementVersion();
+        }
 
-            if (installmentYearMonth.isAfter(maxPayableYearMonth)) {
-                break;
-            }
+        if (plan.paysOffLoan()) {
+            loan.setPaid(true);
+        }
+    }
 
-            BigDecimal baseInstallmentValue = installment.getInstallmentAmount();
-
-            if (remainingUserPayment.compareTo(baseInstallmentValue) >= 0) {
-
-                BigDecimal actualPaidForThisInstallment = baseInstallmentValue;
-                long daysDifference = ChronoUnit.DAYS.between(today, installment.getDueDate());
-
-                if (daysDifference > 0) {
-                    BigDecimal discount = baseInstallmentValue.multiply(PENALTY_DISCOUNT_RATE_PER_DAY)
-                            .multiply(BigDecimal.valueOf(daysDifference))
-                            .setScale(2, RoundingMode.HALF_UP);
-                    actualPaidForThisInstallment = baseInstallmentValue.subtract(discount);
-                }
-                else if (daysDifference < 0) {
-                    BigDecimal penalty = baseInstallmentValue.multiply(PENALTY_DISCOUNT_RATE_PER_DAY)
-                            .multiply(BigDecimal.valueOf(Math.abs(daysDifference)))
-                            .setScale(2, RoundingMode.HALF_UP);
-                    actualPaidForThisInstallment = baseInstallmentValue.add(penalty);
-                }
-
-                installment.setPaidAmount(actualPaidForThisInstallment);
-                installment.setPaymentDate(today);
-                installment.setPaid(true);
-                loanInstallmentRepository.save(installment);
-
-                remainingUserPayment = remainingUserPayment.subtract(baseInstallmentValue);
-                totalBaseAmountDebitedFromPayment = totalBaseAmountDebitedFromPayment.add(baseInstallmentValue);
-                totalActualAmountRecordedAsPaid = totalActualAmountRecordedAsPaid.add(actualPaidForThisInstallment);
-                installmentsPaidThisTransaction++;
-
-                Customer customer = loan.getCustomer();
-                BigDecimal principalPerInstallment = loan.getLoanAmount()
-                        .divide(BigDecimal.valueOf(loan.getNumberOfInstallments()), 2, RoundingMode.HALF_UP);
-                customerService.updateUsedCreditLimit(customer, principalPerInstallment.negate());
-            } else {
-                break;
-            }
+    private static InstallmentsPaidEvent installmentsPaidEvent(Loan loan, PaymentPlan plan, LocalDate today) {
+        return new InstallmentsPaidEvent(loan.getId(), loan.getCustomer().getId(), loan.getVersion(),
+                plan.payments().stream().map(payment -> payment.installment().getId()).toList(),
+                plan.totalBaseAmount(), plan.totalActualAmount(), today, plan.paysOffLoan());
+    }
+
+    /**
+     * Pays installments across all of a customer's unpaid loans with one amount, in the order the strategy
+     * gives. The loans are locked in id order and their unpaid installments read in one query; the plan is
+     * then written back like a single-loan payment, except that the installments of every loan share one
+     * JDBC batch, and the released principal, the exposure summary and the outbox events are each written
+     * once for the whole payment.
+     */
+    @RetryOnConflict
+    @Transactional
+    @Observed(name = "loan.payment")
+    public CustomerPaymentResponse payCustomerInstallments(Long customerId, BigDecimal paymentAmountFromUser,
+                                                           AllocationStrategy strategy,
+                                                           Authentication authentication) {
+        try {
+            return payCustomer(customerId, paymentAmountFromUser,
+                    strategy != null ? strategy : AllocationStrategy.OLDEST_DUE_FIRST, authentication);
+        } catch (PaymentException e) {
+            loanMetrics.paymentRejected(e.getReason());
+            throw e;
         }
+    }
 
-        long remainingUnpaidCount = loanInstallmentRepository.countByLoanIdAndIsPaidFalse(loanId);
-        if (remainingUnpaidCount == 0 && installmentsPaidThisTransaction > 0) {
-            loan.setPaid(true);
-            loanRepository.save(loan);
-        } else if (remainingUnpaidCount == 0 && unpaidInstallments.size() == 0 && !loan.isPaid()){
-            loan.setPaid(true);
-            loanRepository.save(loan);
+    private CustomerPaymentResponse payCustomer(Long customerId, BigDecimal paymentAmountFromUser,
+                                                AllocationStrategy strategy, Authentication authentication) {
+        AuthenticatedUser authenticatedUser = authenticatedUserResolver.resolve(authentication);
+        if (authenticatedUser.getRole() == Role.ROLE_CUSTOMER && !customerId.equals(authenticatedUser.getCustomerId())) {
+            throw new AccessDeniedException("You do not have permission to pay this customer's loans.");
+        }
+        if (paymentAmountFromUser == null || paymentAmountFromUser.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new PaymentException(PaymentException.Reason.INVALID_AMOUNT, "Payment amount must be positive.");
         }
 
-        String message;
-        if (installmentsPaidThisTransaction > 0) {
-            message = installmentsPaidThisTransaction + " installment(s) paid successfully.";
-            if (loan.isPaid()) {
-                message += " The loan is now fully paid.";
-            }
-        } else {
-            message = "Payment processed, but no installments were covered. Please check the payment amount and installment status.";
+        List<Loan> loans = loanRepository.findUnpaidForUpdateByCustomerId(customerId);
+        if (loans.isEmpty()) {
+            customerService.getCustomerById(customerId);
+            throw new PaymentException(PaymentException.Reason.NO_UNPAID_INSTALLMENTS,
+                    "No unpaid loans found for this customer.");
         }
 
-        return PaymentResponse.builder()
-                .installmentsPaidCount(installmentsPaidThisTransaction)
-                .totalActualAmountAccountedForInstallments(totalActualAmountRecordedAsPaid)
-                .totalBaseAmountDebitedFromPayment(totalBaseAmountDebitedFromPayment)
-                .remainingPaymentAmount(remainingUserPayment)
-                .loanFullyPaid(loan.isPaid())
+        Map<Long, List<LoanInstallment>> unpaidInstallmentsByLoanId = new HashMap<>();
+        for (LoanInstallment installment : loanInstallmentRepository.findUnpaidByCustomerIdOrderByLoanAndDueDate(customerId)) {
+            unpaidInstallmentsByLoanId.computeIfAbsent(installment.getLoan().getId(), id -> new ArrayList<>())
+                    .add(installment);
+        }
+
+        LocalDate today = LocalDate.now();
+        CustomerPaymentPlan customerPlan = paymentAllocator.planAcrossLoans(loans, unpaidInstallmentsByLoanId,
+                paymentAmountFromUser, today, strategy);
+
+        List<PaymentPlan> plans = new ArrayList<>();
+        List<InstallmentsPaidEvent> events = new ArrayList<>();
+        List<CustomerPaymentResponse.LoanPayment> loanPayments = new ArrayList<>();
+        for (CustomerPaymentPlan.LoanPlan loanPlan : customerPlan.loanPlans()) {
+            Loan loan = loanPlan.loan();
+            PaymentPlan plan = loanPlan.plan();
+            applyInstallments(loan, plan, today);
+            recordAcceptedAfterCommit(plan.installmentsPaidCount(), loan.isPaid());
+            plans.add(plan);
+            events.add(installmentsPaidEvent(loan, plan, today));
+            loanPayments.add(CustomerPaymentResponse.LoanPayment.builder()
+                    .loanId(loan.getId())
+                    .installmentsPaidCount(plan.installmentsPaidCount())
+                    .totalBaseAmountDebitedFromPayment(plan.totalBaseAmount())
+                    .totalActualAmountAccountedForInstallments(plan.totalActualAmount())
+                    .loanFullyPaid(loan.isPaid())
+                    .build());
+        }
+
+        customerService.adjustUsedCreditLimit(customerId, customerPlan.principalReleased().negate());
+        customerExposureService.recordPayments(customerId, plans);
+        outboxWriter.appendAll(events);
+
+        long loansPaidOff = loanPayments.stream().filter(CustomerPaymentResponse.LoanPayment::isLoanFullyPaid).count();
+        String message = customerPlan.installmentsPaidCount() + " installment(s) paid successfully across "
+                + loanPayments.size() + " loan(s).";
+        if (loansPaidOff > 0) {
+            message += " " + loansPaidOff + " loan(s) are now fully paid.";
+        }
+
+        return CustomerPaymentResponse.builder()
+                .strategy(strategy)
+                .installmentsPaidCount(customerPlan.installmentsPaidCount())
+                .totalBaseAmountDebitedFromPayment(customerPlan.totalBaseAmount())
+                .totalActualAmountAccountedForInstallments(customerPlan.totalActualAmount())
+                .remainingPaymentAmount(customerPlan.remainingPayment())
+                .loans(loanPayments)
                 .message(message)
                 .build();
     }
 
     private void authorizeAccessToLoanPayment(Loan loan, Authentication authentication) {
-        User authenticatedUser = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found."));
+        AuthenticatedUser authenticatedUser = authenticatedUserResolver.resolve(authentication);
 
-        if (authenticatedUser.getRole() == com.example.LoanAPIBackend.enums.Role.ROLE_CUSTOMER) {
-            if (authenticatedUser.getCustomer() == null ||
-                    !loan.getCustomer().getId().equals(authenticatedUser.getCustomer().getId())) {
+        if (authenticatedUser.getRole() == Role.ROLE_CUSTOMER) {
+            if (authenticatedUser.getCustomerId() == null ||
+                    !loan.getCustomer().getId().equals(authenticatedUser.getCustomerId())) {
                 throw new AccessDeniedException("You do not have permission to pay this loan.");
             }
         }
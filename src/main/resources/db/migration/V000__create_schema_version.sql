@@ -0,0 +1,15 @@
+-- Versions already applied to this database. spring.sql.init runs every script on every startup, so each script
+-- ends by recording its version here, and any statement that is not a no-op on a second run (backfill UPDATEs and
+-- INSERTs) is guarded with NOT EXISTS on its own version: it runs once per database. The DDL around it is
+-- IF NOT EXISTS and does nothing after the first run.
+
+CREATE TABLE IF NOT EXISTS schema_version (
+    version INT NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    applied_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_schema_version PRIMARY KEY (version)
+);
+
+INSERT INTO schema_version (version, description, applied_at)
+SELECT 0, 'create schema version', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM schema_version WHERE version = 0);
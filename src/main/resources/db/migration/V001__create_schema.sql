@@ -0,0 +1,52 @@
+-- Entity tables. Mirrors the JPA mappings; Hibernate only validates against this (ddl-auto: validate).
+-- Every statement is guarded with IF NOT EXISTS so the script is safe to run against an existing database.
+-- Foreign keys are added in V004, after the indexes they can reuse.
+
+CREATE SEQUENCE IF NOT EXISTS loan_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS loan_installment_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS customers (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255),
+    surname VARCHAR(255),
+    credit_limit NUMERIC(38, 2),
+    used_credit_limit NUMERIC(38, 2),
+    CONSTRAINT pk_customers PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS app_users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role ENUM ('ROLE_ADMIN', 'ROLE_CUSTOMER') NOT NULL,
+    customer_id BIGINT,
+    CONSTRAINT pk_app_users PRIMARY KEY (id),
+    CONSTRAINT uk_app_users_username UNIQUE (username),
+    CONSTRAINT uk_app_users_customer_id UNIQUE (customer_id)
+);
+
+CREATE TABLE IF NOT EXISTS loan (
+    id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    loan_amount NUMERIC(19, 2) NOT NULL,
+    interest_rate NUMERIC(5, 4) NOT NULL,
+    number_of_installments INTEGER NOT NULL,
+    create_date DATE NOT NULL,
+    is_paid BOOLEAN DEFAULT FALSE,
+    CONSTRAINT pk_loan PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS loan_installment (
+    id BIGINT NOT NULL,
+    loan_id BIGINT NOT NULL,
+    installment_amount NUMERIC(19, 2) NOT NULL,
+    paid_amount NUMERIC(19, 2),
+    due_date DATE NOT NULL,
+    payment_date DATE,
+    is_paid BOOLEAN DEFAULT FALSE,
+    CONSTRAINT pk_loan_installment PRIMARY KEY (id)
+);
+
+INSERT INTO schema_version (version, description, applied_at)
+SELECT 1, 'create schema', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM schema_version WHERE version = 1);
@@ -0,0 +1,15 @@
+-- Idempotency keys for POST /pay and /createLoan, used when app.idempotency.store=jdbc.
+-- Not mapped by a JPA entity; accessed through JdbcIdempotencyStore.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(512) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    response_status INT,
+    response_body CLOB,
+    created_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
+
+INSERT INTO schema_version (version, description, applied_at)
+SELECT 2, 'create idempotency keys', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM schema_version WHERE version = 2);
@@ -0,0 +1,16 @@
+-- Indexes for the access paths the services use on every request.
+
+-- Unpaid installments of a loan in due-date order (payment), their count, and the installment listing.
+-- is_paid sits between loan_id and due_date, so a loan's unpaid installments form one contiguous range
+-- in due-date order and the payment read is a seek on both leading columns. This plays the role of a
+-- partial index on H2, which has none; on PostgreSQL the equivalent would be
+--   CREATE INDEX ... ON loan_installment (loan_id, due_date) INCLUDE (installment_amount) WHERE NOT is_paid;
+-- which holds unpaid rows only and shrinks as loans are paid off.
+CREATE INDEX IF NOT EXISTS idx_loan_installment_loan_paid_due ON loan_installment (loan_id, is_paid, due_date);
+
+-- Customer-scoped keyset listing: WHERE customer_id = ? AND id > ? ORDER BY id.
+CREATE INDEX IF NOT EXISTS idx_loan_customer_id ON loan (customer_id, id);
+
+INSERT INTO schema_version (version, description, applied_at)
+SELECT 3, 'add access path indexes', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM schema_version WHERE version = 3);
@@ -0,0 +1,7 @@
+-- Version of a loan and everything shown with it. Payments bump it, and the loan endpoints
+-- derive their ETag from it, so a conditional GET is answered from this column alone.
+ALTER TABLE loan ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+INSERT INTO schema_version (version, description, applied_at)
+SELECT 5, 'add loan version', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM schema_version WHERE version = 5);
@@ -0,0 +1,31 @@
+-- Overdue penalties accrued by PenaltyAccrualJob: one row per unpaid overdue installment as of the latest run.
+-- Not mapped by a JPA entity. Each chunk of a run replaces the rows of its loan-id range, so installments
+-- paid since the previous run disappear.
+
+CREATE TABLE IF NOT EXISTS penalty_accrual (
+    installment_id BIGINT NOT NULL,
+    loan_id BIGINT NOT NULL,
+    as_of_date DATE NOT NULL,
+    days_overdue INT NOT NULL,
+    installment_amount NUMERIC(19, 2) NOT NULL,
+    accrued_penalty NUMERIC(19, 2) NOT NULL,
+    CONSTRAINT pk_penalty_accrual PRIMARY KEY (installment_id)
+);
+CREATE INDEX IF NOT EXISTS idx_penalty_accrual_loan_id ON penalty_accrual (loan_id);
+
+-- Restart checkpoints: one row per loan-id partition of a run, covering (from_loan_id, to_loan_id].
+-- A chunk's accruals and the advance of last_loan_id commit together, so rerunning the same date
+-- continues each partition after its last committed chunk.
+CREATE TABLE IF NOT EXISTS penalty_accrual_checkpoint (
+    as_of_date DATE NOT NULL,
+    partition_no INT NOT NULL,
+    from_loan_id BIGINT NOT NULL,
+    to_loan_id BIGINT NOT NULL,
+    last_loan_id BIGINT NOT NULL,
+    completed BOOLEAN DEFAULT FALSE NOT NULL,
+    CONSTRAINT pk_penalty_accrual_checkpoint PRIMARY KEY (as_of_date, partition_no)
+);
+
+INSERT INTO schema_version (version, description, applied_at)
+SELECT 6, 'create penalty accrual', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM schema_version WHERE version = 6);
@@ -0,0 +1,38 @@
+-- Per-customer exposure summary served by GET /api/customers/{customerId}/exposure, so the endpoint reads one
+-- row instead of every loan and installment of the customer. Loan creation and payments update it in their
+-- own transaction; CustomerExposureReconciliationJob recomputes it from the loans and installments.
+-- overdue_installment_count counts installments due before overdue_as_of: the reconciliation refreshes it for
+-- the new day, payments in between only take paid installments off it.
+
+CREATE TABLE IF NOT EXISTS customer_exposure (
+    customer_id BIGINT NOT NULL,
+    open_loan_count INT DEFAULT 0 NOT NULL,
+    unpaid_installment_count INT DEFAULT 0 NOT NULL,
+    outstanding_amount NUMERIC(19, 2) DEFAULT 0 NOT NULL,
+    next_due_date DATE,
+    overdue_installment_count INT DEFAULT 0 NOT NULL,
+    overdue_as_of DATE,
+    CONSTRAINT pk_customer_exposure PRIMARY KEY (customer_id),
+    CONSTRAINT fk_customer_exposure_customer FOREIGN KEY (customer_id) REFERENCES customers (id)
+);
+
+-- Backfill, once, for databases that already hold loans; a fresh database gets its rows from data.sql.
+INSERT INTO customer_exposure (customer_id, open_loan_count, unpaid_installment_count, outstanding_amount,
+                               next_due_date, overdue_installment_count, overdue_as_of)
+SELECT c.id,
+       COUNT(DISTINCT CASE WHEN l.is_paid = FALSE THEN l.id END),
+       COUNT(i.id),
+       COALESCE(SUM(i.installment_amount), 0),
+       MIN(i.due_date),
+       COUNT(CASE WHEN i.due_date < CURRENT_DATE THEN 1 END),
+       CURRENT_DATE
+FROM customers c
+LEFT JOIN loan l ON l.customer_id = c.id
+LEFT JOIN loan_installment i ON i.loan_id = l.id AND i.is_paid = FALSE
+WHERE NOT EXISTS (SELECT 1 FROM customer_exposure e WHERE e.customer_id = c.id)
+  AND NOT EXISTS (SELECT 1 FROM schema_version WHERE version = 7)
+GROUP BY c.id;
+
+INSERT INTO schema_version (version, description, applied_at)
+SELECT 7, 'create customer exposure', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM schema_version WHERE version = 7);
@@ -0,0 +1,17 @@
+-- Transactional outbox: lifecycle events written in the same transaction as the loan or payment they describe.
+-- Not mapped by a JPA entity; OutboxWriter inserts, OutboxRelay delivers to the configured sinks in id order
+-- and deletes what they acknowledged. Rows only stay here while they wait for delivery.
+
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    aggregate_type VARCHAR(64) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload CLOB NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_outbox_event PRIMARY KEY (id)
+);
+
+INSERT INTO schema_version (version, description, applied_at)
+SELECT 8, 'create outbox event', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM schema_version WHERE version = 8);
@@ -0,0 +1,15 @@
+-- Schedule a loan was laid out with, and the principal each installment repays. Existing loans are flat,
+-- where every installment repays an equal share, which is what payments released before this column existed.
+ALTER TABLE loan ADD COLUMN IF NOT EXISTS schedule_type ENUM ('FLAT', 'ANNUITY', 'DECLINING_BALANCE')
+    DEFAULT 'FLAT' NOT NULL;
+
+ALTER TABLE loan_installment ADD COLUMN IF NOT EXISTS principal_amount NUMERIC(19, 2);
+
+UPDATE loan_installment i
+SET principal_amount = (SELECT ROUND(l.loan_amount / l.number_of_installments, 2) FROM loan l WHERE l.id = i.loan_id)
+WHERE i.principal_amount IS NULL
+  AND NOT EXISTS (SELECT 1 FROM schema_version WHERE version = 9);
+
+INSERT INTO schema_version (version, description, applied_at)
+SELECT 9, 'add amortization schedules', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM schema_version WHERE version = 9);
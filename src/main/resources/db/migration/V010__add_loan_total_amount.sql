@@ -0,0 +1,15 @@
+-- Total repayable, stored when the loan is laid out so reads never regenerate its schedule. Flat loans are
+-- priced from their terms; loans on the other schedules add up their installments.
+ALTER TABLE loan ADD COLUMN IF NOT EXISTS total_amount_with_interest NUMERIC(19, 2);
+
+UPDATE loan l
+SET total_amount_with_interest = CASE
+        WHEN l.schedule_type = 'FLAT' THEN ROUND(l.loan_amount * (1 + l.interest_rate), 2)
+        ELSE (SELECT SUM(i.installment_amount) FROM loan_installment i WHERE i.loan_id = l.id)
+    END
+WHERE l.total_amount_with_interest IS NULL
+  AND NOT EXISTS (SELECT 1 FROM schema_version WHERE version = 10);
+
+INSERT INTO schema_version (version, description, applied_at)
+SELECT 10, 'add loan total amount', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM schema_version WHERE version = 10);
@@ -0,0 +1,76 @@
+package com.example.LoanAPIBackend.metrics;
+
+import com.example.LoanAPIBackend.exception.PaymentException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Payment and credit outcomes as Micrometer meters. All series are registered up front, so recording
+ * is a counter increment with no lookup, and every rejection reason shows up at zero before it first happens.
+ */
+@Component
+public class MicrometerLoanMetrics implements LoanMetrics {
+
+    private final Counter paymentsAccepted;
+    private final Map<PaymentException.Reason, Counter> paymentsRejected = new EnumMap<>(PaymentException.Reason.class);
+    private final Counter installmentsPaid;
+    private final DistributionSummary installmentsPerPayment;
+    private final Counter loansPaidOff;
+    private final Counter creditRejections;
+
+    public MicrometerLoanMetrics(MeterRegistry meterRegistry) {
+        paymentsAccepted = Counter.builder("loan.payments")
+                .description("Payment requests, by outcome and rejection reason")
+                .tag("outcome", "accepted")
+                .tag("reason", "none")
+                .register(meterRegistry);
+        for (PaymentException.Reason reason : PaymentException.Reason.values()) {
+            paymentsRejected.put(reason, Counter.builder("loan.payments")
+                    .description("Payment requests, by outcome and rejection reason")
+                    .tag("outcome", "rejected")
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        installmentsPaid = Counter.builder("loan.installments.paid")
+                .description("Installments settled by accepted payments")
+                .register(meterRegistry);
+        installmentsPerPayment = DistributionSummary.builder("loan.payment.installments")
+                .description("Installments settled by one accepted payment")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(24.0)
+                .register(meterRegistry);
+        loansPaidOff = Counter.builder("loan.paid.off")
+                .description("Loans fully paid by a payment")
+                .register(meterRegistry);
+        creditRejections = Counter.builder("loan.credit.rejections")
+                .description("Loan creations refused for insufficient credit limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void paymentAccepted(int installmentsPaid, boolean loanPaidOff) {
+        paymentsAccepted.increment();
+        this.installmentsPaid.increment(installmentsPaid);
+        installmentsPerPayment.record(installmentsPaid);
+        if (loanPaidOff) {
+            loansPaidOff.increment();
+        }
+    }
+
+    @Override
+    public void paymentRejected(PaymentException.Reason reason) {
+        paymentsRejected.get(reason).increment();
+    }
+
+    @Override
+    public void creditRejected() {
+        creditRejections.increment();
+    }
+}
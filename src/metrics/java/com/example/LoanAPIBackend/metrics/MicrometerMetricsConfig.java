@@ -0,0 +1,37 @@
+package com.example.LoanAPIBackend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Wiring for the {@code metrics} build profile. Endpoint timers ({@code http.server.requests}), Hikari pool
+ * gauges ({@code hikaricp.*}) and {@code @Observed} service timers come from Spring Boot Actuator itself. The
+ * request context is carried onto customer lanes by the main code's {@link RequestContextTaskDecorator}.
+ */
+@Configuration
+public class MicrometerMetricsConfig {
+
+    @Bean
+    public RequestStatementMetrics requestStatementMetrics(MeterRegistry meterRegistry) {
+        return new RequestStatementMetrics(meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestStatementMetrics> requestStatementMetricsFilter(
+            RequestStatementMetrics requestStatementMetrics) {
+        FilterRegistrationBean<RequestStatementMetrics> registration = new FilterRegistrationBean<>(requestStatementMetrics);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // Leaves an explicitly configured inspector, such as the tests' statement counter, in place.
+    @Bean
+    public HibernatePropertiesCustomizer requestStatementInspector(RequestStatementMetrics requestStatementMetrics) {
+        return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, requestStatementMetrics);
+    }
+}
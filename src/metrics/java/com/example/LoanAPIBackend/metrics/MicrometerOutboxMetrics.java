@@ -0,0 +1,50 @@
+package com.example.LoanAPIBackend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Outbox relay meters: {@code rate(outbox.events.relayed[1m])} is the relay's throughput, and
+ * {@code outbox.relay.lag} how long events waited for delivery, which grows while sinks push back.
+ */
+@Component
+public class MicrometerOutboxMetrics implements OutboxMetrics {
+
+    private final Counter eventsRelayed;
+    private final Counter batchFailures;
+    private final DistributionSummary batchSize;
+    private final Timer relayLag;
+
+    public MicrometerOutboxMetrics(MeterRegistry meterRegistry) {
+        eventsRelayed = Counter.builder("outbox.events.relayed")
+                .description("Outbox events acknowledged by every sink and removed from the outbox")
+                .register(meterRegistry);
+        batchFailures = Counter.builder("outbox.relay.failures")
+                .description("Outbox batches a sink failed or refused; they are retried after a backoff")
+                .register(meterRegistry);
+        batchSize = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Events per relayed outbox batch")
+                .register(meterRegistry);
+        relayLag = Timer.builder("outbox.relay.lag")
+                .description("Time the oldest event of a relayed batch spent in the outbox")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void batchRelayed(int events, Duration oldestEventAge) {
+        eventsRelayed.increment(events);
+        batchSize.record(events);
+        relayLag.record(oldestEventAge);
+    }
+
+    @Override
+    public void batchFailed() {
+        batchFailures.increment();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.LoanAPIBackend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * SQL statements prepared by Hibernate per HTTP request, recorded as {@code http.server.requests.jdbc.statements}
+ * with the same method and uri tags as {@code http.server.requests}. The filter opens the request's
+ * {@link RequestStatementCounter} and the statement inspector bumps it.
+ */
+public class RequestStatementMetrics extends OncePerRequestFilter implements StatementInspector {
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestStatementMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatementCounter.increment();
+        return sql;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int[] count = RequestStatementCounter.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestStatementCounter.close();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.jdbc.statements")
+                    .description("SQL statements prepared while serving one request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(count[0]);
+        }
+    }
+}
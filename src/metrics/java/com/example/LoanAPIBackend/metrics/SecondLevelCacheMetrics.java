@@ -0,0 +1,48 @@
+package com.example.LoanAPIBackend.metrics;
+
+import com.example.LoanAPIBackend.cache.ExpiringCache;
+import com.example.LoanAPIBackend.cache.ExpiringCacheRegionFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hit, miss and size series for every Hibernate second-level cache region, under Micrometer's usual cache
+ * meter names ({@code cache.gets}, {@code cache.size}) so the hit ratio is {@code hit / (hit + miss)} per region.
+ * Binds nothing when {@code app.cache.second-level.enabled} is off.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final ObjectProvider<ExpiringCacheRegionFactory> regionFactoryProvider;
+
+    public SecondLevelCacheMetrics(ObjectProvider<ExpiringCacheRegionFactory> regionFactoryProvider) {
+        this.regionFactoryProvider = regionFactoryProvider;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        regionFactoryProvider.ifAvailable(regionFactory -> regionFactory.regions()
+                .forEach((region, cache) -> bindRegion(meterRegistry, region, cache)));
+    }
+
+    private void bindRegion(MeterRegistry meterRegistry, String region, ExpiringCache<Object, Object> cache) {
+        FunctionCounter.builder("cache.gets", cache, ExpiringCache::hitCount)
+                .description("Second-level cache lookups that found a live entry")
+                .tag("cache", region)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, ExpiringCache::missCount)
+                .description("Second-level cache lookups that went to the database")
+                .tag("cache", region)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", cache, ExpiringCache::size)
+                .description("Live entries in the second-level cache region")
+                .tag("cache", region)
+                .register(meterRegistry);
+    }
+}
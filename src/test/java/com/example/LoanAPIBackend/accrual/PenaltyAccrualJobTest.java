@@ -0,0 +1,141 @@
+package com.example.LoanAPIBackend.accrual;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:penalty-accrual-test",
+        "app.penalty-accrual.partitions=3",
+        "app.penalty-accrual.chunk-loan-ids=1"})
+class PenaltyAccrualJobTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2025, 6, 1);
+    private static final long FIRST_LOAN_ID = 500_001;
+    private static final int LOANS = 6;
+
+    @Autowired
+    private PenaltyAccrualJob penaltyAccrualJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Six loans, each with installments 40 and 10 days overdue and one not yet due; the first loan's
+    // 40-day installment is already paid. That leaves 11 overdue unpaid installments.
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from penalty_accrual");
+        jdbcTemplate.update("delete from penalty_accrual_checkpoint");
+        jdbcTemplate.update("delete from loan_installment");
+        jdbcTemplate.update("delete from loan");
+        for (long loanId = FIRST_LOAN_ID; loanId < FIRST_LOAN_ID + LOANS; loanId++) {
+            jdbcTemplate.update("insert into loan (id, customer_id, loan_amount, interest_rate, number_of_installments, " +
+                    "create_date, is_paid, version) values (?, 1, 333.00, 0.1000, 3, ?, false, 0)",
+                    loanId, Date.valueOf(AS_OF.minusDays(70)));
+            insertInstallment(loanId * 10, loanId, AS_OF.minusDays(40), loanId == FIRST_LOAN_ID);
+            insertInstallment(loanId * 10 + 1, loanId, AS_OF.minusDays(10), false);
+            insertInstallment(loanId * 10 + 2, loanId, AS_OF.plusDays(20), false);
+        }
+    }
+
+    @Test
+    void run_AccruesPenaltyForEveryUnpaidOverdueInstallment() {
+        PenaltyAccrualResult result = penaltyAccrualJob.run(AS_OF);
+
+        assertEquals(3, result.partitionsRun());
+        assertEquals(11, result.installmentsAccrued());
+        assertEquals(11, accrualCount());
+
+        // Same arithmetic as paying that day: 123.45 at 0.1% per day, HALF_UP to cents.
+        Map<String, Object> fortyDays = accrual((FIRST_LOAN_ID + 1) * 10);
+        assertEquals(40, ((Number) fortyDays.get("days_overdue")).intValue());
+        assertEquals(0, new BigDecimal("4.94").compareTo((BigDecimal) fortyDays.get("accrued_penalty")));
+        Map<String, Object> tenDays = accrual((FIRST_LOAN_ID + 1) * 10 + 1);
+        assertEquals(0, new BigDecimal("1.23").compareTo((BigDecimal) tenDays.get("accrued_penalty")));
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from penalty_accrual where installment_id in (?, ?)", Integer.class,
+                FIRST_LOAN_ID * 10, FIRST_LOAN_ID * 10 + 2));
+    }
+
+    @Test
+    void run_CompletedDateIsNoOp() {
+        penaltyAccrualJob.run(AS_OF);
+
+        PenaltyAccrualResult rerun = penaltyAccrualJob.run(AS_OF);
+
+        assertEquals(0, rerun.partitionsRun());
+        assertEquals(0, rerun.installmentsAccrued());
+        assertEquals(11, accrualCount());
+    }
+
+    @Test
+    void run_ResumesInterruptedPartitionFromItsCheckpoint() {
+        penaltyAccrualJob.run(AS_OF);
+        // Partition 0 stopped after its first chunk: roll its checkpoint back and drop the later chunks' rows.
+        Map<String, Object> partition = jdbcTemplate.queryForMap(
+                "select from_loan_id, to_loan_id from penalty_accrual_checkpoint where as_of_date = ? and partition_no = 0",
+                Date.valueOf(AS_OF));
+        long firstChunkEnd = ((Number) partition.get("from_loan_id")).longValue() + 1;
+        jdbcTemplate.update("update penalty_accrual_checkpoint set last_loan_id = ?, completed = false " +
+                "where as_of_date = ? and partition_no = 0", firstChunkEnd, Date.valueOf(AS_OF));
+        int dropped = jdbcTemplate.update("delete from penalty_accrual where loan_id > ? and loan_id <= ?",
+                firstChunkEnd, partition.get("to_loan_id"));
+
+        PenaltyAccrualResult resumed = penaltyAccrualJob.run(AS_OF);
+
+        assertEquals(1, resumed.partitionsRun());
+        assertEquals(dropped, resumed.installmentsAccrued());
+        assertEquals(11, accrualCount());
+    }
+
+    @Test
+    void run_NextDateDropsInstallmentsPaidInBetween() {
+        penaltyAccrualJob.run(AS_OF);
+        jdbcTemplate.update("update loan_installment set is_paid = true, paid_amount = 123.45 where id = ?",
+                (FIRST_LOAN_ID + 2) * 10);
+
+        PenaltyAccrualResult nextDay = penaltyAccrualJob.run(AS_OF.plusDays(1));
+
+        assertEquals(10, nextDay.installmentsAccrued());
+        assertEquals(10, accrualCount());
+        assertEquals(41, ((Number) accrual((FIRST_LOAN_ID + 1) * 10).get("days_overdue")).intValue());
+    }
+
+    @Test
+    void run_DateBeforeOneAlreadyRunIsRefused() {
+        penaltyAccrualJob.run(AS_OF.plusDays(1));
+
+        IllegalStateException refused = assertThrows(IllegalStateException.class, () -> penaltyAccrualJob.run(AS_OF));
+
+        assertTrue(refused.getMessage().contains(AS_OF.plusDays(1).toString()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from penalty_accrual_checkpoint where as_of_date = ?", Integer.class,
+                Date.valueOf(AS_OF)));
+        assertEquals(11, accrualCount());
+        assertEquals(41, ((Number) accrual((FIRST_LOAN_ID + 1) * 10).get("days_overdue")).intValue());
+    }
+
+    private void insertInstallment(long id, long loanId, LocalDate dueDate, boolean paid) {
+        jdbcTemplate.update("insert into loan_installment (id, loan_id, installment_amount, paid_amount, due_date, " +
+                        "is_paid) values (?, ?, 123.45, ?, ?, ?)",
+                id, loanId, paid ? new BigDecimal("123.45") : null, Date.valueOf(dueDate), paid);
+    }
+
+    private int accrualCount() {
+        return jdbcTemplate.queryForObject("select count(*) from penalty_accrual", Integer.class);
+    }
+
+    private Map<String, Object> accrual(long installmentId) {
+        return jdbcTemplate.queryForMap("select * from penalty_accrual where installment_id = ?", installmentId);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.LoanAPIBackend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void get_AfterTtl_ReturnsEmpty() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofSeconds(5), clock::get);
+        cache.put("a", "1");
+
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertEquals(Optional.of("1"), cache.get("a"));
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(Optional.empty(), cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void put_WhenFull_EvictsOldestWrite() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(2, Duration.ofMinutes(1), clock::get);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("a", "1'");
+        cache.put("c", "3");
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.get("b").isEmpty(), "b was written least recently");
+        assertEquals(Optional.of("1'"), cache.get("a"));
+        assertEquals(Optional.of("3"), cache.get("c"));
+    }
+
+    @Test
+    void putIfAbsent_KeepsLiveEntryAndReplacesExpiredOne() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofSeconds(5), clock::get);
+
+        assertEquals(Optional.empty(), cache.putIfAbsent("a", "1"));
+        assertEquals(Optional.of("1"), cache.putIfAbsent("a", "2"));
+
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertEquals(Optional.empty(), cache.putIfAbsent("a", "3"));
+        assertEquals(Optional.of("3"), cache.get("a"));
+    }
+
+    @Test
+    void invalidate_RemovesEntry() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(2, Duration.ofMinutes(1), clock::get);
+        cache.put("a", "1");
+        cache.invalidate("a");
+
+        assertTrue(cache.get("a").isEmpty());
+    }
+}
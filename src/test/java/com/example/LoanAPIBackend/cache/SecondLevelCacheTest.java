@@ -0,0 +1,91 @@
+package com.example.LoanAPIBackend.cache;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.dto.LoanResponse;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.model.Customer;
+import com.example.LoanAPIBackend.model.Loan;
+import com.example.LoanAPIBackend.repository.LoanRepository;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.service.CustomerService;
+import com.example.LoanAPIBackend.service.LoanService;
+import com.example.LoanAPIBackend.service.PaymentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:second-level-cache-test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void creditUpdate_EvictsCachedCustomer() {
+        BigDecimal usedBefore = customerService.getCustomerById(4L).getUsedCreditLimit();
+        assertTrue(entityManagerFactory.getCache().contains(Customer.class, 4L));
+
+        customerService.reserveCredit(4L, new BigDecimal("250.00"));
+
+        assertFalse(entityManagerFactory.getCache().contains(Customer.class, 4L));
+        assertEquals(0, usedBefore.add(new BigDecimal("250.00"))
+                .compareTo(customerService.getCustomerById(4L).getUsedCreditLimit()));
+    }
+
+    @Test
+    void creditUpdate_LeavesOtherCustomersCached() {
+        customerService.getCustomerById(2L);
+        customerService.getCustomerById(3L);
+
+        customerService.reserveCredit(5L, new BigDecimal("100.00"));
+        customerService.adjustUsedCreditLimit(5L, new BigDecimal("-100.00"));
+
+        assertTrue(entityManagerFactory.getCache().contains(Customer.class, 2L));
+        assertTrue(entityManagerFactory.getCache().contains(Customer.class, 3L));
+    }
+
+    @Test
+    void payment_RefreshesCachedLoanAndInstallments() {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(6L);
+        request.setAmount(new BigDecimal("600.00"));
+        request.setInterestRate(new BigDecimal("0.10"));
+        request.setNumberOfInstallments(6);
+        Long loanId = loanService.createLoanWithCustomerbyAdmin(request).getId();
+
+        LoanResponse beforePayment = loanService.getLoanById(loanId, customerAuthentication());
+        assertTrue(entityManagerFactory.getCache().contains(Loan.class, loanId));
+        assertTrue(beforePayment.getInstallments().stream().noneMatch(installment -> installment.isPaid()));
+
+        paymentService.payLoanInstallments(loanId, new BigDecimal("110.00"), customerAuthentication());
+
+        LoanResponse afterPayment = loanService.getLoanById(loanId, customerAuthentication());
+        assertEquals(1, afterPayment.getInstallments().stream().filter(installment -> installment.isPaid()).count());
+        // A later write through a cached copy must not carry the pre-payment version.
+        assertEquals(1, loanRepository.findById(loanId).orElseThrow().getVersion());
+    }
+
+    private Authentication customerAuthentication() {
+        AuthenticatedUser principal = new AuthenticatedUser(7L, "customer6", "", Role.ROLE_CUSTOMER, 6L);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.LoanAPIBackend.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the prod profile on the local file-backed H2 settings, with the file swapped for memory.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:prodprofile;QUERY_CACHE_SIZE=64")
+@ActiveProfiles({"prod", "h2file"})
+class ProductionProfileTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void prodProfile_UsesFixedPoolBatchingAndAsyncLogging() {
+        HikariDataSource hikari = assertInstanceOf(HikariDataSource.class, dataSource);
+        assertEquals(20, hikari.getMaximumPoolSize());
+        assertEquals(20, hikari.getMinimumIdle());
+
+        assertEquals("50", entityManagerFactory.getProperties().get("hibernate.jdbc.batch_size"));
+        assertEquals("false", entityManagerFactory.getProperties().get("hibernate.format_sql"));
+        assertEquals(0, applicationContext.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+        assertNotNull(applicationContext.getBean(ProductionSettingsCheck.class));
+
+        Logger root = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME);
+        assertInstanceOf(AsyncAppender.class, root.getAppender("ASYNC_CONSOLE"));
+    }
+
+    @Test
+    void prodProfileAlone_RunsNoH2ScriptsOrSeedAndNoFixedDialect() throws IOException {
+        PropertySource<?> prod = load("application-prod.yml");
+        assertEquals("never", String.valueOf(prod.getProperty("spring.sql.init.mode")));
+        assertNull(prod.getProperty("spring.jpa.database-platform"));
+        assertNull(load("application.yml").getProperty("spring.jpa.database-platform"));
+
+        // h2file is H2 again, so it brings the scripts and seed back
+        assertEquals("always", environment.getProperty("spring.sql.init.mode"));
+    }
+
+    private static PropertySource<?> load(String file) throws IOException {
+        return new YamlPropertySourceLoader().load(file, new FileSystemResource(file)).get(0);
+    }
+}
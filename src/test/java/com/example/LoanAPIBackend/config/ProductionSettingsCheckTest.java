@@ -0,0 +1,35 @@
+package com.example.LoanAPIBackend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductionSettingsCheckTest {
+
+    @Test
+    void showSql_IsRefused() {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.jpa.show-sql", "true");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new ProductionSettingsCheck(environment));
+        assertTrue(exception.getMessage().startsWith("spring.jpa.show-sql must be false"));
+    }
+
+    @Test
+    void hibernateFormatSql_IsRefused() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.jpa.properties.hibernate.format_sql", "true");
+
+        assertThrows(IllegalStateException.class, () -> new ProductionSettingsCheck(environment));
+    }
+
+    @Test
+    void sqlEchoOff_IsAccepted() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.jpa.show-sql", "false")
+                .withProperty("logging.level.org.hibernate.SQL", "debug");
+
+        assertDoesNotThrow(() -> new ProductionSettingsCheck(environment));
+    }
+}
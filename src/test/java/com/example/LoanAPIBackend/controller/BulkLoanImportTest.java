@@ -0,0 +1,83 @@
+package com.example.LoanAPIBackend.controller;
+
+import com.example.LoanAPIBackend.dto.BulkLoanItemResult;
+import com.example.LoanAPIBackend.enums.BulkItemStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-loan-import-test",
+        "app.loans.bulk.chunk-size=2"
+})
+@AutoConfigureMockMvc
+class BulkLoanImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void jsonArray_MalformedElementIsRejectedAtItsIndexAndTheRestImported() throws Exception {
+        String body = """
+                [{"customerId": 6, "amount": 100.00, "interestRate": 0.10, "numberOfInstallments": 6},
+                 {"customerId": 6, "amount": 100.00, "interestRate": 0.10, "numberOfInstallments": "six"},
+                 {"customerId": 6, "amount": 200.00, "interestRate": 0.10, "numberOfInstallments": 6}]
+                """;
+
+        List<BulkLoanItemResult> results = importLoans(MediaType.APPLICATION_JSON, body);
+
+        assertEquals(List.of(BulkItemStatus.CREATED, BulkItemStatus.REJECTED, BulkItemStatus.CREATED),
+                results.stream().map(BulkLoanItemResult::getStatus).toList());
+        assertEquals(List.of(0L, 1L, 2L), results.stream().map(BulkLoanItemResult::getIndex).toList());
+        assertTrue(results.get(1).getMessage().startsWith("Malformed item"));
+    }
+
+    @Test
+    void ndjson_TruncatedStreamAnswersEveryItemReadAndEndsWithTheStop() throws Exception {
+        String body = """
+                {"customerId": 7, "amount": 100.00, "interestRate": 0.10, "numberOfInstallments": 6}
+                {"customerId": 7, "amount": 150.00, "interestRate": 0.10, "numberOfInstallments": 6}
+                {"customerId": 7, "amount": 200.00, "interestRate": 0.10, "numberOfInstallments": 6}
+                {"customerId": 7, "amount": 250.00, "interestRate\"""";
+
+        List<BulkLoanItemResult> results = importLoans(MediaType.APPLICATION_NDJSON, body);
+
+        assertEquals(4, results.size());
+        assertTrue(results.subList(0, 3).stream().allMatch(result -> result.getStatus() == BulkItemStatus.CREATED));
+        assertEquals(3L, results.get(3).getIndex());
+        assertEquals(BulkItemStatus.REJECTED, results.get(3).getStatus());
+        assertTrue(results.get(3).getMessage().startsWith("Malformed input, import stopped at this item"));
+    }
+
+    private List<BulkLoanItemResult> importLoans(MediaType contentType, String body) throws Exception {
+        String response = mockMvc.perform(post("/api/loans/createLoansByAdmin")
+                        .with(httpBasic("admin", "adminpass"))
+                        .contentType(contentType)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<BulkLoanItemResult> results = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            results.add(objectMapper.readValue(line, BulkLoanItemResult.class));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.LoanAPIBackend.controller;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.service.LoanService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:customer-exposure-endpoint-test")
+@AutoConfigureMockMvc
+class CustomerExposureEndpointTest {
+
+    private static final AuthenticatedUser ADMIN = new AuthenticatedUser(1L, "admin", "", Role.ROLE_ADMIN, null);
+    private static final AuthenticatedUser ROBERT = new AuthenticatedUser(5L, "robertb", "", Role.ROLE_CUSTOMER, 4L);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Test
+    void getExposure_ReturnsSummaryRowToOwner() throws Exception {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(4L);
+        request.setAmount(new BigDecimal("900.00"));
+        request.setInterestRate(new BigDecimal("0.20"));
+        request.setNumberOfInstallments(9);
+        loanService.createLoanWithCustomerbyAdmin(request);
+
+        mockMvc.perform(get("/api/customers/4/exposure").with(user(ROBERT)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId").value(4))
+                .andExpect(jsonPath("$.openLoanCount").value(1))
+                .andExpect(jsonPath("$.unpaidInstallmentCount").value(9))
+                .andExpect(jsonPath("$.outstandingAmount").value(1080.00))
+                .andExpect(jsonPath("$.overdueInstallmentCount").value(0))
+                .andExpect(jsonPath("$.nextDueDate").isNotEmpty());
+    }
+
+    @Test
+    void getExposure_IsForbiddenForOtherCustomers() throws Exception {
+        mockMvc.perform(get("/api/customers/3/exposure").with(user(ROBERT)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getExposure_UnknownCustomerIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/customers/999/exposure").with(user(ADMIN)))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.LoanAPIBackend.controller;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.service.LoanService;
+import com.example.LoanAPIBackend.service.PaymentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:loan-conditional-get-test",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureMockMvc
+class LoanConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long loanId;
+
+    @BeforeEach
+    void setUp() {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(5L);
+        request.setAmount(new BigDecimal("600.00"));
+        request.setInterestRate(new BigDecimal("0.10"));
+        request.setNumberOfInstallments(6);
+        loanId = loanService.createLoanWithCustomerbyAdmin(request).getId();
+    }
+
+    @Test
+    void getLoanById_MatchingETagIsAnsweredWithOneVersionLookup() throws Exception {
+        String eTag = mockMvc.perform(get("/api/loans/{loanId}", loanId).with(httpBasic("admin", "adminpass")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/loans/{loanId}", loanId).with(httpBasic("admin", "adminpass"))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void payment_ChangesETagOfLoanAndInstallments() throws Exception {
+        mockMvc.perform(get("/api/loans/{loanId}/installments", loanId).with(httpBasic("admin", "adminpass"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified());
+
+        paymentService.payLoanInstallments(loanId, new BigDecimal("110.00"), adminAuthentication());
+
+        mockMvc.perform(get("/api/loans/{loanId}/installments", loanId).with(httpBasic("admin", "adminpass"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(get("/api/loans/{loanId}", loanId).with(httpBasic("admin", "adminpass"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void conditionalGet_StillChecksLoanOwnership() throws Exception {
+        AuthenticatedUser otherCustomer = new AuthenticatedUser(2L, "johndoe", "", Role.ROLE_CUSTOMER, 1L);
+        mockMvc.perform(get("/api/loans/{loanId}", loanId).with(user(otherCustomer))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isForbidden());
+    }
+
+    private UsernamePasswordAuthenticationToken adminAuthentication() {
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "admin", "", Role.ROLE_ADMIN, null);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
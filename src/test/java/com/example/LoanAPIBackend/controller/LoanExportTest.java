@@ -0,0 +1,126 @@
+package com.example.LoanAPIBackend.controller;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.dto.InstallmentExportRow;
+import com.example.LoanAPIBackend.dto.LoanExportRow;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.repository.LoanInstallmentRepository;
+import com.example.LoanAPIBackend.repository.LoanRepository;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.service.LoanService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:loan-export-test")
+@AutoConfigureMockMvc
+class LoanExportTest {
+
+    private static final AuthenticatedUser ADMIN = new AuthenticatedUser(1L, "admin", "", Role.ROLE_ADMIN, null);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanInstallmentRepository loanInstallmentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long loanId;
+
+    @BeforeEach
+    void setUp() {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(3L);
+        request.setAmount(new BigDecimal("600.00"));
+        request.setInterestRate(new BigDecimal("0.10"));
+        request.setNumberOfInstallments(6);
+        loanId = loanService.createLoanWithCustomerbyAdmin(request).getId();
+    }
+
+    @Test
+    void exportLoans_WritesOneNdjsonLinePerLoan() throws Exception {
+        String body = mockMvc.perform(get("/api/exports/loans").with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(loanRepository.count(), lines.size());
+        assertTrue(body.endsWith("\n"));
+
+        JsonNode created = objectMapper.readTree(lines.stream()
+                .filter(line -> line.startsWith("{\"id\":" + loanId + ","))
+                .findFirst().orElseThrow());
+        assertEquals(3L, created.get("customerId").asLong());
+        assertEquals(0, new BigDecimal("600.00").compareTo(created.get("loanAmount").decimalValue()));
+        assertEquals(6, created.get("numberOfInstallments").asInt());
+        assertFalse(created.get("paid").asBoolean());
+    }
+
+    @Test
+    void exportInstallments_WritesCsvWithHeaderAndEmptyFieldsForUnpaid() throws Exception {
+        String body = mockMvc.perform(get("/api/exports/installments").param("format", "csv").with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(InstallmentExportRow.CSV_HEADER, lines.get(0));
+        assertEquals(loanInstallmentRepository.count(), lines.size() - 1);
+
+        List<String[]> createdLoanRows = lines.stream().skip(1)
+                .map(line -> line.split(",", -1))
+                .filter(fields -> fields[1].equals(loanId.toString()))
+                .toList();
+        assertEquals(6, createdLoanRows.size());
+        for (String[] fields : createdLoanRows) {
+            assertEquals(7, fields.length);
+            assertEquals("110.00", fields[2]);
+            assertEquals("", fields[3]);
+            assertEquals("", fields[5]);
+            assertEquals("false", fields[6]);
+        }
+    }
+
+    @Test
+    void exportLoans_CsvHeaderMatchesColumns() throws Exception {
+        String body = mockMvc.perform(get("/api/exports/loans").param("format", "csv").with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(LoanExportRow.CSV_HEADER, lines.get(0));
+        assertTrue(lines.contains(loanId + ",3,600.00,0.1000,6," + loanRepository.findById(loanId).orElseThrow()
+                .getCreateDate() + ",false"));
+    }
+
+    @Test
+    void export_IsForAdminsOnly() throws Exception {
+        AuthenticatedUser customer = new AuthenticatedUser(4L, "alicej", "", Role.ROLE_CUSTOMER, 3L);
+        mockMvc.perform(get("/api/exports/loans").with(user(customer)))
+                .andExpect(status().isForbidden());
+    }
+}
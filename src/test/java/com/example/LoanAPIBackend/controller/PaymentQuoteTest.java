@@ -0,0 +1,140 @@
+package com.example.LoanAPIBackend.controller;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.service.LoanService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payment-quote-test",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureMockMvc
+class PaymentQuoteTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long loanId;
+
+    // Six installments of 110.00, due from next month on.
+    @BeforeEach
+    void setUp() {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(5L);
+        request.setAmount(new BigDecimal("600.00"));
+        request.setInterestRate(new BigDecimal("0.10"));
+        request.setNumberOfInstallments(6);
+        loanId = loanService.createLoanWithCustomerbyAdmin(request).getId();
+    }
+
+    @Test
+    void quote_AnswersExactlyWhatPayThenDoes_WithoutWriting() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String quote = mockMvc.perform(get("/api/loans/{loanId}/quote", loanId).param("amount", "250.00")
+                        .with(httpBasic("admin", "adminpass")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-" + LocalDate.now() + "\""))
+                .andExpect(jsonPath("$.installmentsPaidCount").value(2))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(0, statistics.getEntityInsertCount());
+
+        String payment = mockMvc.perform(post("/api/loans/{loanId}/pay", loanId)
+                        .with(httpBasic("admin", "adminpass"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 250.00}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(payment, quote);
+    }
+
+    @Test
+    void quote_IsRevalidatedByLoanVersionAndDay() throws Exception {
+        String eTag = mockMvc.perform(get("/api/loans/{loanId}/quote", loanId).param("amount", "110.00")
+                        .with(httpBasic("admin", "adminpass")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/loans/{loanId}/quote", loanId).param("amount", "110.00")
+                        .with(httpBasic("admin", "adminpass"))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // Another day's quote for the same version is not reused: discounts are counted from the current date.
+        mockMvc.perform(get("/api/loans/{loanId}/quote", loanId).param("amount", "110.00")
+                        .with(httpBasic("admin", "adminpass"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-" + LocalDate.now().minusDays(1) + "\""))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/loans/{loanId}/pay", loanId)
+                        .with(httpBasic("admin", "adminpass"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 110.00}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/loans/{loanId}/quote", loanId).param("amount", "110.00")
+                        .with(httpBasic("admin", "adminpass"))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-" + LocalDate.now() + "\""));
+    }
+
+    @Test
+    void quote_RejectsLikePay() throws Exception {
+        String quoteError = mockMvc.perform(get("/api/loans/{loanId}/quote", loanId).param("amount", "100.00")
+                        .with(httpBasic("admin", "adminpass")))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString();
+
+        String payError = mockMvc.perform(post("/api/loans/{loanId}/pay", loanId)
+                        .with(httpBasic("admin", "adminpass"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 100.00}"))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(quoteError.contains("Payment amount is less than the earliest eligible due installment amount"));
+        assertTrue(payError.contains("Payment amount is less than the earliest eligible due installment amount"));
+    }
+
+    @Test
+    void quote_OtherCustomersLoanIsForbidden() throws Exception {
+        AuthenticatedUser robert = new AuthenticatedUser(5L, "robertb", "", Role.ROLE_CUSTOMER, 4L);
+
+        mockMvc.perform(get("/api/loans/{loanId}/quote", loanId).param("amount", "110.00").with(user(robert)))
+                .andExpect(status().isForbidden());
+    }
+}
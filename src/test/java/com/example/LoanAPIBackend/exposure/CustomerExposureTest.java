@@ -0,0 +1,135 @@
+package com.example.LoanAPIBackend.exposure;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.dto.LoanResponse;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.model.CustomerExposure;
+import com.example.LoanAPIBackend.repository.CustomerExposureRepository;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.service.LoanService;
+import com.example.LoanAPIBackend.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customer-exposure-test",
+        "app.exposure.reconciliation.chunk-customers=3"})
+class CustomerExposureTest {
+
+    private static final Long CUSTOMER_ID = 2L;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private CustomerExposureRepository customerExposureRepository;
+
+    @Autowired
+    private CustomerExposureReconciliationJob reconciliationJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long firstLoanId;
+
+    // Two loans of six installments: 220.00 and 120.00 each, both first due at the start of next month.
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("update customer_exposure set open_loan_count = 0, unpaid_installment_count = 0, " +
+                "outstanding_amount = 0, next_due_date = null, overdue_installment_count = 0");
+        jdbcTemplate.update("delete from loan_installment");
+        jdbcTemplate.update("delete from loan");
+        jdbcTemplate.update("update customers set used_credit_limit = 0");
+        firstLoanId = createLoan("1200.00", "0.10").getId();
+        createLoan("600.00", "0.20");
+    }
+
+    @Test
+    void createLoan_AddsLoansToSummary() {
+        CustomerExposure exposure = exposure();
+
+        assertEquals(2, exposure.getOpenLoanCount());
+        assertEquals(12, exposure.getUnpaidInstallmentCount());
+        assertEquals(0, new BigDecimal("2040.00").compareTo(exposure.getOutstandingAmount()));
+        assertEquals(LocalDate.now().plusMonths(1).withDayOfMonth(1), exposure.getNextDueDate());
+        assertEquals(0, exposure.getOverdueInstallmentCount());
+    }
+
+    @Test
+    void payLoanInstallments_TakesPaidInstallmentsOffSummary() {
+        // Overdue as of two months ahead: the first two installments of each loan.
+        LocalDate asOf = LocalDate.now().plusMonths(2).withDayOfMonth(1).plusDays(1);
+        reconciliationJob.run(asOf);
+        assertEquals(4, exposure().getOverdueInstallmentCount());
+
+        paymentService.payLoanInstallments(firstLoanId, new BigDecimal("1000.00"), adminAuthentication());
+
+        CustomerExposure exposure = exposure();
+        assertEquals(2, exposure.getOpenLoanCount());
+        assertEquals(10, exposure.getUnpaidInstallmentCount());
+        assertEquals(0, new BigDecimal("1600.00").compareTo(exposure.getOutstandingAmount()));
+        assertEquals(2, exposure.getOverdueInstallmentCount());
+        // The other loan's first installment is due the same day.
+        assertEquals(LocalDate.now().plusMonths(1).withDayOfMonth(1), exposure.getNextDueDate());
+
+        assertEquals(0, reconciliationJob.run(asOf).rowsCorrected());
+    }
+
+    @Test
+    void payLoanInstallments_MovesNextDueDateWhenEarliestInstallmentIsPaid() {
+        jdbcTemplate.update("delete from loan_installment where loan_id <> ?", firstLoanId);
+        jdbcTemplate.update("delete from loan where id <> ?", firstLoanId);
+        reconciliationJob.run(LocalDate.now());
+
+        paymentService.payLoanInstallments(firstLoanId, new BigDecimal("220.00"), adminAuthentication());
+
+        assertEquals(LocalDate.now().plusMonths(2).withDayOfMonth(1), exposure().getNextDueDate());
+        assertEquals(0, reconciliationJob.run(LocalDate.now()).rowsCorrected());
+    }
+
+    @Test
+    void reconciliation_RewritesDriftedAndMissingRows() {
+        jdbcTemplate.update("update customer_exposure set outstanding_amount = 0 where customer_id = ?", CUSTOMER_ID);
+        jdbcTemplate.update("delete from customer_exposure where customer_id = 7");
+
+        CustomerExposureReconciliationResult result = reconciliationJob.run(LocalDate.now());
+
+        assertEquals(7, result.customersReconciled());
+        assertEquals(2, result.rowsCorrected());
+        assertEquals(0, new BigDecimal("2040.00").compareTo(exposure().getOutstandingAmount()));
+        assertEquals(Date.valueOf(LocalDate.now()), jdbcTemplate.queryForObject(
+                "select overdue_as_of from customer_exposure where customer_id = 7", Date.class));
+    }
+
+    private LoanResponse createLoan(String amount, String interestRate) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(CUSTOMER_ID);
+        request.setAmount(new BigDecimal(amount));
+        request.setInterestRate(new BigDecimal(interestRate));
+        request.setNumberOfInstallments(6);
+        return loanService.createLoanWithCustomerbyAdmin(request);
+    }
+
+    private CustomerExposure exposure() {
+        return customerExposureRepository.findById(CUSTOMER_ID).orElseThrow();
+    }
+
+    private Authentication adminAuthentication() {
+        AuthenticatedUser admin = new AuthenticatedUser(1L, "admin", null, Role.ROLE_ADMIN, null);
+        return UsernamePasswordAuthenticationToken.authenticated(admin, null, admin.getAuthorities());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.LoanAPIBackend.idempotency;
+
+import com.example.LoanAPIBackend.dto.PayLoanRequest;
+import com.example.LoanAPIBackend.dto.PaymentResponse;
+import com.example.LoanAPIBackend.exception.IdempotencyConflictException;
+import com.example.LoanAPIBackend.exception.PaymentException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest {
+
+    private final IdempotencyService idempotencyService = new IdempotencyService(
+            new InMemoryIdempotencyStore(100, Duration.ofMinutes(5), Duration.ofMinutes(1)), new ObjectMapper().findAndRegisterModules());
+    private final Authentication johndoe = new TestingAuthenticationToken("johndoe", null);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void execute_WithSameKeyAndRequest_ReplaysStoredResponseWithoutRunningAgain() {
+        ResponseEntity<PaymentResponse> first = pay("key-1", "150.00", this::paidOne);
+        ResponseEntity<PaymentResponse> second = pay("key-1", "150.00", this::paidOne);
+
+        assertEquals(1, executions.get());
+        assertEquals(first.getBody(), second.getBody());
+        assertEquals(first.getStatusCode(), second.getStatusCode());
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_WithSameKeyAndDifferentRequest_IsRejected() {
+        pay("key-1", "150.00", this::paidOne);
+
+        assertThrows(IdempotencyConflictException.class, () -> pay("key-1", "300.00", this::paidOne));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_WhenActionFails_ReleasesKeyForRetry() {
+        assertThrows(PaymentException.class, () -> pay("key-1", "150.00", () -> {
+            executions.incrementAndGet();
+            throw new PaymentException("Payment amount must be positive.");
+        }));
+
+        pay("key-1", "150.00", this::paidOne);
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_WithoutKey_RunsEveryTime() {
+        pay(null, "150.00", this::paidOne);
+        pay(null, "150.00", this::paidOne);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void inMemoryStore_NeverEvictsAClaimStillInProgress() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(2, Duration.ofMinutes(5), Duration.ofMinutes(1));
+        assertTrue(store.claim("running", "hash").isEmpty());
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(store.claim("done-" + i, "hash").isEmpty());
+            store.complete("done-" + i, new IdempotencyRecord("hash", 200, "{}"));
+        }
+
+        IdempotencyRecord running = store.claim("running", "hash").orElseThrow();
+        assertFalse(running.isCompleted());
+    }
+
+    @Test
+    void inMemoryStore_GivesUpAClaimWhoseLeaseRanOut() throws InterruptedException {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(10, Duration.ofMinutes(5), Duration.ofMillis(20));
+        assertTrue(store.claim("key-1", "hash").isEmpty());
+        assertTrue(store.claim("key-1", "hash").isPresent());
+
+        Thread.sleep(50);
+
+        assertTrue(store.claim("key-1", "hash").isEmpty());
+    }
+
+    private ResponseEntity<PaymentResponse> pay(String key, String amount, Supplier<ResponseEntity<PaymentResponse>> action) {
+        PayLoanRequest request = new PayLoanRequest();
+        request.setAmount(new BigDecimal(amount));
+        return idempotencyService.execute(key, johndoe, "pay:1", request, PaymentResponse.class, action);
+    }
+
+    private ResponseEntity<PaymentResponse> paidOne() {
+        executions.incrementAndGet();
+        return ResponseEntity.ok(PaymentResponse.builder()
+                .installmentsPaidCount(1)
+                .totalBaseAmountDebitedFromPayment(new BigDecimal("110.00"))
+                .totalActualAmountAccountedForInstallments(new BigDecimal("108.50"))
+                .remainingPaymentAmount(new BigDecimal("40.00"))
+                .message("1 installment(s) paid successfully.")
+                .build());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.LoanAPIBackend.idempotency;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.repository.LoanInstallmentRepository;
+import com.example.LoanAPIBackend.service.LoanService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency",
+        "app.idempotency.store=jdbc"
+})
+@AutoConfigureMockMvc
+class IdempotentPaymentTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanInstallmentRepository loanInstallmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void retriedPayment_WithSameKey_IsAppliedOnce() throws Exception {
+        CreateLoanRequest loanRequest = new CreateLoanRequest();
+        loanRequest.setCustomerId(3L);
+        loanRequest.setAmount(new BigDecimal("600.00"));
+        loanRequest.setInterestRate(new BigDecimal("0.10"));
+        loanRequest.setNumberOfInstallments(6);
+        Long loanId = loanService.createLoanWithCustomerbyAdmin(loanRequest).getId();
+
+        String first = mockMvc.perform(pay(loanId, "payment-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(pay(loanId, "payment-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(content().json(first, JsonCompareMode.STRICT));
+
+        assertEquals(5, loanInstallmentRepository.countByLoanIdAndIsPaidFalse(loanId));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from idempotency_keys where response_status = 200", Integer.class));
+
+        mockMvc.perform(pay(loanId, "payment-2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(4, loanInstallmentRepository.countByLoanIdAndIsPaidFalse(loanId));
+    }
+
+    @Test
+    void abandonedClaim_IsTakenOverOnceItsLeaseHasRunOut() throws Exception {
+        CreateLoanRequest loanRequest = new CreateLoanRequest();
+        loanRequest.setCustomerId(3L);
+        loanRequest.setAmount(new BigDecimal("600.00"));
+        loanRequest.setInterestRate(new BigDecimal("0.10"));
+        loanRequest.setNumberOfInstallments(6);
+        Long loanId = loanService.createLoanWithCustomerbyAdmin(loanRequest).getId();
+        String key = "admin|pay:" + loanId + "|payment-abandoned";
+        // Claimed by a request whose instance stopped before storing the response.
+        jdbcTemplate.update("insert into idempotency_keys (idempotency_key, request_hash, created_at) values (?, ?, ?)",
+                key, "unfinished", Timestamp.from(Instant.now().minusSeconds(10)));
+
+        mockMvc.perform(pay(loanId, "payment-abandoned"))
+                .andExpect(status().isConflict());
+
+        jdbcTemplate.update("update idempotency_keys set created_at = ? where idempotency_key = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofMinutes(2))), key);
+
+        mockMvc.perform(pay(loanId, "payment-abandoned"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(5, loanInstallmentRepository.countByLoanIdAndIsPaidFalse(loanId));
+        jdbcTemplate.update("delete from idempotency_keys where idempotency_key = ?", key);
+    }
+
+    private RequestBuilder pay(Long loanId, String idempotencyKey) {
+        return post("/api/loans/{loanId}/pay", loanId)
+                .with(httpBasic("admin", "adminpass"))
+                .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\": 110.00}");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.LoanAPIBackend.lanes;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.service.LoanService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customer-lanes-test",
+        "app.concurrency.lanes.enabled=true",
+        "app.concurrency.lanes.count=2"
+})
+@AutoConfigureMockMvc
+class CustomerLanesEndpointTest {
+
+    private static final int REQUESTS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerLanes customerLanes;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentPaymentsAndLoans_ForOneCustomer_AreAppliedOneAfterAnother() throws Exception {
+        assertInstanceOf(StripedCustomerLanes.class, customerLanes);
+        // Six installments of 110.00, 100.00 of it principal; the first two are inside the payment window.
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(2L);
+        request.setAmount(new BigDecimal("600.00"));
+        request.setInterestRate(new BigDecimal("0.10"));
+        request.setNumberOfInstallments(6);
+        Long loanId = loanService.createLoanWithCustomerbyAdmin(request).getId();
+
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> payments = new ArrayList<>();
+        List<Future<Integer>> creations = new ArrayList<>();
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                payments.add(clients.submit(() -> mockMvc.perform(post("/api/loans/{loanId}/pay", loanId)
+                                .with(httpBasic("admin", "adminpass"))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"amount\": 110.00}"))
+                        .andReturn().getResponse().getStatus()));
+                creations.add(clients.submit(() -> mockMvc.perform(post("/api/loans/createLoanByAdmin")
+                                .with(httpBasic("admin", "adminpass"))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"customerId\": 2, \"amount\": 100.00, \"interestRate\": 0.10, "
+                                        + "\"numberOfInstallments\": 6}"))
+                        .andReturn().getResponse().getStatus()));
+            }
+            List<Integer> paymentStatuses = new ArrayList<>();
+            for (Future<Integer> payment : payments) {
+                paymentStatuses.add(payment.get(1, TimeUnit.MINUTES));
+            }
+            for (Future<Integer> creation : creations) {
+                assertEquals(201, creation.get(1, TimeUnit.MINUTES));
+            }
+
+            assertEquals(2, paymentStatuses.stream().filter(status -> status == 200).count());
+            assertEquals(REQUESTS - 2, paymentStatuses.stream().filter(status -> status == 400).count());
+        } finally {
+            clients.shutdownNow();
+        }
+
+        BigDecimal usedCredit = jdbcTemplate.queryForObject("SELECT used_credit_limit FROM customers WHERE id = 2",
+                BigDecimal.class);
+        // 600.00 plus ten loans of 100.00, less two installments' principal.
+        assertEquals(0, new BigDecimal("1400.00").compareTo(usedCredit));
+    }
+}
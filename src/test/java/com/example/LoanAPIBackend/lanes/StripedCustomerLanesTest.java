@@ -0,0 +1,198 @@
+package com.example.LoanAPIBackend.lanes;
+
+import com.example.LoanAPIBackend.exception.LaneUnavailableException;
+import com.example.LoanAPIBackend.exception.PaymentException;
+import com.example.LoanAPIBackend.repository.LoanRepository;
+import com.example.LoanAPIBackend.repository.LoanVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.task.TaskDecorator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StripedCustomerLanesTest {
+
+    private final LoanRepository loanRepository = mock(LoanRepository.class);
+    private final ExecutorService callers = Executors.newFixedThreadPool(16);
+    private StripedCustomerLanes lanes;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        if (lanes != null) {
+            lanes.destroy();
+        }
+    }
+
+    @Test
+    void sameCustomer_RunsOneCallAtATime() throws Exception {
+        lanes = lanes(4, 1000);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int call = i;
+            results.add(callers.submit(() -> lanes.execute(7L, () -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                Thread.onSpinWait();
+                inFlight.decrementAndGet();
+                return call;
+            })));
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, maxInFlight.get());
+    }
+
+    @Test
+    void customersOnDifferentLanes_RunInParallel() throws Exception {
+        lanes = lanes(4, 1000);
+        assertNotEquals(lanes.laneOf(1L), lanes.laneOf(2L));
+        CountDownLatch bothRunning = new CountDownLatch(2);
+
+        // Each call waits for the other: only completes if the two customers are not queued behind each other.
+        Future<Boolean> first = callers.submit(() -> lanes.execute(1L, () -> awaitOther(bothRunning)));
+        Future<Boolean> second = callers.submit(() -> lanes.execute(2L, () -> awaitOther(bothRunning)));
+
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        assertTrue(second.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failures_ReachTheCallerUnchanged() {
+        lanes = lanes(2, 10);
+        PaymentException rejected = new PaymentException(PaymentException.Reason.INVALID_AMOUNT, "no");
+
+        PaymentException thrown = assertThrows(PaymentException.class, () -> lanes.execute(3L, () -> {
+            throw rejected;
+        }));
+
+        assertSame(rejected, thrown);
+    }
+
+    @Test
+    void nestedCallForTheSameCustomer_RunsInline() {
+        lanes = lanes(2, 10);
+
+        String thread = lanes.execute(5L, () -> lanes.execute(5L, () -> Thread.currentThread().getName()));
+
+        assertEquals("customer-lane-" + lanes.laneOf(5L), thread);
+    }
+
+    @Test
+    void fullLane_IsRejectedInsteadOfQueuedWithoutBound() throws Exception {
+        lanes = lanes(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<Boolean> running = callers.submit(() -> lanes.execute(1L, () -> {
+            started.countDown();
+            return await(release);
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // The lane is busy and its queue holds one call, so one of these two is queued and the other turned away.
+        Future<Boolean> second = callers.submit(() -> lanes.execute(2L, () -> true));
+        Future<Boolean> third = callers.submit(() -> lanes.execute(3L, () -> true));
+        while (!second.isDone() && !third.isDone()) {
+            Thread.onSpinWait();
+        }
+        Future<Boolean> rejected = second.isDone() ? second : third;
+        Future<Boolean> queued = rejected == second ? third : second;
+        ExecutionException failure = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(LaneUnavailableException.class, failure.getCause());
+
+        release.countDown();
+        assertTrue(running.get(10, TimeUnit.SECONDS));
+        assertTrue(queued.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void loanPayments_AreRoutedToTheOwnerLookedUpOnce() {
+        lanes = lanes(4, 10);
+        when(loanRepository.findVersionById(42L)).thenReturn(Optional.of(new LoanVersion(3L, 0)));
+
+        String first = lanes.executeForLoan(42L, () -> Thread.currentThread().getName());
+        String second = lanes.executeForLoan(42L, () -> Thread.currentThread().getName());
+
+        assertEquals("customer-lane-" + lanes.laneOf(3L), first);
+        assertEquals(first, second);
+        verify(loanRepository, times(1)).findVersionById(42L);
+    }
+
+    @Test
+    void unknownLoan_RunsOnTheCallingThread() {
+        lanes = lanes(4, 10);
+        when(loanRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        assertEquals(Thread.currentThread().getName(),
+                lanes.executeForLoan(99L, () -> Thread.currentThread().getName()));
+    }
+
+    @Test
+    void taskDecorators_CarryTheCallersContextOntoTheLane() {
+        ThreadLocal<String> requestContext = new ThreadLocal<>();
+        lanes = lanes(2, 10, runnable -> {
+            String captured = requestContext.get();
+            return () -> {
+                requestContext.set(captured);
+                try {
+                    runnable.run();
+                } finally {
+                    requestContext.remove();
+                }
+            };
+        });
+
+        requestContext.set("request-1");
+        try {
+            String seen = lanes.execute(4L, () -> Thread.currentThread().getName() + " " + requestContext.get());
+
+            assertEquals("customer-lane-" + lanes.laneOf(4L) + " request-1", seen);
+        } finally {
+            requestContext.remove();
+        }
+    }
+
+    private StripedCustomerLanes lanes(int laneCount, int queueCapacity, TaskDecorator... taskDecorators) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (int i = 0; i < taskDecorators.length; i++) {
+            beanFactory.registerSingleton("taskDecorator" + i, taskDecorators[i]);
+        }
+        return new StripedCustomerLanes(loanRepository, beanFactory.getBeanProvider(TaskDecorator.class), laneCount,
+                queueCapacity, 100, Duration.ofMinutes(1));
+    }
+
+    private static boolean awaitOther(CountDownLatch bothRunning) {
+        bothRunning.countDown();
+        return await(bothRunning);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.LoanAPIBackend.load;
+
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.security.service.CredentialCachingAuthenticationManager;
+import com.example.LoanAPIBackend.security.service.VerifiedCredentialCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Repeats one user's HTTP Basic authentication from {@value #THREADS} threads for {@value #MEASURE_SECONDS} s
+ * (after a {@value #WARM_UP_SECONDS} s warm-up), once checking the password with BCrypt on every request and
+ * once through {@link CredentialCachingAuthenticationManager}, and logs authentications per second for both.
+ * The user lookup is in memory, so the figures isolate the password check. Same setup as
+ * {@code AuthenticationBenchmark} under src/jmh, for builds where JMH cannot be resolved.
+ * <p>
+ * Run with {@code mvn -Pload-test test}; excluded from the default build.
+ */
+@Tag("load")
+class AuthenticationLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthenticationLoadTest.class);
+
+    private static final String USERNAME = "johndoe";
+    private static final String PASSWORD = "customerpass";
+    private static final int THREADS = 4;
+    private static final long WARM_UP_SECONDS = 2;
+    private static final long MEASURE_SECONDS = 5;
+
+    @Test
+    void credentialCache_ReportsAuthenticationsPerSecondAgainstBcrypt() throws Exception {
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        AuthenticatedUser user = new AuthenticatedUser(2L, USERNAME, passwordEncoder.encode(PASSWORD),
+                Role.ROLE_CUSTOMER, 1L);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(username -> user);
+        provider.setPasswordEncoder(passwordEncoder);
+        AuthenticationManager bcryptPerRequest = new ProviderManager(provider);
+        AuthenticationManager credentialCache = new CredentialCachingAuthenticationManager(bcryptPerRequest,
+                new VerifiedCredentialCache(10_000, Duration.ofMinutes(1)));
+
+        double bcrypt = throughput(bcryptPerRequest);
+        double cached = throughput(credentialCache);
+
+        logger.info("BCrypt per request: {} authentications/s", String.format("%,.0f", bcrypt));
+        logger.info("Credential cache:   {} authentications/s", String.format("%,.0f", cached));
+        assertTrue(cached > bcrypt, "a cache hit must be cheaper than a BCrypt check");
+    }
+
+    private static double throughput(AuthenticationManager authenticationManager) throws Exception {
+        run(authenticationManager, WARM_UP_SECONDS);
+        return (double) run(authenticationManager, MEASURE_SECONDS) / MEASURE_SECONDS;
+    }
+
+    private static long run(AuthenticationManager authenticationManager, long seconds) throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        try {
+            long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+            List<Future<Long>> counts = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                counts.add(threads.submit(() -> {
+                    long authentications = 0;
+                    while (System.nanoTime() < end) {
+                        assertTrue(authenticationManager.authenticate(
+                                UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, PASSWORD))
+                                .isAuthenticated());
+                        authentications++;
+                    }
+                    return authentications;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> count : counts) {
+                total += count.get();
+            }
+            return total;
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+}
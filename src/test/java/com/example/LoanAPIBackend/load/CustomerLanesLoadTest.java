@@ -0,0 +1,221 @@
+package com.example.LoanAPIBackend.load;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.LoanAPIBackend.LoanApiBackendApplication;
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.exception.PaymentException;
+import com.example.LoanAPIBackend.lanes.CustomerLanes;
+import com.example.LoanAPIBackend.lanes.StripedCustomerLanes;
+import com.example.LoanAPIBackend.retry.ConflictRetryAspect;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.service.LoanService;
+import com.example.LoanAPIBackend.service.PaymentService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the same shuffled mix of loan creations and payments for a few hot customers from
+ * {@value #CLIENT_THREADS} client threads, once with every call on its client thread and once through
+ * {@link StripedCustomerLanes}, routed the way the controllers route them. Logs operations per second, p99
+ * latency and the number of lock-race retries for both. Every statement sleeps
+ * {@value #SIMULATED_ROUND_TRIP_MILLIS} ms to stand in for the round trip to a real database, which is what
+ * the customer's row lock is held across.
+ * <p>
+ * Run with {@code mvn -Pload-test test}; excluded from the default build.
+ */
+@Tag("load")
+class CustomerLanesLoadTest {
+
+    private static final org.slf4j.Logger logger = LoggerFactory.getLogger(CustomerLanesLoadTest.class);
+
+    private static final List<Long> HOT_CUSTOMERS = List.of(1L, 2L, 3L, 4L);
+    private static final int SEED_LOANS_PER_CUSTOMER = 25;
+    private static final int CREATIONS_PER_CUSTOMER = 150;
+    private static final int PAYMENTS_PER_CUSTOMER = 100;
+    private static final int CLIENT_THREADS = 32;
+    private static final int LANES = 8;
+    private static final long SIMULATED_ROUND_TRIP_MILLIS = 1;
+
+    private record LoadResult(double operationsPerSecond, long p99Millis, int retries, int failures) {
+    }
+
+    /**
+     * Registered as the Hibernate statement inspector; sleeps before every statement Hibernate prepares.
+     */
+    public static class SimulatedRoundTrip implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            try {
+                Thread.sleep(SIMULATED_ROUND_TRIP_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return sql;
+        }
+    }
+
+    @Test
+    void customerLanes_RemoveLockRacesForHotCustomers() {
+        LoadResult direct = run(false);
+        LoadResult lanes = run(true);
+
+        log("direct", direct);
+        log("lanes", lanes);
+
+        assertEquals(0, lanes.retries(), "one customer's calls never race each other on a lane");
+        assertEquals(0, lanes.failures());
+    }
+
+    private static void log(String mode, LoadResult result) {
+        logger.info("{}: {} ops/s, p99 {} ms, {} lock-race retries, {} failed", mode,
+                String.format("%,.0f", result.operationsPerSecond()), result.p99Millis(), result.retries(),
+                result.failures());
+    }
+
+    private LoadResult run(boolean lanesEnabled) {
+        Logger retryLogger = (Logger) LoggerFactory.getLogger(ConflictRetryAspect.class);
+        ListAppender<ILoggingEvent> retries = new ListAppender<>();
+        Level previousLevel = retryLogger.getLevel();
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LoanApiBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:lanes" + lanesEnabled,
+                        "--spring.datasource.hikari.maximum-pool-size=" + (CLIENT_THREADS + 8),
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                                + SimulatedRoundTrip.class.getName(),
+                        "--app.concurrency.lanes.enabled=" + lanesEnabled,
+                        "--app.concurrency.lanes.count=" + LANES,
+                        "--app.penalty-accrual.cron=-",
+                        "--app.exposure.reconciliation.cron=-")) {
+            CustomerLanes customerLanes = context.getBean(CustomerLanes.class);
+            LoanService loanService = context.getBean(LoanService.class);
+            PaymentService paymentService = context.getBean(PaymentService.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            assertEquals(lanesEnabled, customerLanes instanceof StripedCustomerLanes);
+            Authentication admin = adminAuthentication();
+
+            // 12.00 over 6 installments: 2.20 per installment, 2.00 of it principal. Two fall inside the payment window.
+            List<Runnable> operations = new ArrayList<>();
+            AtomicInteger paymentsAccepted = new AtomicInteger();
+            for (Long customerId : HOT_CUSTOMERS) {
+                List<Long> seedLoanIds = new ArrayList<>();
+                for (int i = 0; i < SEED_LOANS_PER_CUSTOMER; i++) {
+                    seedLoanIds.add(loanService.createLoanWithCustomerbyAdmin(loanRequest(customerId, "12.00")).getId());
+                }
+                for (int i = 0; i < CREATIONS_PER_CUSTOMER; i++) {
+                    operations.add(() -> customerLanes.execute(customerId,
+                            () -> loanService.createLoanWithCustomerbyAdmin(loanRequest(customerId, "10.00"))));
+                }
+                for (int i = 0; i < PAYMENTS_PER_CUSTOMER; i++) {
+                    Long loanId = seedLoanIds.get(i % SEED_LOANS_PER_CUSTOMER);
+                    operations.add(() -> {
+                        try {
+                            customerLanes.executeForLoan(loanId,
+                                    () -> paymentService.payLoanInstallments(loanId, new BigDecimal("2.20"), admin));
+                            paymentsAccepted.incrementAndGet();
+                        } catch (PaymentException e) {
+                            // The loan's two payable installments were already paid by earlier calls.
+                        }
+                    });
+                }
+            }
+            Collections.shuffle(operations, new Random(25));
+
+            retryLogger.setLevel(Level.DEBUG);
+            retryLogger.addAppender(retries);
+            retries.start();
+
+            long[] latencies = new long[operations.size()];
+            ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+            CountDownLatch start = new CountDownLatch(1);
+            for (int i = 0; i < operations.size(); i++) {
+                int index = i;
+                clients.execute(() -> {
+                    try {
+                        start.await();
+                        long started = System.nanoTime();
+                        operations.get(index).run();
+                        latencies[index] = System.nanoTime() - started;
+                    } catch (Throwable t) {
+                        failures.add(t);
+                    }
+                });
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            clients.shutdown();
+            assertTrue(clients.awaitTermination(5, TimeUnit.MINUTES), "Load run did not finish in time");
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            // Whatever the interleaving, each customer's used credit is what was lent less the principal repaid.
+            for (Long customerId : HOT_CUSTOMERS) {
+                BigDecimal outstanding = jdbcTemplate.queryForObject(
+                        "SELECT SUM(loan_amount) FROM loan WHERE customer_id = ?", BigDecimal.class, customerId)
+                        .subtract(jdbcTemplate.queryForObject("SELECT COALESCE(SUM(principal_amount), 0) "
+                                + "FROM loan_installment i JOIN loan l ON l.id = i.loan_id "
+                                + "WHERE l.customer_id = ? AND i.is_paid = TRUE", BigDecimal.class, customerId));
+                BigDecimal used = jdbcTemplate.queryForObject(
+                        "SELECT used_credit_limit FROM customers WHERE id = ?", BigDecimal.class, customerId);
+                assertEquals(0, outstanding.compareTo(used), "customer " + customerId);
+            }
+            if (failures.isEmpty()) {
+                assertEquals(2 * SEED_LOANS_PER_CUSTOMER * HOT_CUSTOMERS.size(), paymentsAccepted.get());
+            }
+
+            Arrays.sort(latencies);
+            long p99 = latencies[(int) Math.ceil(latencies.length * 0.99) - 1];
+            return new LoadResult(operations.size() / seconds, Duration.ofNanos(p99).toMillis(),
+                    retries.list.size(), failures.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            retryLogger.detachAppender(retries);
+            retryLogger.setLevel(previousLevel);
+        }
+    }
+
+    private static CreateLoanRequest loanRequest(Long customerId, String amount) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(customerId);
+        request.setAmount(new BigDecimal(amount));
+        request.setInterestRate(new BigDecimal("0.10"));
+        request.setNumberOfInstallments(6);
+        return request;
+    }
+
+    private static Authentication adminAuthentication() {
+        AuthenticatedUser admin = new AuthenticatedUser(1L, "admin", null, Role.ROLE_ADMIN, null);
+        return UsernamePasswordAuthenticationToken.authenticated(admin, null, admin.getAuthorities());
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.LoanAPIBackend.load;
+
+import com.example.LoanAPIBackend.LoanApiBackendApplication;
+import jakarta.servlet.Filter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Serves the same burst of authenticated {@code GET /api/loans/listLoans} requests with platform and with virtual
+ * request threads, and logs p99 latency and the peak number of requests in flight on the server for both.
+ * Each request also sleeps {@value #SIMULATED_DB_ROUND_TRIP_MILLIS} ms in a filter to stand in for the network
+ * round trips a real database adds on top of in-memory H2.
+ * <p>
+ * Virtual request threads need Java 21. This test has never run: the project builds on Java 17 and no Java 21
+ * runtime has been available, so neither the comparison nor the pinning assertion is verified yet. Run with
+ * {@code mvn -Pload-test test} on Java 21; excluded from the default build.
+ */
+@Tag("load")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class ExecutionModeLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionModeLoadTest.class);
+
+    private static final int TOMCAT_MAX_THREADS = 50;
+    private static final int CONCURRENT_CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 5;
+    private static final long SIMULATED_DB_ROUND_TRIP_MILLIS = 20;
+    private static final String AUTHORIZATION = "Basic "
+            + Base64.getEncoder().encodeToString("admin:adminpass".getBytes(StandardCharsets.UTF_8));
+
+    private record LoadResult(long p99Millis, int maxInFlight) {
+    }
+
+    @Test
+    void virtualThreads_RaiseConcurrencyCeilingWithoutPinningOnJdbcPath() throws Exception {
+        LoadResult platform = run(false);
+
+        LoadResult virtual;
+        Path jfr = Files.createTempFile("virtual-threads", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            virtual = run(true);
+            recording.stop();
+            recording.dump(jfr);
+        }
+
+        logger.info("platform threads: p99 {} ms, max in flight {}", platform.p99Millis(), platform.maxInFlight());
+        logger.info("virtual threads:  p99 {} ms, max in flight {}", virtual.p99Millis(), virtual.maxInFlight());
+
+        assertTrue(platform.maxInFlight() <= TOMCAT_MAX_THREADS, "platform threads are capped by the Tomcat pool");
+        assertTrue(virtual.maxInFlight() > TOMCAT_MAX_THREADS, "virtual threads are not capped by the Tomcat pool");
+        assertTrue(virtual.p99Millis() < platform.p99Millis(), "requests no longer queue for a free thread");
+        assertEquals(List.of(), pinnedOnJdbcPath(jfr));
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Filter simulatedDatabaseLatency = (request, response, chain) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(SIMULATED_DB_ROUND_TRIP_MILLIS);
+                chain.doFilter(request, response);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LoanApiBackendApplication.class)
+                .initializers(ctx -> ((GenericApplicationContext) ctx).registerBean("simulatedDatabaseLatency",
+                        FilterRegistrationBean.class, () -> new FilterRegistrationBean<>(simulatedDatabaseLatency)))
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:load" + virtualThreads,
+                        "--spring.datasource.hikari.maximum-pool-size=" + CONCURRENT_CLIENTS,
+                        "--spring.jpa.show-sql=false",
+                        "--app.security.credential-cache.enabled=true")) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/loans/listLoans"))
+                    .header("Authorization", AUTHORIZATION)
+                    .build();
+
+            // Verifies the password once, so the burst measures request execution rather than BCrypt
+            assertEquals(200, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+            maxInFlight.set(0);
+
+            ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_CLIENTS);
+            try {
+                List<Future<long[]>> futures = new ArrayList<>();
+                for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+                    futures.add(clients.submit(() -> {
+                        long[] latencies = new long[REQUESTS_PER_CLIENT];
+                        for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                            long start = System.nanoTime();
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            latencies[r] = System.nanoTime() - start;
+                            assertEquals(200, status);
+                        }
+                        return latencies;
+                    }));
+                }
+                long[] all = new long[CONCURRENT_CLIENTS * REQUESTS_PER_CLIENT];
+                for (int i = 0; i < futures.size(); i++) {
+                    System.arraycopy(futures.get(i).get(), 0, all, i * REQUESTS_PER_CLIENT, REQUESTS_PER_CLIENT);
+                }
+                Arrays.sort(all);
+                long p99 = all[(int) Math.ceil(all.length * 0.99) - 1];
+                return new LoadResult(Duration.ofNanos(p99).toMillis(), maxInFlight.get());
+            } finally {
+                clients.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Pinning events attributed, by their top-most non-JDK frame, to the connection pool, the JDBC driver or this
+     * application.
+     */
+    private static List<String> pinnedOnJdbcPath(Path jfr) throws Exception {
+        List<String> pinned = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(jfr)) {
+            if (event.getStackTrace() == null) {
+                continue;
+            }
+            event.getStackTrace().getFrames().stream()
+                    .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                    .filter(method -> !method.startsWith("java.") && !method.startsWith("jdk.")
+                            && !method.startsWith("sun."))
+                    .findFirst()
+                    .filter(method -> method.startsWith("com.zaxxer.hikari.") || method.startsWith("org.h2.")
+                            || method.startsWith("com.example.LoanAPIBackend."))
+                    .ifPresent(pinned::add);
+        }
+        return pinned;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.LoanAPIBackend.load;
+
+import org.h2.tools.DeleteDbFiles;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exports {@value #LOANS} synthetic loans through the real server in a JVM capped at a small heap (see the
+ * {@code small-heap} execution of the {@code load-test} profile), reading the response without keeping it.
+ * The loans live in a file-backed H2 database so the data set itself is not on the heap either.
+ * Run with {@code mvn -Pload-test test}; excluded from the default build.
+ */
+@Tag("load")
+@Tag("small-heap")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LoanExportLoadTest {
+
+    private static final int LOANS = 1_000_000;
+    private static final int INSERT_BATCH = 100_000;
+    private static final long MAX_HEAP_BYTES = 160L * 1024 * 1024;
+    private static final String AUTHORIZATION = "Basic "
+            + Base64.getEncoder().encodeToString("admin:adminpass".getBytes(StandardCharsets.UTF_8));
+
+    private static final String DATABASE_DIRECTORY = "target/load-test";
+    private static final String DATABASE_NAME = "export";
+
+    // Fresh database for every run, left under target/ for mvn clean.
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) {
+        DeleteDbFiles.execute(DATABASE_DIRECTORY, DATABASE_NAME, true);
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:file:./" + DATABASE_DIRECTORY + "/" + DATABASE_NAME + ";CACHE_SIZE=8192");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long totalLoans;
+
+    @BeforeAll
+    void insertSyntheticLoans() {
+        for (int from = 1; from <= LOANS; from += INSERT_BATCH) {
+            jdbcTemplate.update("INSERT INTO loan (id, customer_id, loan_amount, interest_rate, number_of_installments, "
+                            + "create_date, is_paid, version) "
+                            + "SELECT 10000000 + X, MOD(X, 7) + 1, 1000.00 + MOD(X, 500), 0.1000, 12, "
+                            + "DATE '2025-01-15', FALSE, 0 FROM SYSTEM_RANGE(?, ?)",
+                    from, from + INSERT_BATCH - 1);
+        }
+        totalLoans = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loan", Long.class);
+        assertTrue(totalLoans >= LOANS);
+    }
+
+    @Test
+    void exportLoans_StreamsMillionRowsAsNdjsonInSmallHeap() throws Exception {
+        assertTrue(Runtime.getRuntime().maxMemory() <= MAX_HEAP_BYTES, "run in the small-heap surefire execution");
+
+        assertEquals(totalLoans, countLines("/api/exports/loans"));
+    }
+
+    @Test
+    void exportLoans_StreamsMillionRowsAsCsvInSmallHeap() throws Exception {
+        assertTrue(Runtime.getRuntime().maxMemory() <= MAX_HEAP_BYTES, "run in the small-heap surefire execution");
+
+        assertEquals(totalLoans + 1, countLines("/api/exports/loans?format=csv"));
+    }
+
+    private long countLines(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", AUTHORIZATION)
+                .build();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+
+        long lines = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream body = response.body()) {
+            for (int read = body.read(buffer); read != -1; read = body.read(buffer)) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+            }
+        }
+        return lines;
+    }
+}
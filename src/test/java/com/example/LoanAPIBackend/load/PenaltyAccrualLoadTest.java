@@ -0,0 +1,102 @@
+package com.example.LoanAPIBackend.load;
+
+import com.example.LoanAPIBackend.accrual.PenaltyAccrualJob;
+import com.example.LoanAPIBackend.accrual.PenaltyAccrualResult;
+import org.h2.tools.DeleteDbFiles;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Times {@link PenaltyAccrualJob} over {@value #DEFAULT_INSTALLMENTS} synthetic installments (override with
+ * {@code -Daccrual.installments=...}) with one partition and with {@value #PARALLEL_PARTITIONS}, and logs
+ * installments accrued per second for both. Two thirds of the installments are unpaid and overdue.
+ * The data lives in a file-backed H2 database under {@code target/load-test}.
+ * Run with {@code mvn -Pload-test test}; excluded from the default build.
+ */
+@Tag("load")
+@SpringBootTest(properties = "app.penalty-accrual.cron=-")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PenaltyAccrualLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PenaltyAccrualLoadTest.class);
+
+    private static final int DEFAULT_INSTALLMENTS = 10_000_000;
+    private static final int INSTALLMENTS_PER_LOAN = 10;
+    private static final int INSERT_BATCH_LOANS = 50_000;
+    private static final int PARALLEL_PARTITIONS = 4;
+    private static final long CHUNK_LOAN_IDS = 1_000;
+    private static final LocalDate AS_OF = LocalDate.of(2026, 1, 1);
+    private static final String DATABASE_DIRECTORY = "target/load-test";
+    private static final String DATABASE_NAME = "accrual";
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) {
+        DeleteDbFiles.execute(DATABASE_DIRECTORY, DATABASE_NAME, true);
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:file:./" + DATABASE_DIRECTORY + "/" + DATABASE_NAME);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long expectedAccruals;
+
+    // Installment n of a loan is due n months before AS_OF for n < 7 and after it otherwise; every third is paid.
+    @BeforeAll
+    void insertSyntheticInstallments() {
+        int loans = Integer.getInteger("accrual.installments", DEFAULT_INSTALLMENTS) / INSTALLMENTS_PER_LOAN;
+        for (int from = 1; from <= loans; from += INSERT_BATCH_LOANS) {
+            int to = Math.min(from + INSERT_BATCH_LOANS - 1, loans);
+            jdbcTemplate.update("INSERT INTO loan (id, customer_id, loan_amount, interest_rate, number_of_installments, "
+                    + "create_date, is_paid, version) SELECT X, MOD(X, 7) + 1, 1000.00, 0.1000, 10, "
+                    + "DATE '2025-06-01', FALSE, 0 FROM SYSTEM_RANGE(?, ?)", from, to);
+            jdbcTemplate.update("INSERT INTO loan_installment (id, loan_id, installment_amount, due_date, is_paid) "
+                    + "SELECT L.X * 10 + N.X, L.X, 110.00, DATEADD(MONTH, N.X - 6, DATE '2026-01-01'), MOD(N.X, 3) = 0 "
+                    + "FROM SYSTEM_RANGE(?, ?) L CROSS JOIN SYSTEM_RANGE(0, 9) N", from, to);
+        }
+        expectedAccruals = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM loan_installment WHERE is_paid = FALSE AND due_date < ?", Long.class, AS_OF);
+        assertTrue(expectedAccruals > 0);
+    }
+
+    @Test
+    void accrualRun_ReportsThroughputForOneAndSeveralPartitions() {
+        double single = run(1, AS_OF);
+        double parallel = run(PARALLEL_PARTITIONS, AS_OF.plusDays(1));
+
+        logger.info("{} partition(s): {} installments/s", 1, String.format("%,.0f", single));
+        logger.info("{} partition(s): {} installments/s", PARALLEL_PARTITIONS, String.format("%,.0f", parallel));
+        assertEquals(expectedAccruals,
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM penalty_accrual", Long.class));
+    }
+
+    // Each run starts from an empty accrual table, so both measure the same inserts and no deletes.
+    private double run(int partitions, LocalDate asOf) {
+        jdbcTemplate.update("TRUNCATE TABLE penalty_accrual");
+        PenaltyAccrualJob job = new PenaltyAccrualJob(jdbcTemplate, transactionManager, partitions, CHUNK_LOAN_IDS);
+        long started = System.nanoTime();
+        PenaltyAccrualResult result = job.run(asOf);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        assertEquals(partitions, result.partitionsRun());
+        assertEquals(expectedAccruals, result.installmentsAccrued());
+        return result.installmentsAccrued() / seconds;
+    }
+}
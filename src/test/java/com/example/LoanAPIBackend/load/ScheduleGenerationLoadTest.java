@@ -0,0 +1,100 @@
+package com.example.LoanAPIBackend.load;
+
+import com.example.LoanAPIBackend.enums.ScheduleType;
+import com.example.LoanAPIBackend.schedule.AmortizationSchedule;
+import com.example.LoanAPIBackend.schedule.ScheduleEngines;
+import com.example.LoanAPIBackend.schedule.TemplatedScheduleEngine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generates {@value #INSTALLMENTS}-installment schedules on every engine for {@value #MEASURE_MILLIS} ms each
+ * (after as long a warm-up) and logs schedules per second from a cached template and from a template built on
+ * every call. For scale, the flat pricing and due-date loop that loan creation ran before the engines is timed
+ * the same way. A wall-clock harness rather than JMH, which the offline build cannot resolve: treat the figures
+ * as rough.
+ * <p>
+ * Run with {@code mvn -Pload-test test}; excluded from the default build.
+ */
+@Tag("load")
+class ScheduleGenerationLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleGenerationLoadTest.class);
+
+    private static final int INSTALLMENTS = 24;
+    private static final long PRINCIPAL_CENTS = 1_234_567;
+    private static final long RATE_UNITS = 2_350;
+    private static final YearMonth FIRST_DUE_MONTH = YearMonth.of(2026, 1);
+    private static final long MEASURE_MILLIS = 1_000;
+
+    private static volatile Object sink;
+
+    @Test
+    void scheduleGeneration_ReportsCachedAndColdTemplateThroughput() {
+        for (ScheduleType type : ScheduleType.values()) {
+            TemplatedScheduleEngine engine = (TemplatedScheduleEngine) ScheduleEngines.of(type);
+            AmortizationSchedule cachedSchedule = engine.generate(PRINCIPAL_CENTS, RATE_UNITS, INSTALLMENTS,
+                    FIRST_DUE_MONTH);
+            assertEquals(cachedSchedule, engine.generate(PRINCIPAL_CENTS,
+                    engine.template(INSTALLMENTS, RATE_UNITS, FIRST_DUE_MONTH)));
+
+            double cached = throughput(() -> engine.generate(PRINCIPAL_CENTS, RATE_UNITS, INSTALLMENTS,
+                    FIRST_DUE_MONTH));
+            double cold = throughput(() -> engine.generate(PRINCIPAL_CENTS,
+                    engine.template(INSTALLMENTS, RATE_UNITS, FIRST_DUE_MONTH)));
+
+            logger.info("{} x{}: {} schedules/s from a cached template, {} building it every call", type,
+                    INSTALLMENTS, String.format("%,.0f", cached), String.format("%,.0f", cold));
+            assertTrue(cached > 0 && cold > 0);
+        }
+
+        double legacy = throughput(ScheduleGenerationLoadTest::legacyFlatSchedule);
+        logger.info("pre-engine flat loop x{}: {} schedules/s", INSTALLMENTS, String.format("%,.0f", legacy));
+    }
+
+    // BigDecimal pricing of one installment plus the list of due dates, as loan creation did before the engines.
+    private static Object legacyFlatSchedule() {
+        BigDecimal installmentAmount = BigDecimal.valueOf(PRINCIPAL_CENTS, 2)
+                .multiply(BigDecimal.ONE.add(BigDecimal.valueOf(RATE_UNITS, 4)))
+                .setScale(2, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(INSTALLMENTS), 2, RoundingMode.HALF_UP);
+        List<LocalDate> dueDates = new ArrayList<>(INSTALLMENTS);
+        LocalDate firstDueDate = FIRST_DUE_MONTH.atDay(1);
+        for (int i = 0; i < INSTALLMENTS; i++) {
+            dueDates.add(firstDueDate.plusMonths(i));
+        }
+        sink = installmentAmount;
+        return dueDates;
+    }
+
+    private static double throughput(Supplier<Object> operation) {
+        run(operation, MEASURE_MILLIS);
+        long started = System.nanoTime();
+        long operations = run(operation, MEASURE_MILLIS);
+        return operations / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private static long run(Supplier<Object> operation, long millis) {
+        long operations = 0;
+        long end = System.nanoTime() + millis * 1_000_000;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < 100; i++) {
+                sink = operation.get();
+            }
+            operations += 100;
+        }
+        return operations;
+    }
+}
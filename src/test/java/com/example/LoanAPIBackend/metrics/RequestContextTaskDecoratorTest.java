@@ -0,0 +1,74 @@
+package com.example.LoanAPIBackend.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestContextTaskDecoratorTest {
+
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+    private final RequestContextTaskDecorator decorator = new RequestContextTaskDecorator(observationRegistry);
+    private ExecutorService lane;
+
+    @BeforeEach
+    void setUp() {
+        observationRegistry.observationConfig().observationHandler(context -> true);
+        lane = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestStatementCounter.close();
+        lane.shutdownNow();
+    }
+
+    @Test
+    void statementsOnTheLane_CountTowardsTheRequest() throws Exception {
+        int[] count = RequestStatementCounter.open();
+        RequestStatementCounter.increment();
+
+        lane.submit(decorator.decorate(() -> {
+            RequestStatementCounter.increment();
+            RequestStatementCounter.increment();
+        })).get();
+        assertEquals(3, count[0]);
+
+        // The lane thread is left without a count once the task is done
+        lane.submit(RequestStatementCounter::increment).get();
+        assertEquals(3, count[0]);
+    }
+
+    @Test
+    void requestObservation_IsCurrentOnTheLane() throws Exception {
+        Observation request = Observation.start("http.server.requests", observationRegistry);
+        Runnable task;
+        AtomicReference<Observation> onLane = new AtomicReference<>();
+        try (Observation.Scope scope = request.openScope()) {
+            task = decorator.decorate(() -> onLane.set(observationRegistry.getCurrentObservation()));
+        } finally {
+            request.stop();
+        }
+
+        lane.submit(task).get();
+
+        assertSame(request, onLane.get());
+        assertNull(lane.submit(observationRegistry::getCurrentObservation).get());
+    }
+
+    @Test
+    void withoutRequestContext_TaskPassesThroughUnchanged() {
+        Runnable task = () -> {
+        };
+
+        assertSame(task, decorator.decorate(task));
+        assertSame(task, new RequestContextTaskDecorator(ObservationRegistry.NOOP).decorate(task));
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.LoanAPIBackend.money;
+
+import com.example.LoanAPIBackend.exception.PaymentException;
+import com.example.LoanAPIBackend.model.Customer;
+import com.example.LoanAPIBackend.model.Loan;
+import com.example.LoanAPIBackend.model.LoanInstallment;
+import com.example.LoanAPIBackend.service.PaymentAllocator;
+import com.example.LoanAPIBackend.service.PaymentPlan;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Property tests over seeded random inputs: the long-cents engine must return exactly the BigDecimal,
+ * scale included, that the previous BigDecimal arithmetic (kept below as the reference) returned.
+ */
+class MoneyParityTest {
+
+    private static final int SAMPLES = 20_000;
+    private static final BigDecimal PENALTY_DISCOUNT_RATE_PER_DAY = new BigDecimal("0.001");
+    private static final int[] INSTALLMENT_COUNTS = {6, 9, 12, 24};
+
+    private final Random random = new Random(20250115L);
+    private final PaymentAllocator paymentAllocator = new PaymentAllocator();
+
+    @Test
+    void divide_MatchesBigDecimalHalfUp() {
+        for (int i = 0; i < SAMPLES; i++) {
+            long dividend = random.nextLong() >> random.nextInt(64);
+            long divisor = random.nextBoolean() ? 1 + random.nextInt(10_000) : (random.nextLong() >> random.nextInt(64)) | 1;
+
+            BigDecimal expected = BigDecimal.valueOf(dividend)
+                    .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP);
+            assertEquals(expected.longValueExact(), Money.divide(dividend, divisor), dividend + " / " + divisor);
+        }
+    }
+
+    @Test
+    void loanPricing_MatchesBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            Loan loan = new Loan();
+            loan.setLoanAmount(randomAmount());
+            loan.setInterestRate(randomRate());
+            loan.setNumberOfInstallments(INSTALLMENT_COUNTS[random.nextInt(INSTALLMENT_COUNTS.length)]);
+
+            String sample = loan.getLoanAmount() + " @ " + loan.getInterestRate() + " x " + loan.getNumberOfInstallments();
+            assertEquals(referenceTotal(loan), loan.getTotalLoanAmountWithInterest(), sample);
+            assertEquals(referenceInstallment(loan), loan.getCalculatedInstallmentAmount(), sample);
+        }
+    }
+
+    @Test
+    void loanPricing_WithOverPreciseTerms_FallsBackToBigDecimal() {
+        Loan loan = new Loan();
+        loan.setLoanAmount(new BigDecimal("1000.555"));
+        loan.setInterestRate(new BigDecimal("0.123456"));
+        loan.setNumberOfInstallments(9);
+
+        assertEquals(referenceTotal(loan), loan.getTotalLoanAmountWithInterest());
+        assertEquals(referenceInstallment(loan), loan.getCalculatedInstallmentAmount());
+    }
+
+    @Test
+    void paymentPlan_MatchesBigDecimalAllocation() {
+        for (int i = 0; i < SAMPLES; i++) {
+            Loan loan = randomLoanWithSchedule();
+            List<LoanInstallment> unpaid = loan.getInstallments().subList(random.nextInt(3), loan.getNumberOfInstallments());
+            LocalDate today = unpaid.get(0).getDueDate().plusDays(random.nextInt(200) - 100);
+            BigDecimal payment = unpaid.get(0).getInstallmentAmount()
+                    .multiply(BigDecimal.valueOf(random.nextDouble() * 4))
+                    .setScale(random.nextInt(5), RoundingMode.DOWN)
+                    .max(new BigDecimal("0.01"));
+            String sample = loan.getLoanAmount() + " @ " + loan.getInterestRate() + " x " + loan.getNumberOfInstallments()
+                    + ", " + unpaid.size() + " unpaid, paying " + payment + " on " + today;
+
+            PaymentPlan expected;
+            try {
+                expected = referencePlan(loan, unpaid, payment, today);
+            } catch (PaymentException e) {
+                PaymentException actual = assertThrows(PaymentException.class,
+                        () -> paymentAllocator.plan(loan, unpaid, payment, today), sample);
+                assertEquals(e.getMessage(), actual.getMessage(), sample);
+                continue;
+            }
+            assertPlanEquals(expected, paymentAllocator.plan(loan, unpaid, payment, today), sample);
+        }
+    }
+
+    @Test
+    void overflow_IsRejectedInsteadOfWrapping() {
+        assertThrows(ArithmeticException.class, () -> Money.withRate(Long.MAX_VALUE / 2, 5_000));
+        assertThrows(ArithmeticException.class, () -> Money.cents(new BigDecimal("0.001")));
+        assertEquals(Long.MAX_VALUE, Money.floorCents(new BigDecimal("1E30")));
+    }
+
+    /**
+     * Field by field, since the entities' generated toString recurses between loan and installments.
+     */
+    private static void assertPlanEquals(PaymentPlan expected, PaymentPlan actual, String sample) {
+        assertEquals(expected.installmentsPaidCount(), actual.installmentsPaidCount(), sample);
+        for (int i = 0; i < expected.installmentsPaidCount(); i++) {
+            assertSame(expected.payments().get(i).installment(), actual.payments().get(i).installment(), sample);
+            assertEquals(expected.payments().get(i).paidAmount(), actual.payments().get(i).paidAmount(), sample);
+        }
+        assertEquals(expected.totalBaseAmount(), actual.totalBaseAmount(), sample);
+        assertEquals(expected.totalActualAmount(), actual.totalActualAmount(), sample);
+        assertEquals(expected.remainingPayment(), actual.remainingPayment(), sample);
+        assertEquals(expected.principalReleased(), actual.principalReleased(), sample);
+        assertEquals(expected.remainingUnpaidCount(), actual.remainingUnpaidCount(), sample);
+    }
+
+    private Loan randomLoanWithSchedule() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+
+        Loan loan = new Loan();
+        loan.setId(1L);
+        loan.setCustomer(customer);
+        loan.setLoanAmount(randomAmount());
+        loan.setInterestRate(randomRate());
+        loan.setNumberOfInstallments(INSTALLMENT_COUNTS[random.nextInt(INSTALLMENT_COUNTS.length)]);
+
+        BigDecimal installmentAmount = referenceInstallment(loan);
+        LocalDate firstDueDate = LocalDate.of(2024, 1, 1).plusMonths(random.nextInt(36));
+        for (int i = 0; i < loan.getNumberOfInstallments(); i++) {
+            LoanInstallment installment = new LoanInstallment();
+            installment.setId(i + 1L);
+            installment.setInstallmentAmount(installmentAmount);
+            installment.setDueDate(firstDueDate.plusMonths(i));
+            loan.addInstallment(installment);
+        }
+        return loan;
+    }
+
+    /**
+     * Amounts as the {@code loan_amount} column holds them: up to two decimals, from cents to hundreds of millions.
+     */
+    private BigDecimal randomAmount() {
+        long cents = 1 + (long) (Math.pow(10, random.nextDouble() * 11));
+        return BigDecimal.valueOf(cents, 2).setScale(random.nextInt(3), RoundingMode.DOWN).max(new BigDecimal("0.01"));
+    }
+
+    /**
+     * Rates as the {@code interest_rate} column holds them: up to four decimals within the accepted 0.1 - 0.5 range.
+     */
+    private BigDecimal randomRate() {
+        return BigDecimal.valueOf(1_000 + random.nextInt(4_001), 4).setScale(1 + random.nextInt(4), RoundingMode.DOWN);
+    }
+
+    private static BigDecimal referenceTotal(Loan loan) {
+        return loan.getLoanAmount().multiply(BigDecimal.ONE.add(loan.getInterestRate())).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal referenceInstallment(Loan loan) {
+        return referenceTotal(loan).divide(BigDecimal.valueOf(loan.getNumberOfInstallments()), 2, RoundingMode.HALF_UP);
+    }
+
+    private static PaymentPlan referencePlan(Loan loan, List<LoanInstallment> unpaidInstallments,
+                                             BigDecimal paymentAmountFromUser, LocalDate today) {
+        BigDecimal totalBaseAmountDebitedFromPayment = BigDecimal.ZERO;
+        BigDecimal totalActualAmountRecordedAsPaid = BigDecimal.ZERO;
+        BigDecimal remainingUserPayment = paymentAmountFromUser;
+        YearMonth maxPayableYearMonth = YearMonth.from(today).plusMonths(2);
+
+        LoanInstallment firstEligibleInstallment = null;
+        for (LoanInstallment inst : unpaidInstallments) {
+            if (!YearMonth.from(inst.getDueDate()).isAfter(maxPayableYearMonth)) {
+                firstEligibleInstallment = inst;
+                break;
+            }
+        }
+        if (firstEligibleInstallment == null) {
+            throw new PaymentException("No installments are currently payable within the 3-month window.");
+        }
+        if (paymentAmountFromUser.compareTo(firstEligibleInstallment.getInstallmentAmount()) < 0) {
+            throw new PaymentException("Payment amount is less than the earliest eligible due installment amount ("
+                    + firstEligibleInstallment.getInstallmentAmount().setScale(2, RoundingMode.HALF_UP) +
+                    "). No installments can be paid.");
+        }
+
+        List<PaymentPlan.InstallmentPayment> payments = new ArrayList<>();
+        for (LoanInstallment installment : unpaidInstallments) {
+            if (YearMonth.from(installment.getDueDate()).isAfter(maxPayableYearMonth)) {
+                break;
+            }
+            BigDecimal baseInstallmentValue = installment.getInstallmentAmount();
+            if (remainingUserPayment.compareTo(baseInstallmentValue) < 0) {
+                break;
+            }
+            long daysDifference = ChronoUnit.DAYS.between(today, installment.getDueDate());
+            BigDecimal adjustment = baseInstallmentValue.multiply(PENALTY_DISCOUNT_RATE_PER_DAY)
+                    .multiply(BigDecimal.valueOf(Math.abs(daysDifference)))
+                    .setScale(2, RoundingMode.HALF_UP);
+            BigDecimal actualPaid = daysDifference > 0 ? baseInstallmentValue.subtract(adjustment)
+                    : daysDifference < 0 ? baseInstallmentValue.add(adjustment) : baseInstallmentValue;
+            payments.add(new PaymentPlan.InstallmentPayment(installment, actualPaid));
+
+            remainingUserPayment = remainingUserPayment.subtract(baseInstallmentValue);
+            totalBaseAmountDebitedFromPayment = totalBaseAmountDebitedFromPayment.add(baseInstallmentValue);
+            totalActualAmountRecordedAsPaid = totalActualAmountRecordedAsPaid.add(actualPaid);
+        }
+
+        BigDecimal principalReleased = BigDecimal.ZERO;
+        if (!payments.isEmpty()) {
+            principalReleased = loan.getLoanAmount()
+                    .divide(BigDecimal.valueOf(loan.getNumberOfInstallments()), 2, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(payments.size()));
+        }
+        return new PaymentPlan(payments, totalBaseAmountDebitedFromPayment, totalActualAmountRecordedAsPaid,
+                remainingUserPayment, principalReleased, unpaidInstallments.size() - payments.size());
+    }
+}
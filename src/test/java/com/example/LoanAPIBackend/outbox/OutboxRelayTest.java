@@ -0,0 +1,288 @@
+package com.example.LoanAPIBackend.outbox;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.metrics.OutboxMetrics;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.service.LoanService;
+import com.example.LoanAPIBackend.service.PaymentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The relay thread stays off so each test drives relayBatch() itself; one test starts it explicitly.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-test",
+        "app.outbox.sink=memory",
+        "app.outbox.relay.enabled=false",
+        "app.outbox.relay.batch-size=2",
+        "app.outbox.relay.poll-interval=1m",
+        "app.outbox.memory.capacity=5"})
+class OutboxRelayTest {
+
+    private static final Long CUSTOMER_ID = 3L;
+
+    @TestConfiguration
+    static class FailingSinkConfig {
+
+        // Offered every batch before the other sinks, so it sees each attempt, including ones a later sink fails.
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+
+        @Bean
+        FailingSink failingSink() {
+            return new FailingSink();
+        }
+    }
+
+    static class RecordingSink implements OutboxSink {
+
+        private final List<OutboxEvent> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(List<OutboxEvent> events) {
+            received.addAll(events);
+        }
+    }
+
+    static class FailingSink implements OutboxSink {
+
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+
+        @Override
+        public void publish(List<OutboxEvent> events) {
+            if (failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                throw new OutboxDeliveryException("Downstream unavailable");
+            }
+        }
+    }
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private InMemoryOutboxSink inMemoryOutboxSink;
+
+    @Autowired
+    private RecordingSink recordingSink;
+
+    @Autowired
+    private FailingSink failingSink;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from outbox_event");
+        inMemoryOutboxSink.drain();
+        recordingSink.received.clear();
+        failingSink.failuresLeft.set(0);
+    }
+
+    @Test
+    void createAndPay_WriteEventsThatAreRelayedInOrder() throws Exception {
+        Long loanId = createLoan();
+        paymentService.payLoanInstallments(loanId, new BigDecimal("110.00"), adminAuthentication());
+        assertEquals(2, pendingEvents());
+
+        assertEquals(2, outboxRelay.relayBatch());
+        assertEquals(0, outboxRelay.relayBatch());
+
+        List<OutboxEvent> events = inMemoryOutboxSink.drain();
+        assertEquals(List.of(LoanCreatedEvent.EVENT_TYPE, InstallmentsPaidEvent.EVENT_TYPE),
+                events.stream().map(OutboxEvent::eventType).toList());
+        assertTrue(events.get(0).id() < events.get(1).id());
+        assertTrue(events.stream().allMatch(event -> event.aggregateId() == loanId));
+
+        JsonNode created = objectMapper.readTree(events.get(0).payload());
+        assertEquals(CUSTOMER_ID, created.get("customerId").asLong());
+        assertEquals(0, new BigDecimal("660.00").compareTo(created.get("totalAmountWithInterest").decimalValue()));
+        JsonNode paid = objectMapper.readTree(events.get(1).payload());
+        assertEquals(1, paid.get("installmentIds").size());
+        assertEquals(1, paid.get("loanVersion").asLong());
+        assertFalse(paid.get("loanPaidOff").asBoolean());
+        assertEquals(0, pendingEvents());
+    }
+
+    @Test
+    void rolledBackTransaction_LeavesNoEvent() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outboxWriter.append(syntheticEvent(1));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, pendingEvents());
+    }
+
+    @Test
+    void failingSink_KeepsBatchUntilEverySinkAcknowledgesIt() {
+        createLoan();
+        failingSink.failuresLeft.set(2);
+
+        assertThrows(OutboxDeliveryException.class, outboxRelay::relayBatch);
+        assertThrows(OutboxDeliveryException.class, outboxRelay::relayBatch);
+        assertEquals(1, pendingEvents());
+
+        assertEquals(1, outboxRelay.relayBatch());
+        assertEquals(0, pendingEvents());
+        // At least once: the same event was offered on every attempt and acknowledged by all sinks on the last.
+        assertEquals(3, recordingSink.received.size());
+        assertEquals(1, recordingSink.received.stream().map(OutboxEvent::id).distinct().count());
+        assertEquals(recordingSink.received.get(0).id(), inMemoryOutboxSink.drain().get(0).id());
+    }
+
+    @Test
+    void fullSink_PushesBackUntilDrainedAndLosesNothing() {
+        appendSyntheticEvents(7);
+
+        // Batches of two into a queue of five: the third batch no longer fits and stays in the outbox.
+        assertEquals(2, outboxRelay.relayBatch());
+        assertEquals(2, outboxRelay.relayBatch());
+        assertThrows(OutboxDeliveryException.class, outboxRelay::relayBatch);
+        assertEquals(3, pendingEvents());
+
+        List<OutboxEvent> delivered = new ArrayList<>(inMemoryOutboxSink.drain());
+        while (outboxRelay.relayBatch() > 0) {
+        }
+        delivered.addAll(inMemoryOutboxSink.drain());
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), delivered.stream()
+                .map(OutboxEvent::aggregateId)
+                .toList());
+        assertEquals(0, pendingEvents());
+    }
+
+    @Test
+    void backgroundRelay_DeliversAfterCommitWithoutWaitingForPoll() throws Exception {
+        outboxRelay.start();
+        try {
+            Long loanId = createLoan();
+
+            List<OutboxEvent> delivered = new ArrayList<>();
+            Instant deadline = Instant.now().plusSeconds(10);
+            while (delivered.isEmpty() && Instant.now().isBefore(deadline)) {
+                Thread.sleep(20);
+                delivered.addAll(inMemoryOutboxSink.drain());
+            }
+            assertEquals(1, delivered.size());
+            assertEquals(loanId, delivered.get(0).aggregateId());
+        } finally {
+            outboxRelay.stop();
+        }
+    }
+
+    @Test
+    void enabledRelayWithoutSink_FailsStartup() {
+        ObjectProvider<OutboxSink> noSinks = new DefaultListableBeanFactory().getBeanProvider(OutboxSink.class);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> new OutboxRelay(jdbcTemplate,
+                transactionManager, noSinks, OutboxMetrics.NOOP, true, 2, Duration.ofMinutes(1), Duration.ofMinutes(1)));
+
+        assertTrue(failure.getMessage().contains("app.outbox.sink"));
+    }
+
+    @Test
+    void withoutSink_NoEventsAreWritten() {
+        ObjectProvider<OutboxSink> noSinks = new DefaultListableBeanFactory().getBeanProvider(OutboxSink.class);
+        OutboxWriter writerWithoutSink = new OutboxWriter(jdbcTemplate, objectMapper, new OutboxRelay(jdbcTemplate,
+                transactionManager, noSinks, OutboxMetrics.NOOP, false, 2, Duration.ofMinutes(1), Duration.ofMinutes(1)));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                writerWithoutSink.appendAll(List.of(syntheticEvent(1), syntheticEvent(2))));
+
+        assertEquals(0, pendingEvents());
+    }
+
+    @Test
+    void fileSink_AppendsOneEnvelopePerLine(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("events.ndjson");
+        FileOutboxSink fileSink = new FileOutboxSink(file, objectMapper);
+        OutboxEvent event = new OutboxEvent(41, "Loan", 9, LoanCreatedEvent.EVENT_TYPE,
+                "{\"loanId\":9}", Instant.parse("2026-01-01T00:00:00Z"));
+
+        fileSink.publish(List.of(event));
+        fileSink.publish(List.of(event));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode envelope = objectMapper.readTree(lines.get(0));
+        assertEquals(41, envelope.get("id").asLong());
+        assertEquals(9, envelope.get("payload").get("loanId").asLong());
+    }
+
+    private Long createLoan() {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(CUSTOMER_ID);
+        request.setAmount(new BigDecimal("600.00"));
+        request.setInterestRate(new BigDecimal("0.10"));
+        request.setNumberOfInstallments(6);
+        return loanService.createLoanWithCustomerbyAdmin(request).getId();
+    }
+
+    private void appendSyntheticEvents(int count) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxWriter.appendAll(IntStream.rangeClosed(1, count).mapToObj(this::syntheticEvent).toList()));
+    }
+
+    private LoanCreatedEvent syntheticEvent(long loanId) {
+        return new LoanCreatedEvent(loanId, CUSTOMER_ID, new BigDecimal("100.00"), new BigDecimal("0.1000"), 6,
+                new BigDecimal("110.00"), LocalDate.of(2026, 1, 1));
+    }
+
+    private int pendingEvents() {
+        return jdbcTemplate.queryForObject("select count(*) from outbox_event", Integer.class);
+    }
+
+    private Authentication adminAuthentication() {
+        AuthenticatedUser admin = new AuthenticatedUser(1L, "admin", null, Role.ROLE_ADMIN, null);
+        return UsernamePasswordAuthenticationToken.authenticated(admin, null, admin.getAuthorities());
+    }
+}
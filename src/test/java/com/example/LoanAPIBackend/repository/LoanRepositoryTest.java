@@ -0,0 +1,75 @@
+package com.example.LoanAPIBackend.repository;
+
+import com.example.LoanAPIBackend.model.Customer;
+import com.example.LoanAPIBackend.model.Loan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class LoanRepositoryTest {
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Customer customer1;
+    private Customer customer2;
+
+    @BeforeEach
+    void setUp() {
+        customer1 = entityManager.find(Customer.class, 1L);
+        customer2 = entityManager.find(Customer.class, 2L);
+
+        persistLoan(customer1, LocalDate.of(2025, 1, 10), false);
+        persistLoan(customer2, LocalDate.of(2025, 2, 10), false);
+        persistLoan(customer1, LocalDate.of(2025, 3, 10), true);
+        persistLoan(customer1, LocalDate.of(2025, 4, 10), false);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findCustomerPageAfter_WalksCustomerLoansByCursor() {
+        List<Loan> firstPage = loanRepository.findCustomerPageAfter(customer1.getId(), 0L, null, null, null, Limit.of(2));
+        assertEquals(2, firstPage.size());
+        assertTrue(firstPage.get(0).getId() < firstPage.get(1).getId());
+
+        List<Loan> secondPage = loanRepository.findCustomerPageAfter(customer1.getId(), firstPage.get(1).getId(),
+                null, null, null, Limit.of(2));
+        assertEquals(1, secondPage.size());
+        assertTrue(secondPage.stream().allMatch(loan -> loan.getCustomer().getId().equals(customer1.getId())));
+    }
+
+    @Test
+    void findPageAfter_AppliesPaidAndCreateDateFilters() {
+        List<Loan> unpaid = loanRepository.findCustomerPageAfter(customer1.getId(), 0L, false, null, null, Limit.of(10));
+        assertEquals(2, unpaid.size());
+
+        List<Loan> inRange = loanRepository.findPageAfter(0L, null,
+                LocalDate.of(2025, 2, 1), LocalDate.of(2025, 3, 31), Limit.of(10));
+        assertEquals(2, inRange.size());
+    }
+
+    private void persistLoan(Customer customer, LocalDate createDate, boolean paid) {
+        Loan loan = new Loan();
+        loan.setCustomer(customer);
+        loan.setLoanAmount(new BigDecimal("1200.00"));
+        loan.setInterestRate(new BigDecimal("0.10"));
+        loan.setNumberOfInstallments(6);
+        loan.setCreateDate(createDate);
+        loan.setPaid(paid);
+        entityManager.persist(loan);
+    }
+}
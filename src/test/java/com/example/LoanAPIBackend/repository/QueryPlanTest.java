@@ -0,0 +1,108 @@
+package com.example.LoanAPIBackend.repository;
+
+import com.example.LoanAPIBackend.model.Customer;
+import com.example.LoanAPIBackend.model.Loan;
+import com.example.LoanAPIBackend.model.LoanInstallment;
+import com.example.LoanAPIBackend.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the SQL Hibernate actually generates for the hot repository methods through H2 {@code EXPLAIN}
+ * and checks the plan reads the intended index instead of scanning the table.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.LoanAPIBackend.support.SqlStatementCounter")
+class QueryPlanTest {
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanInstallmentRepository loanInstallmentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long loanId;
+
+    @BeforeEach
+    void setUp() {
+        Loan loan = new Loan();
+        loan.setCustomer(entityManager.find(Customer.class, 1L));
+        loan.setLoanAmount(new BigDecimal("1200.00"));
+        loan.setInterestRate(new BigDecimal("0.10"));
+        loan.setNumberOfInstallments(6);
+        loan.setCreateDate(LocalDate.now());
+        for (int i = 0; i < 6; i++) {
+            LoanInstallment installment = new LoanInstallment();
+            installment.setInstallmentAmount(new BigDecimal("220.00"));
+            installment.setDueDate(LocalDate.now().plusMonths(i + 1));
+            loan.addInstallment(installment);
+        }
+        loanId = entityManager.persistAndFlush(loan).getId();
+        entityManager.clear();
+        SqlStatementCounter.reset();
+    }
+
+    @Test
+    void unpaidInstallments_SeekOnLoanAndPaidFlagInCompositeIndex() {
+        loanInstallmentRepository.findByLoanIdAndIsPaidFalseOrderByDueDateAsc(loanId);
+
+        String plan = explain(lastSelect(), loanId);
+        assertTrue(plan.contains("IDX_LOAN_INSTALLMENT_LOAN_PAID_DUE: LOAN_ID = CAST(" + loanId + " AS BIGINT)\n        AND IS_PAID = FALSE"), plan);
+        assertFalse(plan.contains("JOIN"), plan);
+    }
+
+    @Test
+    void unpaidInstallmentCount_UsesCompositeIndex() {
+        loanInstallmentRepository.countByLoanIdAndIsPaidFalse(loanId);
+
+        String plan = explain(lastSelect(), loanId);
+        assertTrue(plan.contains("IDX_LOAN_INSTALLMENT_LOAN_PAID_DUE"), plan);
+    }
+
+    @Test
+    void customerLoanPage_SeeksOnCustomerIndex() {
+        loanRepository.findCustomerPageAfter(1L, 0L, null, null, null, Limit.of(21));
+
+        // customerId, afterId, isPaid twice, createdFrom twice, createdTo twice, row limit
+        String plan = explain(lastSelect(), 1L, 0L, null, null, null, null, null, null, 21);
+        assertTrue(plan.contains("IDX_LOAN_CUSTOMER_ID: CUSTOMER_ID = CAST(1 AS BIGINT)\n        AND ID > "), plan);
+    }
+
+    private String lastSelect() {
+        List<String> selects = SqlStatementCounter.statements("select");
+        assertFalse(selects.isEmpty(), "No select was issued");
+        return selects.get(selects.size() - 1);
+    }
+
+    // EXPLAIN needs literal values to choose a plan, so the JDBC parameters are inlined in order.
+    private String explain(String sql, Object... parameters) {
+        StringBuilder inlined = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                Object value = parameters[parameter++];
+                inlined.append(value == null ? "null" : value.toString());
+            } else {
+                inlined.append(c);
+            }
+        }
+        assertEquals(parameters.length, parameter, "Parameter count does not match: " + sql);
+        return jdbcTemplate.queryForObject("EXPLAIN " + inlined, String.class);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.LoanAPIBackend.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The db/migration scripts run on every startup; the versions they record in {@code schema_version} keep their
+ * backfills to one run per database.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:schema-version-test")
+class SchemaVersionTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rerunningTheScripts_LeavesAppliedBackfillsAlone() throws IOException {
+        Resource[] scripts = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql");
+        Arrays.sort(scripts, Comparator.comparing(Resource::getFilename));
+        List<Integer> scriptVersions = Arrays.stream(scripts)
+                .map(script -> Integer.valueOf(script.getFilename().substring(1, script.getFilename().indexOf("__"))))
+                .toList();
+        assertEquals(scriptVersions, appliedVersions());
+
+        // Left NULL on purpose: the V009 and V010 backfills would fill both in if they ran again
+        jdbcTemplate.update("INSERT INTO loan (id, customer_id, loan_amount, interest_rate, number_of_installments, "
+                + "create_date) VALUES (900001, 1, 1200.00, 0.10, 6, CURRENT_DATE)");
+        jdbcTemplate.update("INSERT INTO loan_installment (id, loan_id, installment_amount, due_date) "
+                + "VALUES (900001, 900001, 220.00, CURRENT_DATE)");
+
+        new ResourceDatabasePopulator(scripts).execute(dataSource);
+
+        assertEquals(scriptVersions, appliedVersions());
+        assertNull(jdbcTemplate.queryForObject(
+                "SELECT principal_amount FROM loan_installment WHERE id = 900001", Object.class));
+        assertNull(jdbcTemplate.queryForObject(
+                "SELECT total_amount_with_interest FROM loan WHERE id = 900001", Object.class));
+    }
+
+    private List<Integer> appliedVersions() {
+        return jdbcTemplate.queryForList("SELECT version FROM schema_version ORDER BY version", Integer.class);
+    }
+}
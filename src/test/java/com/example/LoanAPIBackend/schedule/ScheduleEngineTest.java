@@ -0,0 +1,123 @@
+package com.example.LoanAPIBackend.schedule;
+
+import com.example.LoanAPIBackend.enums.AllowedInstallmentCounts;
+import com.example.LoanAPIBackend.enums.ScheduleType;
+import com.example.LoanAPIBackend.model.Customer;
+import com.example.LoanAPIBackend.model.Loan;
+import com.example.LoanAPIBackend.money.Money;
+import com.example.LoanAPIBackend.service.LoanFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleEngineTest {
+
+    private static final YearMonth FIRST_DUE_MONTH = YearMonth.of(2026, 11);
+
+    @Test
+    void flat_MatchesLoanPricing() {
+        Loan loan = new Loan();
+        loan.setLoanAmount(new BigDecimal("1000.00"));
+        loan.setInterestRate(new BigDecimal("0.1000"));
+        loan.setNumberOfInstallments(9);
+
+        AmortizationSchedule schedule = generate(ScheduleType.FLAT, 100_000, 1_000, 9);
+
+        assertEquals(9, schedule.installments().size());
+        for (AmortizationSchedule.ScheduledInstallment installment : schedule.installments()) {
+            assertEquals(Money.cents(loan.getCalculatedInstallmentAmount()), installment.amountCents());
+            assertEquals(11_111, installment.principalCents());
+        }
+        assertEquals(9 * 12_222, schedule.totalCents());
+    }
+
+    @Test
+    void annuity_PaysLevelInstallmentsThatRepayThePrincipalExactly() {
+        // 12% a year is 1% a month: 1000.00 * 0.01 / (1 - 1.01^-12) = 88.85.
+        AmortizationSchedule schedule = generate(ScheduleType.ANNUITY, 100_000, 1_200, 12);
+
+        List<AmortizationSchedule.ScheduledInstallment> installments = schedule.installments();
+        assertTrue(installments.subList(0, 11).stream().allMatch(installment -> installment.amountCents() == 8_885));
+        assertEquals(1_000, installments.get(0).amountCents() - installments.get(0).principalCents());
+        assertEquals(100_000, installments.stream().mapToLong(AmortizationSchedule.ScheduledInstallment::principalCents).sum());
+        assertEquals(installments.stream().mapToLong(AmortizationSchedule.ScheduledInstallment::amountCents).sum(),
+                schedule.totalCents());
+        assertEquals(106_619, schedule.totalCents());
+    }
+
+    @Test
+    void decliningBalance_RepaysEqualPrincipalWithShrinkingInterest() {
+        AmortizationSchedule schedule = generate(ScheduleType.DECLINING_BALANCE, 120_000, 1_200, 12);
+
+        for (int i = 0; i < 12; i++) {
+            AmortizationSchedule.ScheduledInstallment installment = schedule.installments().get(i);
+            assertEquals(10_000, installment.principalCents());
+            assertEquals(10_000 + (12 - i) * 100, installment.amountCents());
+        }
+        assertEquals(127_800, schedule.totalCents());
+    }
+
+    @Test
+    void everyEngine_DueOnTheFirstOfConsecutiveMonths() {
+        for (ScheduleType type : ScheduleType.values()) {
+            List<LocalDate> dueDates = generate(type, 50_000, 2_500, 24).installments().stream()
+                    .map(AmortizationSchedule.ScheduledInstallment::dueDate)
+                    .toList();
+
+            assertEquals(24, dueDates.size());
+            for (int i = 0; i < dueDates.size(); i++) {
+                assertEquals(FIRST_DUE_MONTH.plusMonths(i).atDay(1), dueDates.get(i), type.name());
+            }
+        }
+    }
+
+    @Test
+    void balanceEngines_RepayPrincipalExactly_AndCachedTemplatesMatchFreshOnes() {
+        Random random = new Random(20261018L);
+        for (int sample = 0; sample < 2_000; sample++) {
+            long principalCents = 1 + random.nextInt(10_000_000);
+            long rateUnits = 1_000 + random.nextInt(4_001);
+            AllowedInstallmentCounts[] counts = AllowedInstallmentCounts.values();
+            int installments = counts[random.nextInt(counts.length)].getCount();
+
+            for (ScheduleType type : List.of(ScheduleType.ANNUITY, ScheduleType.DECLINING_BALANCE)) {
+                TemplatedScheduleEngine engine = (TemplatedScheduleEngine) ScheduleEngines.of(type);
+                AmortizationSchedule schedule = engine.generate(principalCents, rateUnits, installments,
+                        FIRST_DUE_MONTH);
+
+                String context = type + " " + principalCents + " @ " + rateUnits + " x " + installments;
+                assertEquals(principalCents, schedule.installments().stream()
+                        .mapToLong(AmortizationSchedule.ScheduledInstallment::principalCents).sum(), context);
+                assertTrue(schedule.installments().stream().allMatch(installment ->
+                        installment.principalCents() >= 0 && installment.amountCents() >= installment.principalCents()),
+                        context);
+                assertEquals(schedule, engine.generate(principalCents,
+                        engine.template(installments, rateUnits, FIRST_DUE_MONTH)), context);
+            }
+        }
+    }
+
+    @Test
+    void newLoan_StoresTheTotalOfItsSchedule() {
+        Customer customer = new Customer();
+        customer.setCreditLimit(new BigDecimal("5000.00"));
+        customer.setUsedCreditLimit(BigDecimal.ZERO);
+
+        Loan loan = new LoanFactory().newLoan(customer, new BigDecimal("1200.00"), new BigDecimal("0.12"), 12,
+                ScheduleType.DECLINING_BALANCE);
+
+        assertEquals(new BigDecimal("1278.00"), loan.getTotalLoanAmountWithInterest());
+        assertEquals(new BigDecimal("112.00"), loan.getCalculatedInstallmentAmount());
+    }
+
+    private static AmortizationSchedule generate(ScheduleType type, long principalCents, long rateUnits,
+                                                 int installments) {
+        return ScheduleEngines.of(type).generate(principalCents, rateUnits, installments, FIRST_DUE_MONTH);
+    }
+}
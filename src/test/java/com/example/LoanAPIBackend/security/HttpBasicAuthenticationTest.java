@@ -0,0 +1,71 @@
+package com.example.LoanAPIBackend.security;
+
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.model.User;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.security.service.AuthenticatedUserCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class HttpBasicAuthenticationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void repeatedRequests_ReuseCachedPrincipalWithoutLoadingUserRow() throws Exception {
+        authenticatedUserCache.removeUserFromCache("admin");
+        mockMvc.perform(get("/api/loans/listLoans").with(httpBasic("admin", "adminpass")))
+                .andExpect(status().isOk());
+        assertTrue(authenticatedUserCache.get("admin").isPresent());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/loans/listLoans").with(httpBasic("admin", "adminpass")))
+                .andExpect(status().isOk());
+
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void wrongPassword_IsRejectedEvenWhenPrincipalIsCached() throws Exception {
+        mockMvc.perform(get("/api/loans/listLoans").with(httpBasic("admin", "adminpass")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/loans/listLoans").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void actuatorEndpointsOtherThanHealth_NeedAnAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus")
+                        .with(user(new AuthenticatedUser(2L, "johndoe", "", Role.ROLE_CUSTOMER, 1L))))
+                .andExpect(status().isForbidden());
+        // Past the security chain: neither the default build nor a test context with -Pmetrics serves a scrape
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("admin", "adminpass")))
+                .andExpect(status().isNotFound());
+    }
+}
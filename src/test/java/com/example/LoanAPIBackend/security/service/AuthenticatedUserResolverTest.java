@@ -0,0 +1,94 @@
+package com.example.LoanAPIBackend.security.service;
+
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.exception.ResourceNotFoundException;
+import com.example.LoanAPIBackend.model.Customer;
+import com.example.LoanAPIBackend.model.User;
+import com.example.LoanAPIBackend.repository.UserRepository;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticatedUserResolverTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private AuthenticatedUserCache authenticatedUserCache;
+    private AuthenticatedUserResolver resolver;
+    private User customerUser;
+
+    @BeforeEach
+    void setUp() {
+        authenticatedUserCache = new AuthenticatedUserCache(100, Duration.ofMinutes(5));
+        resolver = new AuthenticatedUserResolver(authenticatedUserCache, userRepository);
+
+        Customer customer = new Customer(1L, "John", "Doe", new BigDecimal("10000"), BigDecimal.ZERO);
+        customerUser = new User(2L, "johndoe", "hash", Role.ROLE_CUSTOMER, customer);
+    }
+
+    @Test
+    void resolve_WithAuthenticatedUserPrincipal_DoesNotQueryRepository() {
+        AuthenticatedUser principal = AuthenticatedUser.from(customerUser);
+
+        AuthenticatedUser resolved = resolver.resolve(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        assertSame(principal, resolved);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void resolve_ByName_LoadsOnceThenServesFromCache() {
+        when(userRepository.findByUsername("johndoe")).thenReturn(Optional.of(customerUser));
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken("johndoe", null);
+
+        AuthenticatedUser first = resolver.resolve(authentication);
+        AuthenticatedUser second = resolver.resolve(authentication);
+
+        assertEquals(2L, first.getUserId());
+        assertEquals(1L, first.getCustomerId());
+        assertEquals(Role.ROLE_CUSTOMER, first.getRole());
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByUsername("johndoe");
+    }
+
+    @Test
+    void resolve_AfterUserRowChanged_ReloadsUser() {
+        when(userRepository.findByUsername("johndoe")).thenReturn(Optional.of(customerUser));
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken("johndoe", null);
+        resolver.resolve(authentication);
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("authenticatedUserCache", authenticatedUserCache);
+        new UserCacheInvalidationListener(beanFactory.getBeanProvider(AuthenticatedUserCache.class),
+                beanFactory.getBeanProvider(VerifiedCredentialCache.class))
+                .onUserChanged(customerUser);
+        resolver.resolve(authentication);
+
+        verify(userRepository, times(2)).findByUsername("johndoe");
+    }
+
+    @Test
+    void resolve_WhenUserNotFound_ThrowsResourceNotFoundException() {
+        when(userRepository.findByUsername("unknown")).thenReturn(Optional.empty());
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> resolver.resolve(new UsernamePasswordAuthenticationToken("unknown", null)));
+
+        assertEquals("Authenticated user not found.", exception.getMessage());
+    }
+}
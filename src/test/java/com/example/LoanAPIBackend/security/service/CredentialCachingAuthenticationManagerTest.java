@@ -0,0 +1,78 @@
+package com.example.LoanAPIBackend.security.service;
+
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CredentialCachingAuthenticationManagerTest {
+
+    @Mock
+    private AuthenticationManager delegate;
+
+    private VerifiedCredentialCache verifiedCredentialCache;
+    private CredentialCachingAuthenticationManager authenticationManager;
+    private AuthenticatedUser user;
+
+    @BeforeEach
+    void setUp() {
+        verifiedCredentialCache = new VerifiedCredentialCache(100, Duration.ofMinutes(1));
+        authenticationManager = new CredentialCachingAuthenticationManager(delegate, verifiedCredentialCache);
+        user = new AuthenticatedUser(2L, "johndoe", "hash", Role.ROLE_CUSTOMER, 1L);
+    }
+
+    @Test
+    void authenticate_WithSameCredentials_CallsDelegateOnce() {
+        when(delegate.authenticate(any())).thenReturn(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+
+        authenticationManager.authenticate(login("customerpass"));
+        Authentication second = authenticationManager.authenticate(login("customerpass"));
+
+        assertTrue(second.isAuthenticated());
+        assertSame(user, second.getPrincipal());
+        verify(delegate, times(1)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_WithDifferentPassword_GoesBackToDelegate() {
+        when(delegate.authenticate(any()))
+                .thenReturn(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+
+        authenticationManager.authenticate(login("customerpass"));
+
+        assertThrows(BadCredentialsException.class, () -> authenticationManager.authenticate(login("guess")));
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_AfterInvalidation_VerifiesAgain() {
+        when(delegate.authenticate(any())).thenReturn(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+
+        authenticationManager.authenticate(login("customerpass"));
+        verifiedCredentialCache.invalidate("johndoe");
+        authenticationManager.authenticate(login("customerpass"));
+
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    private Authentication login(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated("johndoe", password);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.dto.LoanInstallmentResponse;
+import com.example.LoanAPIBackend.dto.LoanResponse;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.enums.ScheduleType;
+import com.example.LoanAPIBackend.repository.CustomerRepository;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:amortized-loan-test")
+class AmortizedLoanTest {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void annuityLoan_IsStoredWithItsScheduleAndPaymentsReleaseScheduledPrincipal() {
+        LoanResponse created = loanService.createLoanWithCustomerbyAdmin(request(6L, ScheduleType.ANNUITY));
+        BigDecimal usedBefore = usedCreditLimit(6L);
+
+        List<LoanInstallmentResponse> installments = loanService.getInstallmentsByLoanId(created.getId(),
+                adminAuthentication());
+        assertEquals(ScheduleType.ANNUITY, created.getScheduleType());
+        assertEquals(12, installments.size());
+        // 12% a year over 12 months on 1000.00: 88.85 a month, the first repaying 78.85 of principal.
+        assertEquals(new BigDecimal("88.85"), installments.get(0).getInstallmentAmount());
+        assertEquals(new BigDecimal("78.85"), installments.get(0).getPrincipalAmount());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(installments.stream()
+                .map(LoanInstallmentResponse::getPrincipalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)));
+        assertEquals(0, installments.stream().map(LoanInstallmentResponse::getInstallmentAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add).compareTo(created.getTotalAmountWithInterest()));
+
+        paymentService.payLoanInstallments(created.getId(), new BigDecimal("88.85"), adminAuthentication());
+
+        assertEquals(0, usedBefore.subtract(new BigDecimal("78.85")).compareTo(usedCreditLimit(6L)));
+    }
+
+    @Test
+    void loanWithoutScheduleType_StaysFlat() {
+        CreateLoanRequest request = request(7L, null);
+
+        LoanResponse created = loanService.createLoanWithCustomerbyAdmin(request);
+
+        assertEquals(ScheduleType.FLAT, created.getScheduleType());
+        assertEquals(0, new BigDecimal("1120.00").compareTo(created.getTotalAmountWithInterest()));
+        assertTrue(created.getInstallments().stream().allMatch(installment ->
+                installment.getInstallmentAmount().compareTo(new BigDecimal("93.33")) == 0 &&
+                installment.getPrincipalAmount().compareTo(new BigDecimal("83.33")) == 0));
+    }
+
+    @Test
+    void overPreciseAmount_ReservesTheAmountTheLoanStores() {
+        // Reached without request validation, which turns such amounts away at the API.
+        CreateLoanRequest request = request(5L, ScheduleType.ANNUITY);
+        request.setAmount(new BigDecimal("100.005"));
+        BigDecimal usedBefore = usedCreditLimit(5L);
+
+        LoanResponse created = loanService.createLoanWithCustomerbyAdmin(request);
+
+        assertEquals(new BigDecimal("100.01"), created.getLoanAmount());
+        assertEquals(0, usedBefore.add(new BigDecimal("100.01")).compareTo(usedCreditLimit(5L)));
+        assertEquals(0, new BigDecimal("100.01").compareTo(created.getInstallments().stream()
+                .map(LoanInstallmentResponse::getPrincipalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)));
+    }
+
+    private static CreateLoanRequest request(Long customerId, ScheduleType scheduleType) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(customerId);
+        request.setAmount(new BigDecimal("1000.00"));
+        request.setInterestRate(new BigDecimal("0.12"));
+        request.setNumberOfInstallments(12);
+        request.setScheduleType(scheduleType);
+        return request;
+    }
+
+    private BigDecimal usedCreditLimit(Long customerId) {
+        return customerRepository.findById(customerId).orElseThrow().getUsedCreditLimit();
+    }
+
+    private Authentication adminAuthentication() {
+        AuthenticatedUser admin = new AuthenticatedUser(1L, "admin", null, Role.ROLE_ADMIN, null);
+        return UsernamePasswordAuthenticationToken.authenticated(admin, null, admin.getAuthorities());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.dto.CreateUserLoanRequest;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.exception.InsufficientCreditException;
+import com.example.LoanAPIBackend.exception.PaymentException;
+import com.example.LoanAPIBackend.model.Customer;
+import com.example.LoanAPIBackend.model.Loan;
+import com.example.LoanAPIBackend.repository.CustomerRepository;
+import com.example.LoanAPIBackend.repository.LoanInstallmentRepository;
+import com.example.LoanAPIBackend.repository.LoanRepository;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:creditledger",
+        "spring.jpa.show-sql=false"
+})
+class CreditLedgerConcurrencyTest {
+
+    // johndoe, user 2, owns customer 1 with a credit limit of 10000.00
+    private static final Long CUSTOMER_ID = 1L;
+    private static final int SEED_LOANS = 100;
+    private static final int CREATIONS = 1000;
+    private static final int PAYMENTS = 1000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanInstallmentRepository loanInstallmentRepository;
+
+    @Test
+    void concurrentLoansAndPayments_KeepUsedCreditEqualToOutstandingPrincipal() throws InterruptedException {
+        Authentication customer = customerAuthentication();
+
+        // 12.00 over 6 installments: 2.20 per installment, 2.00 of it principal. Two fall inside the payment window.
+        List<Long> seedLoanIds = new ArrayList<>();
+        for (int i = 0; i < SEED_LOANS; i++) {
+            seedLoanIds.add(loanService.createLoanbyUser(loanRequest("12.00"), customer).getId());
+        }
+
+        AtomicInteger loansCreated = new AtomicInteger();
+        AtomicInteger loansRejected = new AtomicInteger();
+        AtomicInteger paymentsAccepted = new AtomicInteger();
+        AtomicInteger paymentsRejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        List<Runnable> operations = new ArrayList<>();
+        for (int i = 0; i < CREATIONS; i++) {
+            operations.add(() -> {
+                try {
+                    loanService.createLoanbyUser(loanRequest("10.00"), customer);
+                    loansCreated.incrementAndGet();
+                } catch (InsufficientCreditException e) {
+                    loansRejected.incrementAndGet();
+                }
+            });
+        }
+        for (int i = 0; i < PAYMENTS; i++) {
+            Long loanId = seedLoanIds.get(i % SEED_LOANS);
+            operations.add(() -> {
+                try {
+                    paymentService.payLoanInstallments(loanId, new BigDecimal("2.20"), customer);
+                    paymentsAccepted.incrementAndGet();
+                } catch (PaymentException e) {
+                    paymentsRejected.incrementAndGet();
+                }
+            });
+        }
+        Collections.shuffle(operations);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (Runnable operation : operations) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    operation.run();
+                } catch (Throwable t) {
+                    unexpected.add(t);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "Stress run did not finish in time");
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(CREATIONS, loansCreated.get() + loansRejected.get());
+        // Each seed loan has exactly two payable installments, however the attempts interleave.
+        assertEquals(2 * SEED_LOANS, paymentsAccepted.get());
+        assertEquals(PAYMENTS - 2 * SEED_LOANS, paymentsRejected.get());
+        // 8800.00 was free before the run and payments free up to 400.00 more while it is going on.
+        assertTrue(loansCreated.get() >= 880 && loansCreated.get() <= 920, "Loans created: " + loansCreated.get());
+
+        List<Loan> loans = loanRepository.findAll();
+        assertEquals(SEED_LOANS + loansCreated.get(), loans.size());
+        long paidInstallments = loanInstallmentRepository.findAll().stream().filter(i -> i.isPaid()).count();
+        assertEquals(2L * SEED_LOANS, paidInstallments);
+
+        BigDecimal principalLent = loans.stream().map(Loan::getLoanAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal principalRepaid = new BigDecimal("2.00").multiply(BigDecimal.valueOf(paidInstallments));
+        Customer ledger = customerRepository.findById(CUSTOMER_ID).orElseThrow();
+        assertEquals(0, principalLent.subtract(principalRepaid).compareTo(ledger.getUsedCreditLimit()),
+                "Used credit " + ledger.getUsedCreditLimit() + " does not match outstanding principal");
+        assertTrue(ledger.getUsedCreditLimit().compareTo(ledger.getCreditLimit()) <= 0);
+    }
+
+    private CreateUserLoanRequest loanRequest(String amount) {
+        CreateUserLoanRequest request = new CreateUserLoanRequest();
+        request.setAmount(new BigDecimal(amount));
+        request.setInterestRate(new BigDecimal("0.10"));
+        request.setNumberOfInstallments(6);
+        return request;
+    }
+
+    private Authentication customerAuthentication() {
+        AuthenticatedUser user = new AuthenticatedUser(2L, "johndoe", null, Role.ROLE_CUSTOMER, CUSTOMER_ID);
+        return UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.dto.CustomerPaymentResponse;
+import com.example.LoanAPIBackend.enums.AllocationStrategy;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.exception.PaymentException;
+import com.example.LoanAPIBackend.model.CustomerExposure;
+import com.example.LoanAPIBackend.repository.CustomerExposureRepository;
+import com.example.LoanAPIBackend.repository.CustomerRepository;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.support.SqlStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customer-payment-test",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.LoanAPIBackend.support.SqlStatementCounter"
+})
+class CustomerPaymentTest {
+
+    private static final Long CUSTOMER_ID = 3L;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerExposureRepository customerExposureRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long currentLoanId;
+    private Long threeMonthsBehindLoanId;
+    private Long twoMonthsBehindLoanId;
+
+    // Three loans of six installments: 220.00 each due from next month on, 110.00 each with the first two
+    // overdue, and 330.00 each with the first one overdue, a month later than the oldest 110.00 one.
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("update customer_exposure set open_loan_count = 0, unpaid_installment_count = 0, " +
+                "outstanding_amount = 0, next_due_date = null, overdue_installment_count = 0");
+        jdbcTemplate.update("delete from loan_installment");
+        jdbcTemplate.update("delete from loan");
+        jdbcTemplate.update("update customers set used_credit_limit = 0");
+        currentLoanId = createLoan("1200.00");
+        threeMonthsBehindLoanId = createLoan("600.00");
+        twoMonthsBehindLoanId = createLoan("1800.00");
+        jdbcTemplate.update("update loan_installment set due_date = DATEADD(MONTH, -3, due_date) where loan_id = ?",
+                threeMonthsBehindLoanId);
+        jdbcTemplate.update("update loan_installment set due_date = DATEADD(MONTH, -2, due_date) where loan_id = ?",
+                twoMonthsBehindLoanId);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void oldestDueFirst_PaysEarliestInstallmentsAcrossLoansInOneTransaction() {
+        BigDecimal usedBefore = usedCreditLimit();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        SqlStatementCounter.reset();
+        statistics.clear();
+
+        CustomerPaymentResponse response = paymentService.payCustomerInstallments(CUSTOMER_ID,
+                new BigDecimal("330.00"), AllocationStrategy.OLDEST_DUE_FIRST, adminAuthentication());
+
+        // 110.00 two months ago, 110.00 a month ago ahead of the 330.00 due the same day, then 110.00 this
+        // month: the overdue 330.00 no longer fits and its loan drops out.
+        assertEquals(3, response.getInstallmentsPaidCount());
+        assertEquals(1, response.getLoans().size());
+        assertEquals(threeMonthsBehindLoanId, response.getLoans().get(0).getLoanId());
+        assertEquals(0, new BigDecimal("330.00").compareTo(response.getTotalBaseAmountDebitedFromPayment()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(response.getRemainingPaymentAmount()));
+
+        assertEquals(1, SqlStatementCounter.count("update loan_installment "));
+        assertEquals(1, SqlStatementCounter.count("update customers "));
+        assertEquals(1, SqlStatementCounter.count("update loan set "));
+        assertEquals(1, SqlStatementCounter.count("update customer_exposure "));
+        // Loans locked, all unpaid installments read, one installment batch, one credit delta, one loan update,
+        // and the exposure summary read and update plus its next-due-date query.
+        assertEquals(8, statistics.getPrepareStatementCount());
+
+        assertEquals(0, usedBefore.subtract(new BigDecimal("300.00")).compareTo(usedCreditLimit()));
+        CustomerExposure exposure = customerExposureRepository.findById(CUSTOMER_ID).orElseThrow();
+        assertEquals(15, exposure.getUnpaidInstallmentCount());
+        assertEquals(3, exposure.getOpenLoanCount());
+    }
+
+    @Test
+    void highestPenaltyFirst_PaysLargestLateFeeFirst() {
+        BigDecimal usedBefore = usedCreditLimit();
+
+        CustomerPaymentResponse response = paymentService.payCustomerInstallments(CUSTOMER_ID,
+                new BigDecimal("330.00"), AllocationStrategy.HIGHEST_PENALTY_FIRST, adminAuthentication());
+
+        // A month late on 330.00 outweighs two months late on 110.00.
+        assertEquals(1, response.getInstallmentsPaidCount());
+        assertEquals(twoMonthsBehindLoanId, response.getLoans().get(0).getLoanId());
+        assertTrue(response.getTotalActualAmountAccountedForInstallments().compareTo(new BigDecimal("330.00")) > 0);
+        assertEquals(0, usedBefore.subtract(new BigDecimal("300.00")).compareTo(usedCreditLimit()));
+    }
+
+    @Test
+    void largePayment_SpreadsOverEveryLoanAndPaysOffWhatFitsTheWindow() {
+        CustomerPaymentResponse response = paymentService.payCustomerInstallments(CUSTOMER_ID,
+                new BigDecimal("5000.00"), null, adminAuthentication());
+
+        // Window of this month and the next two: 2 of the current loan, 5 of the first behind, 4 of the second.
+        assertEquals(AllocationStrategy.OLDEST_DUE_FIRST, response.getStrategy());
+        assertEquals(11, response.getInstallmentsPaidCount());
+        assertEquals(List.of(currentLoanId, threeMonthsBehindLoanId, twoMonthsBehindLoanId),
+                response.getLoans().stream().map(CustomerPaymentResponse.LoanPayment::getLoanId).toList());
+        assertEquals(0, new BigDecimal("2310.00").compareTo(response.getTotalBaseAmountDebitedFromPayment()));
+        assertEquals(0, new BigDecimal("2690.00").compareTo(response.getRemainingPaymentAmount()));
+        assertTrue(response.getLoans().stream().noneMatch(CustomerPaymentResponse.LoanPayment::isLoanFullyPaid));
+    }
+
+    @Test
+    void amountBelowSmallestInstallment_IsRejected() {
+        PaymentException exception = assertThrows(PaymentException.class, () ->
+                paymentService.payCustomerInstallments(CUSTOMER_ID, new BigDecimal("100.00"),
+                        AllocationStrategy.OLDEST_DUE_FIRST, adminAuthentication()));
+
+        assertEquals(PaymentException.Reason.AMOUNT_BELOW_INSTALLMENT, exception.getReason());
+    }
+
+    @Test
+    void otherCustomer_IsForbidden() {
+        AuthenticatedUser robert = new AuthenticatedUser(5L, "robertb", null, Role.ROLE_CUSTOMER, 4L);
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(robert, null,
+                robert.getAuthorities());
+
+        assertThrows(AccessDeniedException.class, () -> paymentService.payCustomerInstallments(CUSTOMER_ID,
+                new BigDecimal("330.00"), AllocationStrategy.OLDEST_DUE_FIRST, authentication));
+    }
+
+    private Long createLoan(String amount) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(CUSTOMER_ID);
+        request.setAmount(new BigDecimal(amount));
+        request.setInterestRate(new BigDecimal("0.10"));
+        request.setNumberOfInstallments(6);
+        return loanService.createLoanWithCustomerbyAdmin(request).getId();
+    }
+
+    private BigDecimal usedCreditLimit() {
+        return customerRepository.findById(CUSTOMER_ID).orElseThrow().getUsedCreditLimit();
+    }
+
+    private Authentication adminAuthentication() {
+        AuthenticatedUser admin = new AuthenticatedUser(1L, "admin", null, Role.ROLE_ADMIN, null);
+        return UsernamePasswordAuthenticationToken.authenticated(admin, null, admin.getAuthorities());
+    }
+}
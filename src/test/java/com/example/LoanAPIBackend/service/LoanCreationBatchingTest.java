@@ -0,0 +1,71 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.dto.LoanResponse;
+import com.example.LoanAPIBackend.support.SqlStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statementcount",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.LoanAPIBackend.support.SqlStatementCounter"
+})
+class LoanCreationBatchingTest {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void createLoan_With24Installments_InsertsInstallmentsInOneBatch() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        SqlStatementCounter.reset();
+        statistics.clear();
+
+        LoanResponse response = loanService.createLoanWithCustomerbyAdmin(request(24));
+
+        assertEquals(24, response.getInstallments().size());
+        assertEquals(1, SqlStatementCounter.count("insert into loan "));
+        assertEquals(1, SqlStatementCounter.count("insert into loan_installment "));
+        // Customer read + credit update, loan insert, one installment batch, and at most one fetch per sequence.
+        assertTrue(statistics.getPrepareStatementCount() <= 6,
+                "Unexpected statement count: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void createLoan_StatementCountDoesNotGrowWithInstallmentCount() {
+        // Warm both sequences so pooled-lo blocks are already allocated for the measured loans.
+        loanService.createLoanWithCustomerbyAdmin(request(6));
+
+        SqlStatementCounter.reset();
+        loanService.createLoanWithCustomerbyAdmin(request(6));
+        long insertsForSix = SqlStatementCounter.count("insert into");
+
+        SqlStatementCounter.reset();
+        loanService.createLoanWithCustomerbyAdmin(request(24));
+        long insertsForTwentyFour = SqlStatementCounter.count("insert into");
+
+        assertEquals(2, insertsForSix);
+        assertEquals(insertsForSix, insertsForTwentyFour);
+    }
+
+    private CreateLoanRequest request(int numberOfInstallments) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(6L);
+        request.setAmount(new BigDecimal("240.00"));
+        request.setInterestRate(new BigDecimal("0.20"));
+        request.setNumberOfInstallments(numberOfInstallments);
+        return request;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.dto.BulkLoanItemResult;
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.enums.BulkItemStatus;
+import com.example.LoanAPIBackend.model.Customer;
+import com.example.LoanAPIBackend.repository.CustomerRepository;
+import com.example.LoanAPIBackend.repository.LoanRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.loans.bulk.chunk-size=2")
+class LoanImportServiceTest {
+
+    @Autowired
+    private LoanImportService loanImportService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Test
+    void importLoans_ChecksCreditInAggregateAndKeepsGoodItemsWhenOthersFail() {
+        // Customer 4 has a credit limit of 8000.
+        BigDecimal usedBefore = customerRepository.findById(4L).orElseThrow().getUsedCreditLimit();
+        List<CreateLoanRequest> requests = List.of(
+                request(4L, "5000.00", 12),
+                request(4L, "2000.00", 6),
+                request(4L, "2000.00", 6),
+                request(99L, "100.00", 6),
+                request(4L, "100.00", 7),
+                request(4L, null, 6),
+                request(4L, "0.001", 6));
+
+        List<BulkLoanItemResult> results = new ArrayList<>();
+        loanImportService.importLoans(requests.iterator(), results::add);
+
+        assertEquals(7, results.size());
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L), results.stream().map(BulkLoanItemResult::getIndex).toList());
+
+        assertEquals(BulkItemStatus.CREATED, results.get(0).getStatus());
+        assertEquals(BulkItemStatus.CREATED, results.get(1).getStatus());
+        assertEquals(BulkItemStatus.REJECTED, results.get(2).getStatus());
+        assertTrue(results.get(2).getMessage().startsWith("Customer does not have enough credit limit"));
+        assertEquals("Customer not found with id: 99", results.get(3).getMessage());
+        assertEquals("Number of installments can only be 6, 9, 12, or 24.", results.get(4).getMessage());
+        assertEquals("amount: must not be null", results.get(5).getMessage());
+        assertEquals("amount: Loan amount must have at most 2 decimal places", results.get(6).getMessage());
+
+        assertTrue(loanRepository.existsById(results.get(0).getLoanId()));
+        assertTrue(loanRepository.existsById(results.get(1).getLoanId()));
+
+        Customer customer = customerRepository.findById(4L).orElseThrow();
+        assertEquals(0, usedBefore.add(new BigDecimal("7000.00")).compareTo(customer.getUsedCreditLimit()));
+    }
+
+    @Test
+    void importLoans_RejectsMalformedItemsAndAnswersEverythingReadBeforeASyntaxError() {
+        String ndjson = """
+                {"customerId": 5, "amount": 100.00, "interestRate": 0.10, "numberOfInstallments": 6}
+                {"customerId": 5, "amount": "lots", "interestRate": 0.10, "numberOfInstallments": 6}
+                {"customerId": 5, "amount": 200.00, "interestRate": 0.10, "numberOfInstallments": 6}
+                {"customerId": 5, "amount": 300.00,, "interestRate": 0.10}
+                {"customerId": 5, "amount": 400.00, "interestRate": 0.10, "numberOfInstallments": 6}
+                """;
+        BigDecimal usedBefore = customerRepository.findById(5L).orElseThrow().getUsedCreditLimit();
+
+        List<BulkLoanItemResult> results = new ArrayList<>();
+        loanImportService.importLoans(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), results::add);
+
+        assertEquals(List.of(0L, 1L, 2L, 3L), results.stream().map(BulkLoanItemResult::getIndex).toList());
+        assertEquals(BulkItemStatus.CREATED, results.get(0).getStatus());
+        assertEquals(BulkItemStatus.REJECTED, results.get(1).getStatus());
+        assertTrue(results.get(1).getMessage().startsWith("Malformed item"));
+        assertEquals(BulkItemStatus.CREATED, results.get(2).getStatus());
+        assertEquals(BulkItemStatus.REJECTED, results.get(3).getStatus());
+        assertTrue(results.get(3).getMessage().startsWith("Malformed input, import stopped at this item"));
+
+        Customer customer = customerRepository.findById(5L).orElseThrow();
+        assertEquals(0, usedBefore.add(new BigDecimal("300.00")).compareTo(customer.getUsedCreditLimit()));
+    }
+
+    private CreateLoanRequest request(Long customerId, String amount, int numberOfInstallments) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(customerId);
+        request.setAmount(amount != null ? new BigDecimal(amount) : null);
+        request.setInterestRate(new BigDecimal("0.10"));
+        request.setNumberOfInstallments(numberOfInstallments);
+        return request;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.dto.LoanInstallmentResponse;
+import com.example.LoanAPIBackend.dto.LoanResponse;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class LoanServiceStatementCountTest {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long loanId;
+
+    @BeforeEach
+    void setUp() {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(7L);
+        request.setAmount(new BigDecimal("100.00"));
+        request.setInterestRate(new BigDecimal("0.10"));
+        request.setNumberOfInstallments(24);
+        loanId = loanService.createLoanWithCustomerbyAdmin(request).getId();
+
+        // Start every test from a cold second-level cache.
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getLoanById_LoadsLoanAndInstallmentsInOneStatement() {
+        LoanResponse response = loanService.getLoanById(loanId, customerAuthentication());
+
+        assertEquals(24, response.getInstallments().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getInstallmentsByLoanId_LoadsInstallmentsWithLoanInOneStatement() {
+        List<LoanInstallmentResponse> installments = loanService.getInstallmentsByLoanId(loanId, customerAuthentication());
+
+        assertEquals(24, installments.size());
+        assertTrue(installments.stream().allMatch(installment -> loanId.equals(installment.getLoanId())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getLoanById_RepeatedReadIsServedFromSecondLevelCache() {
+        loanService.getLoanById(loanId, customerAuthentication());
+        statistics.clear();
+
+        LoanResponse response = loanService.getLoanById(loanId, customerAuthentication());
+
+        assertEquals(24, response.getInstallments().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void getInstallmentsByLoanId_AfterLoanDetailIsServedFromSecondLevelCache() {
+        loanService.getLoanById(loanId, customerAuthentication());
+        statistics.clear();
+
+        List<LoanInstallmentResponse> installments = loanService.getInstallmentsByLoanId(loanId, customerAuthentication());
+
+        assertEquals(24, installments.size());
+        assertTrue(installments.stream().allMatch(installment -> loanId.equals(installment.getLoanId())));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private Authentication customerAuthentication() {
+        // Principal as produced by HTTP Basic authentication, so no user lookup is needed.
+        AuthenticatedUser principal = new AuthenticatedUser(8L, "sarahm", "", Role.ROLE_CUSTOMER, 7L);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
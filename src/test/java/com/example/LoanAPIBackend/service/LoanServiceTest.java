@@ -1,27 +1,32 @@
 package com.example.LoanAPIBackend.service;
 
-import com.example.LoanAPIBackend.dto.LoanResponse;
+import com.example.LoanAPIBackend.dto.LoanPageResponse;
+import com.example.LoanAPIBackend.dto.LoanSearchRequest;
 import com.example.LoanAPIBackend.enums.Role;
 import org.springframework.security.access.AccessDeniedException;
 import com.example.LoanAPIBackend.exception.ResourceNotFoundException;
+import com.example.LoanAPIBackend.metrics.LoanMetrics;
 import com.example.LoanAPIBackend.model.Customer;
 import com.example.LoanAPIBackend.model.Loan;
 import com.example.LoanAPIBackend.model.User;
 import com.example.LoanAPIBackend.repository.LoanRepository;
-import com.example.LoanAPIBackend.repository.UserRepository;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.security.service.AuthenticatedUserResolver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,11 +36,17 @@ class LoanServiceTest {
     private LoanRepository loanRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private AuthenticatedUserResolver authenticatedUserResolver;
 
     @Mock
     private Authentication authentication;
 
+    @Spy
+    private LoanMapper loanMapper;
+
+    @Mock
+    private LoanMetrics loanMetrics;
+
     @InjectMocks
     private LoanService loanService;
 
@@ -99,41 +110,63 @@ class LoanServiceTest {
 
     @Test
     void getLoans_AsAdmin_NoFilters_ReturnsAllLoans() {
-        when(authentication.getName()).thenReturn("admin");
-        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(adminUser));
-        when(loanRepository.findAll()).thenReturn(List.of(loan1, loan2, loan3));
+        when(authenticatedUserResolver.resolve(authentication)).thenReturn(AuthenticatedUser.from(adminUser));
+        when(loanRepository.findPageAfter(eq(0L), isNull(), isNull(), isNull(), any(Limit.class)))
+                .thenReturn(List.of(loan1, loan2, loan3));
 
 
-        List<LoanResponse> result = loanService.getLoans( Optional.empty(), authentication);
+        LoanPageResponse result = loanService.getLoans(new LoanSearchRequest(), authentication);
 
 
         assertNotNull(result);
-        assertEquals(3, result.size(), "Admin should see all loans");
-        verify(loanRepository, times(1)).findAll();
+        assertEquals(3, result.getLoans().size(), "Admin should see all loans");
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        verify(loanRepository, never()).findAll();
     }
 
     @Test
     void getLoans_AsCustomer_ReturnsOnlyOwnLoans() {
 
-        when(authentication.getName()).thenReturn("customer1");
-        when(userRepository.findByUsername("customer1")).thenReturn(Optional.of(customerUser1));
-        when(loanRepository.findAll()).thenReturn(List.of(loan1, loan2, loan3));
+        when(authenticatedUserResolver.resolve(authentication)).thenReturn(AuthenticatedUser.from(customerUser1));
+        when(loanRepository.findCustomerPageAfter(eq(customer1.getId()), eq(0L), isNull(), isNull(), isNull(), any(Limit.class)))
+                .thenReturn(List.of(loan1, loan2));
 
-        List<LoanResponse> result = loanService.getLoans( Optional.empty(), authentication);
+        LoanPageResponse result = loanService.getLoans(new LoanSearchRequest(), authentication);
 
         assertNotNull(result);
-        assertEquals(2, result.size(), "Customer should only see their own loans");
-        assertTrue(result.stream().allMatch(loan -> loan.getCustomerId().equals(customer1.getId())), "All returned loans must belong to customer1");
+        assertEquals(2, result.getLoans().size(), "Customer should only see their own loans");
+        assertTrue(result.getLoans().stream().allMatch(loan -> loan.getCustomerId().equals(customer1.getId())), "All returned loans must belong to customer1");
+    }
+
+    @Test
+    void getLoans_WhenMoreRowsThanPageSize_ReturnsCursorOfLastLoanOnPage() {
+        when(authenticatedUserResolver.resolve(authentication)).thenReturn(AuthenticatedUser.from(adminUser));
+        when(loanRepository.findPageAfter(eq(1000L), eq(false), isNull(), isNull(), eq(Limit.of(3))))
+                .thenReturn(List.of(loan1, loan2, loan3));
+
+        LoanSearchRequest search = new LoanSearchRequest();
+        search.setCursor(1000L);
+        search.setIsPaid(false);
+        search.setSize(2);
+
+        LoanPageResponse result = loanService.getLoans(search, authentication);
+
+        assertEquals(2, result.getLoans().size());
+        assertTrue(result.isHasNext());
+        assertEquals(loan2.getId(), result.getNextCursor());
     }
 
     @Test
     void getLoans_AsCustomer_WithAnotherCustomerId_ThrowsAccessDeniedException() {
         Long otherCustomerId = customer2.getId();
-        when(authentication.getName()).thenReturn("customer1");
-        when(userRepository.findByUsername("customer1")).thenReturn(Optional.of(customerUser1));
+        when(authenticatedUserResolver.resolve(authentication)).thenReturn(AuthenticatedUser.from(customerUser1));
+
+        LoanSearchRequest search = new LoanSearchRequest();
+        search.setCustomerId(otherCustomerId);
 
         AccessDeniedException exception = assertThrows(AccessDeniedException.class, () -> {
-            loanService.getLoans(Optional.of(otherCustomerId),  authentication);
+            loanService.getLoans(search,  authentication);
         });
 
         assertEquals("You can only view your own loans.", exception.getMessage());
@@ -142,11 +175,11 @@ class LoanServiceTest {
 
     @Test
     void getLoans_WhenUserNotFound_ThrowsResourceNotFoundException() {
-        when(authentication.getName()).thenReturn("unknown");
-        when(userRepository.findByUsername("unknown")).thenReturn(Optional.empty());
+        when(authenticatedUserResolver.resolve(authentication))
+                .thenThrow(new ResourceNotFoundException("Authenticated user not found."));
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
-            loanService.getLoans(Optional.empty(), authentication);
+            loanService.getLoans(new LoanSearchRequest(), authentication);
         });
 
         assertEquals("Authenticated user not found.", exception.getMessage());
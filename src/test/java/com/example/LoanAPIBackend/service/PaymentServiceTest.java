@@ -2,19 +2,24 @@ package com.example.LoanAPIBackend.service;
 
 import com.example.LoanAPIBackend.dto.PaymentResponse;
 import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.enums.ScheduleType;
 import com.example.LoanAPIBackend.exception.PaymentException;
+import com.example.LoanAPIBackend.metrics.LoanMetrics;
 import com.example.LoanAPIBackend.model.Customer;
 import com.example.LoanAPIBackend.model.Loan;
 import com.example.LoanAPIBackend.model.LoanInstallment;
 import com.example.LoanAPIBackend.model.User;
+import com.example.LoanAPIBackend.outbox.OutboxWriter;
 import com.example.LoanAPIBackend.repository.LoanInstallmentRepository;
 import com.example.LoanAPIBackend.repository.LoanRepository;
-import com.example.LoanAPIBackend.repository.UserRepository;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.security.service.AuthenticatedUserResolver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 
@@ -38,9 +43,17 @@ class PaymentServiceTest {
     @Mock
     private CustomerService customerService;
     @Mock
-    private UserRepository userRepository;
+    private AuthenticatedUserResolver authenticatedUserResolver;
     @Mock
     private Authentication authentication;
+    @Spy
+    private PaymentAllocator paymentAllocator = new PaymentAllocator();
+    @Mock
+    private LoanMetrics loanMetrics;
+    @Mock
+    private CustomerExposureService customerExposureService;
+    @Mock
+    private OutboxWriter outboxWriter;
 
     @InjectMocks
     private PaymentService paymentService;
@@ -53,7 +66,7 @@ class PaymentServiceTest {
     void setUp() {
         Customer customer = new Customer(1L, "John", "Doe", new BigDecimal("10000"), new BigDecimal("1000"));
         customerUser = new User(1L, "johndoe", "password", Role.ROLE_CUSTOMER, customer);
-        loan = new Loan(1L, customer, new BigDecimal("1200"), new BigDecimal("0.10"), 12, LocalDate.now(), false, null); // Listeyi null veya boş bırakabiliriz, testte mockluyoruz.
+        loan = new Loan(1L, customer, new BigDecimal("1200"), new BigDecimal("0.10"), 12, ScheduleType.FLAT, LocalDate.now(), false, null, 0L, null); // Listeyi null veya boş bırakabiliriz, testte mockluyoruz.
 
         installment = new LoanInstallment();
         installment.setId(101L);
@@ -65,16 +78,13 @@ class PaymentServiceTest {
 
     @Test
     void payLoanInstallments_WhenPaymentSufficient_ShouldPayInstallmentAndReturnSuccess() {
-        when(loanRepository.findById(anyLong())).thenReturn(Optional.of(loan));
-        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(customerUser));
-        when(authentication.getName()).thenReturn("johndoe");
+        when(loanRepository.findForUpdateById(anyLong())).thenReturn(Optional.of(loan));
+        when(authenticatedUserResolver.resolve(authentication)).thenReturn(AuthenticatedUser.from(customerUser));
 
         ArrayList<LoanInstallment> installmentList = new ArrayList<>();
         installmentList.add(installment);
         when(loanInstallmentRepository.findByLoanIdAndIsPaidFalseOrderByDueDateAsc(anyLong()))
                 .thenReturn(installmentList);
-        when(loanInstallmentRepository.countByLoanIdAndIsPaidFalse(anyLong())).thenReturn(0L);
-        doNothing().when(customerService).updateUsedCreditLimit(any(Customer.class), any(BigDecimal.class));
 
         BigDecimal paymentAmount = new BigDecimal("150.00");
 
@@ -84,14 +94,18 @@ class PaymentServiceTest {
         assertEquals(1, response.getInstallmentsPaidCount());
         assertTrue(response.isLoanFullyPaid());
         assertEquals("1 installment(s) paid successfully. The loan is now fully paid.", response.getMessage());
+        assertTrue(installment.isPaid());
+        assertTrue(loan.isPaid());
+        verify(customerService).adjustUsedCreditLimit(1L, new BigDecimal("-100.00"));
+        verify(loanInstallmentRepository, never()).countByLoanIdAndIsPaidFalse(anyLong());
+        verify(loanMetrics).paymentAccepted(1, true);
     }
 
 
     @Test
     void payLoanInstallments_WhenPaymentIsInsufficient_ShouldThrowPaymentException() {
-        when(loanRepository.findById(anyLong())).thenReturn(Optional.of(loan));
-        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(customerUser));
-        when(authentication.getName()).thenReturn("johndoe");
+        when(loanRepository.findForUpdateById(anyLong())).thenReturn(Optional.of(loan));
+        when(authenticatedUserResolver.resolve(authentication)).thenReturn(AuthenticatedUser.from(customerUser));
 
         ArrayList<LoanInstallment> installmentList = new ArrayList<>();
         installmentList.add(installment);
@@ -109,5 +123,7 @@ class PaymentServiceTest {
 
         verify(loanInstallmentRepository, never()).save(any(LoanInstallment.class));
         verify(loanRepository, never()).save(any(Loan.class));
+        verify(customerService, never()).adjustUsedCreditLimit(anyLong(), any(BigDecimal.class));
+        verify(loanMetrics).paymentRejected(PaymentException.Reason.AMOUNT_BELOW_INSTALLMENT);
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.example.LoanAPIBackend.service;
+
+import com.example.LoanAPIBackend.dto.CreateLoanRequest;
+import com.example.LoanAPIBackend.dto.PaymentResponse;
+import com.example.LoanAPIBackend.enums.Role;
+import com.example.LoanAPIBackend.repository.CustomerRepository;
+import com.example.LoanAPIBackend.security.model.AuthenticatedUser;
+import com.example.LoanAPIBackend.support.SqlStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statementcount",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.LoanAPIBackend.support.SqlStatementCounter"
+})
+class PaymentStatementCountTest {
+
+    private static final Long CUSTOMER_ID = 5L;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void payLoanInstallments_UpdatesInstallmentsCreditAndLoanInFixedStatements() {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(CUSTOMER_ID);
+        request.setAmount(new BigDecimal("1200.00"));
+        request.setInterestRate(new BigDecimal("0.10"));
+        request.setNumberOfInstallments(6);
+        Long loanId = loanService.createLoanWithCustomerbyAdmin(request).getId();
+        BigDecimal usedBefore = customerRepository.findById(CUSTOMER_ID).orElseThrow().getUsedCreditLimit();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        SqlStatementCounter.reset();
+        statistics.clear();
+
+        // Installments are 220.00 and due from next month on, so the 3-month window covers two of them.
+        PaymentResponse response = paymentService.payLoanInstallments(loanId, new BigDecimal("1000.00"),
+                adminAuthentication());
+
+        assertEquals(2, response.getInstallmentsPaidCount());
+        assertEquals(0, new BigDecimal("440.00").compareTo(response.getTotalBaseAmountDebitedFromPayment()));
+        assertEquals(0, new BigDecimal("560.00").compareTo(response.getRemainingPaymentAmount()));
+        assertFalse(response.isLoanFullyPaid());
+
+        assertEquals(1, SqlStatementCounter.count("update loan_installment "));
+        assertEquals(1, SqlStatementCounter.count("update customers "));
+        assertEquals(1, SqlStatementCounter.count("update loan set "));
+        assertEquals(1, SqlStatementCounter.count("update customer_exposure "));
+        assertEquals(0, SqlStatementCounter.count("select count("));
+        // Loan read, unpaid installments read, one installment batch, one credit delta, the loan version bump,
+        // and the exposure summary read and update plus its next-due-date query, as the earliest installment was paid.
+        assertEquals(8, statistics.getPrepareStatementCount());
+
+        BigDecimal usedAfter = customerRepository.findById(CUSTOMER_ID).orElseThrow().getUsedCreditLimit();
+        assertEquals(0, usedBefore.subtract(new BigDecimal("400.00")).compareTo(usedAfter));
+    }
+
+    private Authentication adminAuthentication() {
+        AuthenticatedUser admin = new AuthenticatedUser(1L, "admin", null, Role.ROLE_ADMIN, null);
+        return UsernamePasswordAuthenticationToken.authenticated(admin, null, admin.getAuthorities());
+    }
+}
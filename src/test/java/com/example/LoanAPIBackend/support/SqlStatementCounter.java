@@ -0,0 +1,36 @@
+package com.example.LoanAPIBackend.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every SQL string Hibernate prepares. With JDBC batching a batch is prepared once,
+ * so the number of recorded inserts for a table equals the number of batches sent for it.
+ * Register with {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql.toLowerCase());
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements(String prefix) {
+        String normalized = prefix.toLowerCase();
+        return STATEMENTS.stream().filter(sql -> sql.startsWith(normalized)).toList();
+    }
+
+    public static long count(String prefix) {
+        String normalized = prefix.toLowerCase();
+        return STATEMENTS.stream().filter(sql -> sql.startsWith(normalized)).count();
+    }
+}